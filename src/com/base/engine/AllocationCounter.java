@@ -0,0 +1,103 @@
+package com.base.engine;
+
+import com.base.game.Time;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+
+/**
+ * Counts the bytes allocated on the heap by each step of a warmed up world, to check the physics loop runs without making garbage
+ * The world is built by HeadlessRunner from the same options, stepped until the JIT has settled, then stepped again while the bytes allocated by every thread are counted
+ * The count comes from the JVM's per-thread allocation counters, so it includes the solver pool's threads and needs a JVM that supports them
+ *
+ * @author JordanG
+ */
+public class AllocationCounter
+{
+    private static final String USAGE = "usage: AllocationCounter [-warmup steps] [-measure steps] [HeadlessRunner options]";
+
+    /**
+     * Runnable that warms up for 2000 steps and counts over the next 1000 by default
+     *
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        int warmup = 2000;
+        int measure = 1000;
+        ArrayList<String> runnerArgs = new ArrayList<String>();
+        try
+        {
+            for(int i = 0; i < args.length; i++)
+            {
+                if(args[i].equals("-warmup") && i + 1 < args.length)
+                {
+                    warmup = Integer.parseInt(args[++i]);
+                }
+                else if(args[i].equals("-measure") && i + 1 < args.length)
+                {
+                    measure = Integer.parseInt(args[++i]);
+                }
+                else
+                {
+                    runnerArgs.add(args[i]);
+                }
+            }
+        }
+        catch(NumberFormatException ex)
+        {
+            System.out.println(USAGE);
+            return;
+        }
+
+        HeadlessRunner runner = new HeadlessRunner();
+        if(measure <= 0 || !runner.parse(runnerArgs.toArray(new String[runnerArgs.size()])))
+        {
+            System.out.println(USAGE);
+            return;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        if(!threads.isThreadAllocatedMemorySupported())
+        {
+            System.out.println("allocation counting is not supported by this JVM");
+            return;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        runner.build();
+        float duration = Time.getPhysicsDelta();
+        for(int step = 0; step < warmup; step++)
+        {
+            runner.getWorld().step(duration);
+        }
+
+        long before = allocatedBytes(threads);
+        for(int step = 0; step < measure; step++)
+        {
+            runner.getWorld().step(duration);
+        }
+        long allocated = allocatedBytes(threads) - before;
+
+        System.out.println("bytes/step " + (allocated / (double)measure) + " over " + measure + " steps after " + warmup + " warm up steps, "
+                + runner.getWorld().getContacts().size() + " contacts in the last step");
+        runner.getWorld().destroy();
+    }
+
+    /**
+     * Sum the bytes allocated so far by every live thread, the counting thread included
+     *
+     * @param threads
+     * @return
+     */
+    private static long allocatedBytes(com.sun.management.ThreadMXBean threads)
+    {
+        long total = 0;
+        for(long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds()))
+        {
+            if(bytes > 0)
+            {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+}
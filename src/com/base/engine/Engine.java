@@ -1,266 +1,330 @@
-package com.base.engine;
-
-import com.base.engine.keyboard.KeyStates;
-import com.base.engine.loop.Input;
-import com.base.engine.loop.Render;
-import com.base.engine.loop.Update;
-import com.base.engine.states.Game;
-import com.base.engine.states.Intro;
-import com.base.engine.states.MainMenu;
-import com.base.game.Time;
-import java.net.URL;
-import org.lwjgl.LWJGLException;
-import org.lwjgl.input.Keyboard;
-import org.lwjgl.opengl.Display;
-import org.lwjgl.opengl.DisplayMode;
-
-/**
- * Handles the initialisation, looping and destruction of the engine's main components
- * 
- * @author JordanG
- */
-public class Engine
-{    
-    public static Engine engine;
-    public static State state;
-    private static Input input;
-    private static Render render;
-    
-    public static KeyStates p1Key;
-    private static int displayWidth, displayHeight;
-    public static int framesPassed;
-    public static boolean quit;
-    
-    public Engine()
-    {
-        state = State.GAME;
-        framesPassed = 30;
-        quit = false;
-        
-        //CALL ONCE UPON LAUNCH
-        checkSettings();
-        
-        initDisplay();                                                          
-        initGL();                                                               
-        initAL();
-        initTextureLoader();
-        initKeyboard();
-        
-        initIntro();                                                             
-        initMainMenu();
-        initGame();
-        
-        //LOOP EVERY FRAME
-        gameLoop2();                                                            
-        
-        //CALL ONCE UPON TERMINATION
-        cleanUp();                                                              
-    }
-    
-    /**
-     * Check for the existance of the settings file in the project folder
-     * Was used to extract the dimensions of the display window but currently unused
-     */
-    private static void checkSettings()
-    {
-        URL url = Main.class.getClassLoader().getResource("settings/settings.txt");
-        
-        if(url == null)
-        {
-            System.out.println("Not found");
-            displayWidth = 800;
-            displayHeight = 600;
-        }
-        else
-        {
-            System.out.println("Found");
-            displayWidth = 800;
-            displayHeight = 600;
-        }
-    }
-
-    /**
-     * Initialise the LWJGL display window
-     */
-    private static void initDisplay()                                           
-    {
-        try
-        {
-            Display.setDisplayMode(new DisplayMode(displayWidth, displayHeight));                  
-            Display.create();                                                   
-            //Display.setVSyncEnabled(true);                                    //disabled V-sync                            
-        }
-        catch (LWJGLException ex)
-        {
-            ex.printStackTrace();
-        }
-    }
-    
-    /**
-     * Initialise the OpenGL render class that will be used while the engine is running
-     */
-    private static void initGL()
-    {
-        render = new Render();
-    }
-    
-    /**
-     * Initialise the OpenAL sound manager that will be used while the engine is running
-     * Setup with 8 sound channels
-     */
-    private static void initAL()
-    {
-        SoundManager.soundManager = new SoundManager();
-        SoundManager.soundManager.initialize(8);
-    }
-    
-    /**
-     * Initialise the texture loader class that will be used to load all texture images while the engine is running
-     */
-    private static void initTextureLoader()
-    {
-        TextureLoader.textureLoader = new TextureLoader();
-    }
-    
-    /**
-     * Initialise the keyboard class that will be used to handle all keyboard input while the engine is running
-     */
-    private static void initKeyboard()
-    {   
-        input = new Input();
-    }
-    
-    /**
-     * Initialise the intro splash screen state of the engine
-     */
-    private static void initIntro()
-    {
-        Intro.intro = new Intro();
-    }
-    
-    /**
-     * Initialise the main menu screen state of the engine
-     */
-    private static void initMainMenu()
-    {
-        MainMenu.mainMenu = new MainMenu();
-    }
-    
-    /**
-     * Initialise the game state of the engine (the main state)
-     */
-    public static void initGame()                                              
-    {
-        Game.game = new Game();                                                 
-    }
-    
-    /**
-     * Fixed timestep game loop with coupled physics
-     */
-    private static void gameLoop()                                             
-    {
-        Time.init();                                                            
-        
-        int frames = 0;                                                         
-        long lastTime = System.nanoTime();                                    
-        long totalTime = 0;                                                     
-        
-        Update.update = new Update();
-        
-        while(!Display.isCloseRequested() && !quit)                                     
-        {   
-            long now = System.nanoTime();                                       
-            long passed = now - lastTime;                                       
-            lastTime = now;                                                     
-            totalTime += passed;                                               
-            
-            if(totalTime >= 1000000000)                                        
-            {
-                framesPassed = frames;
-                System.out.println("FPS: " + frames + " " + Time.getDelta());                               
-                totalTime = 0;                                                  
-                frames = 0;                                                  
-            }
-            Time.update();                                                      
-            
-            input.getInput();                                                         
-            Update.update.update();                                                         
-            render.render();                                                          
-        
-            frames++;                                                           
-        }
-    }
-    
-    /**
-     * Runs the semi-fixed timestep game loop with decoupled physics while the engine is active
-     */
-    private static void gameLoop2()                                             
-    {
-        Time.init();                                                            
-        
-        int frames = 0;                                                         
-        long lastTime = System.nanoTime();                                     
-        long totalTime = 0;                                                    
-        long updateTime = 0;
-        
-        Update.update = new Update();
-        
-        while(!Display.isCloseRequested() && !quit)                                  
-        {   
-            long now = System.nanoTime();                                     
-            long passed = now - lastTime;                                       
-            lastTime = now;                                                   
-            totalTime += passed;                                               
-            updateTime += passed;
-            
-            //16666666.6667f run physics once every 16 milliseconds, basically a 60FPS physics system
-            while(updateTime >= 16666666.6667f)
-            {
-                framesPassed = frames;
-                Update.update.update();
-                updateTime -= 16666666.6667f;
-            }
-            
-            input.getInput();                                                                 
-            
-            //render.interpolate(totalTime/Time.getDelta());
-            render.render();                                                         
-        
-            if(totalTime >= 1000000000)                                       
-            {
-                framesPassed = frames;
-                System.out.println("FPS: " + frames + " " + Time.getDelta());                                 
-                totalTime = 0;                                                 
-                frames = 0;                                                
-            }
-            frames++;                                                          
-        }
-    }
-    
-    /**
-     * Moves onto the next engine state in the state "queue"
-     */
-    public static void nextState()
-    {
-        state = state.getNext();
-    }
-    
-    /**
-     * Sets the engine state to the specified state
-     * 
-     * @param state the specified state to set the engine state to
-     */
-    public static void setState(State state)
-    {
-        state = state;
-    }
-    
-    /**
-     * Cleanup the engine on deconstruction by destroying the display and keyboard input classes
-     */
-    private static void cleanUp()                                               
-    {
-        Display.destroy();                                                      
-        Keyboard.destroy();                                                    
-    }
-}
+package com.base.engine;
+
+import com.base.engine.keyboard.KeyStates;
+import com.base.engine.loop.Input;
+import com.base.engine.loop.PhysicsThread;
+import com.base.engine.loop.Render;
+import com.base.engine.loop.StepClock;
+import com.base.engine.loop.Update;
+import com.base.engine.states.Game;
+import com.base.engine.states.Intro;
+import com.base.engine.states.MainMenu;
+import com.base.game.Time;
+import java.net.URL;
+import org.lwjgl.LWJGLException;
+import org.lwjgl.input.Keyboard;
+import org.lwjgl.opengl.Display;
+import org.lwjgl.opengl.DisplayMode;
+
+/**
+ * Handles the initialisation, looping and destruction of the engine's main components
+ * 
+ * @author JordanG
+ */
+public class Engine
+{    
+    public static Engine engine;
+    public static volatile State state;
+    private static Input input;
+    private static Render render;
+    
+    public static KeyStates p1Key;
+    private static int displayWidth, displayHeight;
+    public static int framesPassed;
+    public static boolean quit;
+    
+    //fixed step settings, read when the loop and game are initialised
+    public static int maxStepsPerFrame = 5;                                     //catch-up steps allowed in one frame before time is dropped or dilated
+    public static boolean timeDilation = false;
+    public static int maxSubsteps = 1;                                          //above 1 the game world substeps adaptively
+    
+    public Engine()
+    {
+        state = State.GAME;
+        framesPassed = 30;
+        quit = false;
+        
+        //CALL ONCE UPON LAUNCH
+        checkSettings();
+        
+        initDisplay();                                                          
+        initGL();                                                               
+        initAL();
+        initTextureLoader();
+        initKeyboard();
+        
+        initIntro();                                                             
+        initMainMenu();
+        initGame();
+        
+        //LOOP EVERY FRAME
+        gameLoop3();                                                            
+        
+        //CALL ONCE UPON TERMINATION
+        cleanUp();                                                              
+    }
+    
+    /**
+     * Check for the existance of the settings file in the project folder
+     * Was used to extract the dimensions of the display window but currently unused
+     */
+    private static void checkSettings()
+    {
+        URL url = Main.class.getClassLoader().getResource("settings/settings.txt");
+        
+        if(url == null)
+        {
+            System.out.println("Not found");
+            displayWidth = 800;
+            displayHeight = 600;
+        }
+        else
+        {
+            System.out.println("Found");
+            displayWidth = 800;
+            displayHeight = 600;
+        }
+    }
+
+    /**
+     * Initialise the LWJGL display window
+     */
+    private static void initDisplay()                                           
+    {
+        try
+        {
+            Display.setDisplayMode(new DisplayMode(displayWidth, displayHeight));                  
+            Display.create();                                                   
+            //Display.setVSyncEnabled(true);                                    //disabled V-sync                            
+        }
+        catch (LWJGLException ex)
+        {
+            ex.printStackTrace();
+        }
+    }
+    
+    /**
+     * Initialise the OpenGL render class that will be used while the engine is running
+     */
+    private static void initGL()
+    {
+        render = new Render();
+    }
+    
+    /**
+     * Initialise the OpenAL sound manager that will be used while the engine is running
+     * Setup with 8 sound channels
+     */
+    private static void initAL()
+    {
+        SoundManager.soundManager = new SoundManager();
+        SoundManager.soundManager.initialize(8);
+    }
+    
+    /**
+     * Initialise the texture loader class that will be used to load all texture images while the engine is running
+     */
+    private static void initTextureLoader()
+    {
+        TextureLoader.textureLoader = new TextureLoader();
+    }
+    
+    /**
+     * Initialise the keyboard class that will be used to handle all keyboard input while the engine is running
+     */
+    private static void initKeyboard()
+    {   
+        input = new Input();
+    }
+    
+    /**
+     * Initialise the intro splash screen state of the engine
+     */
+    private static void initIntro()
+    {
+        Intro.intro = new Intro();
+    }
+    
+    /**
+     * Initialise the main menu screen state of the engine
+     */
+    private static void initMainMenu()
+    {
+        MainMenu.mainMenu = new MainMenu();
+    }
+    
+    /**
+     * Initialise the game state of the engine (the main state)
+     */
+    public static void initGame()                                              
+    {
+        Game.game = new Game();                                                 
+        if(maxSubsteps > 1)
+        {
+            Game.game.getWorld().setAdaptiveSubstepping(maxSubsteps);
+        }
+    }
+    
+    /**
+     * Create the clock handing out physics steps with the fixed step settings of the engine
+     * 
+     * @return 
+     */
+    private static StepClock createClock()
+    {
+        StepClock clock = new StepClock(Time.getPhysicsStepNanos(), maxStepsPerFrame);
+        clock.setTimeDilation(timeDilation);
+        return clock;
+    }
+    
+    /**
+     * Fixed timestep game loop with coupled physics
+     */
+    private static void gameLoop()                                             
+    {
+        Time.init();                                                            
+        
+        int frames = 0;                                                         
+        long lastTime = System.nanoTime();                                    
+        long totalTime = 0;                                                     
+        
+        Update.update = new Update();
+        
+        while(!Display.isCloseRequested() && !quit)                                     
+        {   
+            long now = System.nanoTime();                                       
+            long passed = now - lastTime;                                       
+            lastTime = now;                                                     
+            totalTime += passed;                                               
+            
+            if(totalTime >= 1000000000)                                        
+            {
+                framesPassed = frames;
+                System.out.println("FPS: " + frames + " " + Time.getDelta());                               
+                totalTime = 0;                                                  
+                frames = 0;                                                  
+            }
+            Time.update();                                                      
+            
+            input.getInput();                                                         
+            Update.update.update();                                                         
+            render.render();                                                          
+        
+            frames++;                                                           
+        }
+    }
+    
+    /**
+     * Runs the semi-fixed timestep game loop with decoupled physics while the engine is active
+     */
+    private static void gameLoop2()                                             
+    {
+        Time.init();                                                            
+        
+        int frames = 0;                                                         
+        long lastTime = System.nanoTime();                                     
+        long totalTime = 0;                                                    
+        StepClock clock = createClock();
+        
+        Update.update = new Update();
+        
+        while(!Display.isCloseRequested() && !quit)                                  
+        {   
+            long now = System.nanoTime();                                     
+            long passed = now - lastTime;                                       
+            lastTime = now;                                                   
+            totalTime += passed;                                               
+            
+            //run physics once every step of the clock, 16 milliseconds by default, basically a 60FPS physics system
+            int steps = clock.advance(passed);
+            Time.setStepClock((float)clock.getRemaining() / Time.getPhysicsStepNanos(), clock.getTimeScale());
+            for(int step = 0; step < steps; step++)
+            {
+                framesPassed = frames;
+                Update.update.update();
+            }
+            
+            input.getInput();                                                                 
+            
+            //render.interpolate(totalTime/Time.getDelta());
+            render.render();                                                         
+        
+            if(totalTime >= 1000000000)                                       
+            {
+                framesPassed = frames;
+                System.out.println("FPS: " + frames + " " + Time.getDelta());                                 
+                totalTime = 0;                                                 
+                frames = 0;                                                
+            }
+            frames++;                                                          
+        }
+    }
+    
+    /**
+     * Runs the game loop with physics on its own thread while the engine is active
+     * This thread only handles input and rendering, the physics thread steps at a fixed rate and publishes snapshots for rendering to read
+     */
+    private static void gameLoop3()
+    {
+        Time.init();
+        
+        int frames = 0;
+        long lastTime = System.nanoTime();
+        long totalTime = 0;
+        
+        Update.update = new Update();
+        PhysicsThread.physicsThread = new PhysicsThread(createClock(), Time.getPhysicsStepNanos());
+        PhysicsThread.physicsThread.start();
+        
+        while(!Display.isCloseRequested() && !quit)
+        {
+            long now = System.nanoTime();
+            long passed = now - lastTime;
+            lastTime = now;
+            totalTime += passed;
+            
+            input.getInput();
+            render.render();
+            
+            if(totalTime >= 1000000000)
+            {
+                framesPassed = frames;
+                StepClock clock = PhysicsThread.physicsThread.getClock();
+                System.out.println("FPS: " + frames + " steps: " + clock.steps + " caught up: " + clock.catchUpSteps
+                        + " dropped ms: " + clock.droppedNanos / 1000000 + " dilated ms: " + clock.dilatedNanos / 1000000);
+                totalTime = 0;
+                frames = 0;
+            }
+            frames++;
+        }
+        
+        PhysicsThread.physicsThread.finish();
+    }
+    
+    /**
+     * Moves onto the next engine state in the state "queue"
+     */
+    public static void nextState()
+    {
+        state = state.getNext();
+    }
+    
+    /**
+     * Sets the engine state to the specified state
+     * 
+     * @param state the specified state to set the engine state to
+     */
+    public static void setState(State state)
+    {
+        state = state;
+    }
+    
+    /**
+     * Cleanup the engine on deconstruction by destroying the display and keyboard input classes
+     */
+    private static void cleanUp()                                               
+    {
+        Display.destroy();                                                      
+        Keyboard.destroy();                                                    
+    }
+}
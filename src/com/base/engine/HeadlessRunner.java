@@ -0,0 +1,379 @@
+package com.base.engine;
+
+import com.base.engine.math.Matrix3;
+import com.base.engine.math.Quaternion;
+import com.base.engine.math.Vec;
+import com.base.engine.physics.Box;
+import com.base.engine.physics.CollisionHull;
+import com.base.engine.physics.CollisionPrimitive;
+import com.base.engine.physics.DynamicTree;
+import com.base.engine.physics.GjkEpa;
+import com.base.engine.physics.Hull;
+import com.base.engine.physics.PositionCorrection;
+import com.base.engine.physics.SequentialImpulseSolver;
+import com.base.engine.physics.SpatialHashGrid;
+import com.base.engine.physics.SweepAndPrune;
+import com.base.engine.physics.World;
+import com.base.game.Time;
+
+/**
+ * Steps a physics world without a display, keyboard or sound, for batch simulation on servers and for benchmarking
+ * Every step advances the world by the fixed physics delta, either as fast as possible or paced to a fixed number of steps per second
+ * Steps per second and the time spent in each stage are printed every second and for the whole run, followed by a checksum of where the bodies ended up
+ *
+ * @author JordanG
+ */
+public class HeadlessRunner
+{
+    private static final String USAGE = "usage: HeadlessRunner [-steps n] [-rate stepsPerSecond, 0 for as fast as possible] [-physicsRate stepsPerSimulatedSecond] [-maxSubsteps n] [-scene stacks|pile] [-stacks n] [-height n]"
+            + " [-solver resolver|impulse] [-threads n] [-broadphase grid|sap|tree] [-ccd] [-nosleep]"
+            + " [-shape box|hull] [-narrowphase sat|gjk]";
+
+    private World world;
+    private int steps = 1000;
+    private int rate = 0;
+    private int stacks = 100;
+    private int height = 4;
+    private boolean hulls;
+    private boolean pile;
+    private boolean awake;
+
+    /**
+     * Runnable that builds the world described by the arguments and steps it
+     *
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        HeadlessRunner runner = new HeadlessRunner();
+        if(!runner.parse(args))
+        {
+            System.out.println(USAGE);
+            return;
+        }
+        runner.build();
+        runner.run();
+        runner.world.destroy();
+    }
+
+    /**
+     * Initialise a runner with an empty world using the default broadphase, solver and threads
+     */
+    public HeadlessRunner()
+    {
+        world = new World();
+    }
+
+    /**
+     * Get the world being stepped
+     *
+     * @return
+     */
+    public World getWorld()
+    {
+        return world;
+    }
+
+    /**
+     * Read the options of a run from the command line arguments
+     *
+     * @param args
+     * @return False if an argument was not recognised
+     */
+    public boolean parse(String[] args)
+    {
+        try
+        {
+            for(int i = 0; i < args.length; i++)
+            {
+                String option = args[i];
+                if(option.equals("-ccd"))
+                {
+                    world.setContinuousCollision(true);
+                    continue;
+                }
+                if(option.equals("-nosleep"))
+                {
+                    awake = true;
+                    continue;
+                }
+                if(i + 1 == args.length)
+                {
+                    return false;
+                }
+
+                String value = args[++i];
+                if(option.equals("-steps"))
+                {
+                    steps = Integer.parseInt(value);
+                }
+                else if(option.equals("-rate"))
+                {
+                    rate = Integer.parseInt(value);
+                }
+                else if(option.equals("-physicsRate"))
+                {
+                    Time.setPhysicsRate(Integer.parseInt(value));
+                }
+                else if(option.equals("-maxSubsteps"))
+                {
+                    world.setAdaptiveSubstepping(Integer.parseInt(value));
+                }
+                else if(option.equals("-scene") && (value.equals("stacks") || value.equals("pile")))
+                {
+                    pile = value.equals("pile");
+                }
+                else if(option.equals("-stacks"))
+                {
+                    stacks = Integer.parseInt(value);
+                }
+                else if(option.equals("-height"))
+                {
+                    height = Integer.parseInt(value);
+                }
+                else if(option.equals("-threads"))
+                {
+                    world.setSolverThreads(Integer.parseInt(value));
+                }
+                else if(option.equals("-solver") && value.equals("impulse"))
+                {
+                    world.setContactSolver(new SequentialImpulseSolver(10, 4, PositionCorrection.BAUMGARTE));
+                }
+                else if(option.equals("-broadphase") && value.equals("sap"))
+                {
+                    world.setBroadphase(new SweepAndPrune());
+                }
+                else if(option.equals("-broadphase") && value.equals("tree"))
+                {
+                    world.setBroadphase(new DynamicTree(0.1f));
+                }
+                else if(option.equals("-broadphase") && value.equals("grid"))
+                {
+                    world.setBroadphase(new SpatialHashGrid(2.0f));
+                }
+                else if(option.equals("-shape") && (value.equals("box") || value.equals("hull")))
+                {
+                    hulls = value.equals("hull");
+                }
+                else if(option.equals("-narrowphase") && value.equals("gjk"))
+                {
+                    world.setConvexBoxes(true);
+                }
+                else if(!(option.equals("-solver") && value.equals("resolver")) && !(option.equals("-narrowphase") && value.equals("sat")))
+                {
+                    return false;
+                }
+            }
+        }
+        catch(NumberFormatException ex)
+        {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Fill the world with the scene asked for by the arguments, with every body kept awake for -nosleep
+     */
+    public void build()
+    {
+        if(pile)
+        {
+            buildPile();
+        }
+        else
+        {
+            buildStacks();
+        }
+        if(awake)
+        {
+            for(CollisionPrimitive go : world.getObjects())
+            {
+                go.body.setCanSleep(false);                                     //every body stays awake, to time or count the work of a scene that never settles
+            }
+        }
+    }
+
+    /**
+     * Fill the world with a square of box stacks standing on an immovable floor, the stacked boxes built as hulls of their corners with -shape hull
+     */
+    public void buildStacks()
+    {
+        int side = (int)Math.ceil(Math.sqrt(stacks));
+
+        Box floor = new Box(world.getBodies());
+        floor.setState(new Vec(0.0f, -1.0f, 0.0f), new Quaternion(), new Vec(side * 1.5f + 1.0f, 0.5f, side * 1.5f + 1.0f), new Vec(0, 0, 0));
+        floor.body.setInverseMass(0.0f);
+        floor.body.setInverseInertiaTensor(new Matrix3(0, 0, 0, 0, 0, 0, 0, 0, 0));
+        floor.body.calculateDerivedData();
+        floor.calculateInternals();
+        world.add(floor);
+
+        for(int stack = 0; stack < stacks; stack++)
+        {
+            float x = (stack % side) * 2.5f - side;
+            float z = (stack / side) * 2.5f - side;
+            for(int level = 0; level < height; level++)
+            {
+                Vec position = new Vec(x + (level % 2) * 0.05f, level * 1.05f, z);
+                if(hulls)
+                {
+                    Hull hull = new Hull(world.getBodies(), CollisionHull.boxVertices(new Vec(0.5f, 0.5f, 0.5f)));
+                    hull.setState(position, new Quaternion(), new Vec(0, -10, 0), 8.0f);
+                    world.add(hull);
+                    continue;
+                }
+                Box box = new Box(world.getBodies());
+                box.setState(position, new Quaternion(), new Vec(0.5f, 0.5f, 0.5f), new Vec(0, -10, 0));
+                world.add(box);
+            }
+        }
+
+        for(CollisionPrimitive go : world.getObjects())
+        {
+            go.body.setSleepsWithIsland(true);
+        }
+    }
+
+    /**
+     * Fill the world with a stepped pyramid of boxes laid like bricks on an immovable floor, as many boxes in the bottom layer as there would be stacks
+     * Each layer is one box narrower than the one below and moved half a box along both sides, so every box rests on four below and the whole pile is one island
+     */
+    public void buildPile()
+    {
+        int side = (int)Math.ceil(Math.sqrt(stacks));
+
+        Box floor = new Box(world.getBodies());
+        floor.setState(new Vec(0.0f, -1.0f, 0.0f), new Quaternion(), new Vec(side * 0.5f + 1.0f, 0.5f, side * 0.5f + 1.0f), new Vec(0, 0, 0));
+        floor.body.setInverseMass(0.0f);
+        floor.body.setInverseInertiaTensor(new Matrix3(0, 0, 0, 0, 0, 0, 0, 0, 0));
+        floor.body.calculateDerivedData();
+        floor.calculateInternals();
+        world.add(floor);
+
+        for(int level = 0; level < height && level < side; level++)
+        {
+            for(int row = 0; row < side - level; row++)
+            {
+                for(int column = 0; column < side - level; column++)
+                {
+                    Vec position = new Vec(column + level * 0.5f - side * 0.5f + 0.5f, level, row + level * 0.5f - side * 0.5f + 0.5f);
+                    Box box = new Box(world.getBodies());
+                    box.setState(position, new Quaternion(), new Vec(0.5f, 0.5f, 0.5f), new Vec(0, -10, 0));
+                    world.add(box);
+                }
+            }
+        }
+
+        for(CollisionPrimitive go : world.getObjects())
+        {
+            go.body.setSleepsWithIsland(true);
+        }
+    }
+
+    /**
+     * Step the world for the number of steps asked for, reporting the rate every second
+     */
+    public void run()
+    {
+        long stepTime = rate > 0 ? 1000000000L / rate : 0;
+        long start = System.nanoTime();
+        long reportStart = start;
+        long nextStep = start;
+
+        world.resetCounters();
+        world.getCollisionDetector().resetCounters();
+        for(int step = 0; step < steps; step++)
+        {
+            if(stepTime > 0)
+            {
+                long wait = nextStep - System.nanoTime();
+                if(wait > 0)
+                {
+                    sleep(wait);
+                }
+                nextStep += stepTime;
+            }
+
+            world.step(Time.getPhysicsDelta());
+
+            long now = System.nanoTime();
+            if(now - reportStart >= 1000000000)
+            {
+                report("steps/s", now - reportStart);
+                world.resetCounters();
+                reportStart = now;
+            }
+        }
+
+        long total = System.nanoTime() - start;
+        System.out.println("ran " + steps + " steps of " + world.getObjects().size() + " bodies in " + (total / 1000000) + " ms");
+        System.out.println("average steps/s " + (steps * 1000000000.0 / total));
+        GjkEpa gjk = world.getCollisionDetector().getGjk();
+        if(gjk.queries > 0)
+        {
+            System.out.println("gjk queries " + gjk.queries + " iterations/query " + gjk.getIterationsPerQuery()
+                    + (world.getCollisionDetector().getSimplexCache() != null ? " simplex cache hit rate " + world.getCollisionDetector().getSimplexCache().getHitRate() : "")
+                    + " epa queries " + gjk.penetrationQueries + " iterations/query " + (gjk.penetrationIterations / (float)Math.max(gjk.penetrationQueries, 1)));
+        }
+        System.out.println("checksum " + Long.toHexString(checksum()));
+    }
+
+    /**
+     * Print the steps per second since the counters were last reset and the average time of each stage
+     *
+     * @param label
+     * @param nanos
+     */
+    private void report(String label, long nanos)
+    {
+        long count = Math.max(world.steps, 1);
+        System.out.println(label + " " + (world.steps * 1000000000.0 / nanos)
+                + " ms/step integrate " + (world.integrateNanos / count / 1000000.0)
+                + " broadphase " + (world.broadphaseNanos / count / 1000000.0)
+                + " narrowphase " + (world.narrowphaseNanos / count / 1000000.0) + " (" + world.getPairsPerSecond() + " pairs/s)"
+                + " solve " + (world.solveNanos / count / 1000000.0)
+                + " substeps " + world.substeps
+                + (world.getContinuousCollision() == null ? "" : " swept " + world.getContinuousCollision().sweptBodies + " clamped " + world.getContinuousCollision().clampedBodies)
+                + " contacts " + world.getContacts().size()
+                + " awake islands " + world.getIslands().awakeIslands
+                + " largest island " + world.getIslands().largestIsland);
+    }
+
+    /**
+     * Work out a checksum of the position and orientation of every body, so runs with different options can be compared
+     *
+     * @return
+     */
+    private long checksum()
+    {
+        long hash = 1;
+        Vec position = new Vec();
+        Quaternion orientation = new Quaternion();
+        for(CollisionPrimitive go : world.getObjects())
+        {
+            go.body.getPosition(position);
+            go.body.getOrientation(orientation);
+            hash = hash * 31 + Float.floatToIntBits(position.x);
+            hash = hash * 31 + Float.floatToIntBits(position.y);
+            hash = hash * 31 + Float.floatToIntBits(position.z);
+            hash = hash * 31 + Float.floatToIntBits(orientation.r);
+            hash = hash * 31 + Float.floatToIntBits(orientation.i);
+            hash = hash * 31 + Float.floatToIntBits(orientation.j);
+            hash = hash * 31 + Float.floatToIntBits(orientation.k);
+        }
+        return hash;
+    }
+
+    private static void sleep(long nanos)
+    {
+        try
+        {
+            Thread.sleep(nanos / 1000000, (int)(nanos % 1000000));
+        }
+        catch(InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.base.engine;
+
+import com.base.engine.math.Quaternion;
+import com.base.engine.math.Vec;
+import com.base.engine.physics.BodyStore;
+import com.base.engine.physics.Box;
+
+/**
+ * Times integrating a store of boxes, comparing the blocked pass over the whole store with integrating each body on its own
+ * A third run changes the duration every step the way adaptive substepping does, cycling through durations split into 1 to 4 substeps
+ * Each run starts from its own identical store, and the runs at a fixed duration must end with the same bodies or the benchmark says so
+ *
+ * @author JordanG
+ */
+public class IntegrateBenchmark
+{
+    private static final String USAGE = "usage: IntegrateBenchmark [-bodies n] [-steps n] [-asleep every nth body, 0 for none]";
+
+    /**
+     * Runnable that times 10000 bodies over 2000 steps by default, after the same number of warm up steps
+     *
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        int bodies = 10000;
+        int steps = 2000;
+        int asleep = 0;
+        try
+        {
+            for(int i = 0; i + 1 < args.length; i += 2)
+            {
+                if(args[i].equals("-bodies"))
+                {
+                    bodies = Integer.parseInt(args[i + 1]);
+                }
+                else if(args[i].equals("-steps"))
+                {
+                    steps = Integer.parseInt(args[i + 1]);
+                }
+                else if(args[i].equals("-asleep"))
+                {
+                    asleep = Integer.parseInt(args[i + 1]);
+                }
+                else
+                {
+                    System.out.println(USAGE);
+                    return;
+                }
+            }
+        }
+        catch(NumberFormatException ex)
+        {
+            System.out.println(USAGE);
+            return;
+        }
+        if(args.length % 2 != 0 || bodies <= 0 || steps <= 0)
+        {
+            System.out.println(USAGE);
+            return;
+        }
+
+        float duration = 1.0f / 60.0f;
+        Box[] blocked = build(bodies, asleep);
+        Box[] single = build(bodies, asleep);
+        Box[] changing = build(bodies, asleep);
+        for(int step = 0; step < steps; step++)
+        {
+            integrateStore(blocked, duration);
+            integrateEach(single, duration);
+            integrateStore(changing, duration / (step % 4 + 1));
+        }
+
+        long start = System.nanoTime();
+        for(int step = 0; step < steps; step++)
+        {
+            integrateStore(blocked, duration);
+        }
+        report("store pass", System.nanoTime() - start, bodies, steps);
+
+        start = System.nanoTime();
+        for(int step = 0; step < steps; step++)
+        {
+            integrateEach(single, duration);
+        }
+        report("body by body", System.nanoTime() - start, bodies, steps);
+
+        start = System.nanoTime();
+        for(int step = 0; step < steps; step++)
+        {
+            integrateStore(changing, duration / (step % 4 + 1));
+        }
+        report("store pass, 1-4 substeps", System.nanoTime() - start, bodies, steps);
+
+        System.out.println(checksum(blocked) == checksum(single) ? "store pass and body by body agree" : "store pass and body by body DIFFER");
+    }
+
+    /**
+     * Build a store of spinning boxes under gravity in a row, every nth one asleep
+     *
+     * @param bodies
+     * @param asleep
+     * @return
+     */
+    private static Box[] build(int bodies, int asleep)
+    {
+        BodyStore store = new BodyStore();
+        Box[] boxes = new Box[bodies];
+        for(int i = 0; i < bodies; i++)
+        {
+            boxes[i] = new Box(store);
+            boxes[i].setState(new Vec(i, 0, 0), new Quaternion(), new Vec(0.5f, 0.5f, 0.5f), new Vec(0, -10, 0));
+            boxes[i].body.setDamping(0.95f, 0.8f);
+            boxes[i].body.setRotation(new Vec(0.1f, 0.2f + i * 1.0e-5f, 0.3f));
+            boxes[i].body.setCanSleep(false);
+            if(asleep > 0 && i % asleep == 0)
+            {
+                boxes[i].body.setAwake(false);
+            }
+        }
+        return boxes;
+    }
+
+    private static void integrateStore(Box[] boxes, float duration)
+    {
+        boxes[0].body.getStore().integrate(duration);
+    }
+
+    private static void integrateEach(Box[] boxes, float duration)
+    {
+        for(int i = 0; i < boxes.length; i++)
+        {
+            boxes[i].body.integrate(duration);
+        }
+    }
+
+    private static void report(String label, long nanos, int bodies, int steps)
+    {
+        System.out.println(label + ": " + (nanos / 1000000.0 / steps) + " ms/step, " + (nanos / (double)bodies / steps) + " ns/body");
+    }
+
+    private static long checksum(Box[] boxes)
+    {
+        long checksum = 17;
+        Vec position = new Vec();
+        Quaternion orientation = new Quaternion();
+        for(int i = 0; i < boxes.length; i++)
+        {
+            boxes[i].body.getPosition(position);
+            boxes[i].body.getOrientation(orientation);
+            checksum = checksum * 31 + Float.floatToIntBits(position.x);
+            checksum = checksum * 31 + Float.floatToIntBits(position.y);
+            checksum = checksum * 31 + Float.floatToIntBits(position.z);
+            checksum = checksum * 31 + Float.floatToIntBits(orientation.r);
+            checksum = checksum * 31 + Float.floatToIntBits(orientation.i);
+            checksum = checksum * 31 + Float.floatToIntBits(orientation.j);
+            checksum = checksum * 31 + Float.floatToIntBits(orientation.k);
+        }
+        return checksum;
+    }
+}
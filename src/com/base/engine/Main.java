@@ -1,19 +1,49 @@
-package com.base.engine;
-
-/**
- * Handles the runnable
- * 
- * @author JordanG
- */
-public class Main
-{
-    /**
-     * Runnable that begins the engine initialisation
-     * 
-     * @param args 
-     */
-    public static void main(String[] args)
-    {
-        Engine.engine = new Engine();
-    }
-}
+package com.base.engine;
+
+import com.base.engine.loop.Render;
+import com.base.game.Time;
+
+/**
+ * Handles the runnable
+ * 
+ * @author JordanG
+ */
+public class Main
+{
+    /**
+     * Runnable that begins the engine initialisation
+     * Accepts -physicsRate for the physics steps run each second and -frameLimit for the most frames drawn each second, 0 for no limit
+     * -maxSteps caps the catch-up steps run in one frame, -timeDilation slows the game down instead of dropping time over the cap
+     * and -maxSubsteps lets the game world split fast-moving steps into up to that many substeps
+     * 
+     * @param args 
+     */
+    public static void main(String[] args)
+    {
+        for(int i = 0; i < args.length; i++)
+        {
+            if(args[i].equals("-timeDilation"))
+            {
+                Engine.timeDilation = true;
+            }
+            else if(i + 1 < args.length && args[i].equals("-physicsRate"))
+            {
+                Time.setPhysicsRate(Integer.parseInt(args[++i]));
+            }
+            else if(i + 1 < args.length && args[i].equals("-frameLimit"))
+            {
+                Render.setFrameLimit(Integer.parseInt(args[++i]));
+            }
+            else if(i + 1 < args.length && args[i].equals("-maxSteps"))
+            {
+                Engine.maxStepsPerFrame = Integer.parseInt(args[++i]);
+            }
+            else if(i + 1 < args.length && args[i].equals("-maxSubsteps"))
+            {
+                Engine.maxSubsteps = Integer.parseInt(args[++i]);
+            }
+        }
+        
+        Engine.engine = new Engine();
+    }
+}
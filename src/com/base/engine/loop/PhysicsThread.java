@@ -0,0 +1,94 @@
+package com.base.engine.loop;
+
+import com.base.game.Time;
+
+/**
+ * Thread that runs the fixed timestep update logic apart from rendering, so a slow frame does not hold back physics and a physics spike does not stall the display
+ * The states publish what they simulate through snapshots, rendering never reads the bodies while this thread moves them
+ *
+ * @author JordanG
+ */
+public class PhysicsThread extends Thread
+{
+    public static PhysicsThread physicsThread;
+
+    private volatile boolean running;
+    private final StepClock clock;
+    private final long stepTime;
+
+    /**
+     * Initialise the thread to run the steps handed out by a clock
+     * 
+     * @param clock
+     * @param stepTime Nanoseconds between steps of the clock
+     */
+    public PhysicsThread(StepClock clock, long stepTime)
+    {
+        super("Physics");
+        setDaemon(true);
+        running = true;
+        this.clock = clock;
+        this.stepTime = stepTime;
+    }
+
+    /**
+     * Get the clock pacing the steps, which counts the steps run and the time dropped or dilated
+     * 
+     * @return 
+     */
+    public StepClock getClock()
+    {
+        return clock;
+    }
+
+    /**
+     * Run the update logic at the fixed physics rate until the thread is told to finish, sleeping between steps
+     */
+    @Override
+    public void run()
+    {
+        long lastTime = System.nanoTime();
+
+        while(running)
+        {
+            long now = System.nanoTime();
+            int steps = clock.advance(now - lastTime);
+            lastTime = now;
+            Time.setStepClock((float)clock.getRemaining() / stepTime, clock.getTimeScale());
+
+            for(int step = 0; step < steps; step++)
+            {
+                Update.update.update();
+            }
+
+            long wait = stepTime - clock.getRemaining() - (System.nanoTime() - now);
+            if(wait > 0)
+            {
+                try
+                {
+                    Thread.sleep(wait / 1000000, (int)(wait % 1000000));
+                }
+                catch(InterruptedException ex)
+                {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop running updates and wait for the step in progress to end
+     */
+    public void finish()
+    {
+        running = false;
+        try
+        {
+            join();
+        }
+        catch(InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.base.engine.loop;
+
+/**
+ * Accumulates real time and hands it out as fixed physics steps, never more than a set number of steps per frame
+ * Without a cap one slow step leads to several catch-up steps, which are slow in turn, until the loop does nothing but catch up
+ * Time beyond the cap is dropped, or with time dilation the clock runs slower than real time while it is overloaded and speeds back up once it is not
+ *
+ * @author JordanG
+ */
+public class StepClock
+{
+    private static final float MIN_TIME_SCALE = 0.1f;
+
+    private final long stepTime;
+    private int maxSteps;
+    private boolean timeDilation;
+    private float timeScale;
+    private long accumulator;
+
+    //steps handed out, those past the first of a frame, and real time dropped at the cap or slowed away by dilation
+    public long steps;
+    public long catchUpSteps;
+    public long droppedNanos;
+    public long dilatedNanos;
+
+    /**
+     * Initialise a clock that steps every stepTime nanoseconds and allows up to maxSteps steps per frame
+     *
+     * @param stepTime
+     * @param maxSteps
+     */
+    public StepClock(long stepTime, int maxSteps)
+    {
+        this.stepTime = stepTime;
+        this.maxSteps = maxSteps;
+        timeScale = 1.0f;
+    }
+
+    /**
+     * Set the most steps handed out for one frame
+     *
+     * @param maxSteps
+     */
+    public void setMaxSteps(int maxSteps)
+    {
+        this.maxSteps = maxSteps;
+    }
+
+    /**
+     * Set whether the clock slows down when it hits the cap instead of dropping the time over it
+     *
+     * @param timeDilation
+     */
+    public void setTimeDilation(boolean timeDilation)
+    {
+        this.timeDilation = timeDilation;
+        timeScale = 1.0f;
+    }
+
+    /**
+     * Add the real time passed since the last frame and get how many steps to run for it
+     *
+     * @param passed Nanoseconds since the last call
+     * @return
+     */
+    public int advance(long passed)
+    {
+        if(timeDilation)
+        {
+            long scaled = (long)(passed * timeScale);
+            dilatedNanos += passed - scaled;
+            passed = scaled;
+        }
+        accumulator += passed;
+
+        long due = accumulator / stepTime;
+        int count = (int)Math.min(due, maxSteps);
+        accumulator -= count * stepTime;
+
+        if(due > maxSteps)
+        {
+            long over = accumulator - accumulator % stepTime;
+            droppedNanos += over;
+            accumulator -= over;
+            if(timeDilation)
+            {
+                timeScale = Math.max(MIN_TIME_SCALE, timeScale * 0.9f);
+            }
+        }
+        else if(timeDilation && count <= 1 && timeScale < 1.0f)
+        {
+            timeScale = Math.min(1.0f, timeScale * 1.05f);
+        }
+
+        steps += count;
+        catchUpSteps += Math.max(count - 1, 0);
+        return count;
+    }
+
+    /**
+     * Get the time left over after the steps handed out, which is less than one step
+     *
+     * @return
+     */
+    public long getRemaining()
+    {
+        return accumulator;
+    }
+
+    /**
+     * Get how much slower than real time the clock is running, 1 when it is not dilated
+     *
+     * @return
+     */
+    public float getTimeScale()
+    {
+        return timeScale;
+    }
+}
@@ -0,0 +1,223 @@
+package com.base.engine.physics;
+
+import com.base.engine.math.Matrix4;
+import com.base.engine.math.Quaternion;
+import com.base.engine.math.Vec;
+import java.util.Arrays;
+
+/**
+ * Copy of where every body in a store was after a step, for drawing the bodies while the physics thread moves them on
+ * Held in the same layout as the store, 3 floats of position, 4 of orientation and 12 of transform per body, so capturing is a few array copies
+ *
+ * @author JordanG
+ */
+public class BodySnapshot
+{
+    private float[] position;
+    private float[] orientation;
+    private float[] transform;
+    private int count;
+    private long time;
+    private float fraction;
+    private float timeScale;
+
+    //working values for interpolating between two snapshots
+    private final Vec workingPosition = new Vec();
+    private final Vec lastPosition = new Vec();
+    private final Quaternion workingOrientation = new Quaternion();
+    private final Quaternion lastOrientation = new Quaternion();
+
+    /**
+     * Initialise an empty snapshot with room for the specified number of bodies
+     *
+     * @param capacity
+     */
+    public BodySnapshot(int capacity)
+    {
+        position = new float[capacity * 3];
+        orientation = new float[capacity * 4];
+        transform = new float[capacity * 12];
+    }
+
+    /**
+     * Copy where every body in the store is into the snapshot, growing it if needed
+     *
+     * @param store
+     * @param fraction Time left in the step clock after the step, as a fraction of a step
+     * @param timeScale How much slower than real time the step clock was running
+     */
+    public void capture(BodyStore store, float fraction, float timeScale)
+    {
+        time = System.nanoTime();
+        this.fraction = fraction;
+        this.timeScale = timeScale;
+        count = store.count;
+        if(count * 3 > position.length)
+        {
+            int capacity = Math.max(count, position.length / 3 * 2);
+            position = Arrays.copyOf(position, capacity * 3);
+            orientation = Arrays.copyOf(orientation, capacity * 4);
+            transform = Arrays.copyOf(transform, capacity * 12);
+        }
+
+        System.arraycopy(store.position, 0, position, 0, count * 3);
+        System.arraycopy(store.orientation, 0, orientation, 0, count * 4);
+        System.arraycopy(store.transform, 0, transform, 0, count * 12);
+    }
+
+    /**
+     * Get the number of bodies held by the snapshot
+     *
+     * @return
+     */
+    public int getCount()
+    {
+        return count;
+    }
+
+    /**
+     * Get the system time in nanoseconds at which the snapshot was captured
+     *
+     * @return
+     */
+    public long getTime()
+    {
+        return time;
+    }
+
+    /**
+     * Get the time that was left in the step clock when the snapshot was captured, as a fraction of a step
+     *
+     * @return
+     */
+    public float getFraction()
+    {
+        return fraction;
+    }
+
+    /**
+     * Get how much slower than real time the step clock was running when the snapshot was captured
+     *
+     * @return
+     */
+    public float getTimeScale()
+    {
+        return timeScale;
+    }
+
+    /**
+     * Check if a body was in the store when the snapshot was captured
+     *
+     * @param body
+     * @return
+     */
+    public boolean holds(Body body)
+    {
+        return body.index < count;
+    }
+
+    /**
+     * Fill the vector with the position a body had when the snapshot was captured
+     *
+     * @param body
+     * @param position
+     */
+    public void getPosition(Body body, Vec position)
+    {
+        int v = body.index * 3;
+        position.x = this.position[v];
+        position.y = this.position[v + 1];
+        position.z = this.position[v + 2];
+    }
+
+    /**
+     * Fill the quaternion with the orientation a body had when the snapshot was captured
+     *
+     * @param body
+     * @param orientation
+     */
+    public void getOrientation(Body body, Quaternion orientation)
+    {
+        int q = body.index * 4;
+        orientation.r = this.orientation[q];
+        orientation.i = this.orientation[q + 1];
+        orientation.j = this.orientation[q + 2];
+        orientation.k = this.orientation[q + 3];
+    }
+
+    /**
+     * Fill the matrix with the transform a body had when the snapshot was captured
+     *
+     * @param body
+     * @param transform
+     */
+    public void getTransform(Body body, Matrix4 transform)
+    {
+        System.arraycopy(this.transform, body.index * 12, transform.data, 0, 12);
+    }
+
+    /**
+     * Fill the array with the transform a body had when the snapshot was captured, as a column-major OpenGL matrix
+     *
+     * @param body
+     * @param matrix
+     */
+    public void getGLTransform(Body body, float[] matrix)
+    {
+        int m = body.index * 12;
+        for(int column = 0; column < 4; column++)
+        {
+            for(int row = 0; row < 3; row++)
+            {
+                matrix[column * 4 + row] = transform[m + row * 4 + column];
+            }
+            matrix[column * 4 + 3] = column == 3 ? 1.0f : 0.0f;
+        }
+    }
+
+    /**
+     * Fill the array with a transform for a body part of the way from where it was in an earlier snapshot to where it is in this one, as a column-major OpenGL matrix
+     * The position is interpolated in a straight line and the orientation is slerped, a body missing from the earlier snapshot is put where it is in this one
+     *
+     * @param previous
+     * @param body
+     * @param alpha 0 gives the earlier snapshot, 1 gives this one
+     * @param matrix
+     */
+    public void getGLTransform(BodySnapshot previous, Body body, float alpha, float[] matrix)
+    {
+        if(!previous.holds(body))
+        {
+            getGLTransform(body, matrix);
+            return;
+        }
+
+        previous.getPosition(body, lastPosition);
+        previous.getOrientation(body, lastOrientation);
+        getPosition(body, workingPosition);
+        getOrientation(body, workingOrientation);
+        lastPosition.lerpInto(workingPosition, alpha, workingPosition);
+        lastOrientation.slerpInto(workingOrientation, alpha, workingOrientation);
+
+        float r = workingOrientation.r;
+        float i = workingOrientation.i;
+        float j = workingOrientation.j;
+        float k = workingOrientation.k;
+        matrix[0] = 1 - 2 * j * j - 2 * k * k;
+        matrix[1] = 2 * i * j + 2 * r * k;
+        matrix[2] = 2 * i * k - 2 * r * j;
+        matrix[3] = 0.0f;
+        matrix[4] = 2 * i * j - 2 * r * k;
+        matrix[5] = 1 - 2 * i * i - 2 * k * k;
+        matrix[6] = 2 * j * k + 2 * r * i;
+        matrix[7] = 0.0f;
+        matrix[8] = 2 * i * k + 2 * r * j;
+        matrix[9] = 2 * j * k - 2 * r * i;
+        matrix[10] = 1 - 2 * i * i - 2 * j * j;
+        matrix[11] = 0.0f;
+        matrix[12] = workingPosition.x;
+        matrix[13] = workingPosition.y;
+        matrix[14] = workingPosition.z;
+        matrix[15] = 1.0f;
+    }
+}
@@ -0,0 +1,627 @@
+package com.base.engine.physics;
+
+import java.util.Arrays;
+
+/**
+ * Holds the physics data of many bodies in contiguous arrays of floats, one slot per body
+ * Vectors take 3 floats per slot, orientations 4, inertia tensors 9 and transforms 12, so body n's position is position[n * 3] to position[n * 3 + 2]
+ * Bodies are handles onto a slot, and integration and derived data are worked out in loops over the arrays instead of chasing each body's objects
+ * Integrating the whole store runs in blocks of LANES bodies, with each stage of the integration done for every lane of the block before the next stage starts
+ *
+ * @author JordanG
+ */
+public class BodyStore
+{
+    //bodies integrated together by one pass of each stage of integrate(float)
+    static final int LANES = 64;
+    //step durations the damping factors are kept for at once, enough for every substep count adaptive substepping normally picks
+    static final int FACTOR_SLOTS = 8;
+
+    int count;
+
+    float[] inverseMass;
+    float[] linearDamping;
+    float[] angularDamping;
+    float[] linearFactor;
+    float[] angularFactor;
+    float[] sleepEpsilon;
+    float[] motion;
+
+    float[] position;
+    float[] orientation;
+    float[] velocity;
+    float[] rotation;
+    float[] acceleration;
+    float[] lastFrameAcceleration;
+    float[] forceAccum;
+    float[] torqueAccum;
+
+    float[] inverseInertiaTensor;
+    float[] inverseInertiaTensorWorld;
+    float[] transform;
+
+    boolean[] awake;
+    boolean[] canSleep;
+    boolean[] sleepsWithIsland;
+
+    //lanes of the block being integrated, a lane is live when its body is awake
+    private final boolean[] live = new boolean[LANES];
+
+    //the damping factors and sleep bias raised to the power of each slot's duration, -1 for a slot not used yet
+    //linearFactor, angularFactor and sleepBias are those of the slot for the duration being integrated
+    private final float[] slotDuration = new float[FACTOR_SLOTS];
+    private final float[][] slotLinearFactor = new float[FACTOR_SLOTS][];
+    private final float[][] slotAngularFactor = new float[FACTOR_SLOTS][];
+    private final float[] slotSleepBias = new float[FACTOR_SLOTS];
+    private int factorSlot = -1;
+    private int nextFactorSlot;
+    private float sleepBias;
+
+    /**
+     * Initialise an empty store
+     */
+    public BodyStore()
+    {
+        Arrays.fill(slotDuration, -1.0f);
+        allocate(32);
+    }
+
+    /**
+     * Get the number of bodies in the store
+     *
+     * @return
+     */
+    public int getCount()
+    {
+        return count;
+    }
+
+    /**
+     * Reserve a slot for a new body, at rest at the origin with no mass
+     *
+     * @return Index of the slot
+     */
+    synchronized int add()
+    {
+        if(count == awake.length)
+        {
+            allocate(count * 2);
+        }
+
+        int index = count++;
+        setDamping(index, 0.0f, 0.0f);
+        sleepEpsilon[index] = 0.3f;
+        orientation[index * 4] = 1.0f;
+        transform[index * 12] = 1.0f;
+        transform[index * 12 + 5] = 1.0f;
+        transform[index * 12 + 10] = 1.0f;
+        return index;
+    }
+
+    /**
+     * Integrate every awake body in the store over the specified duration
+     * Sleeping bodies are masked out of their block, and blocks with no awake bodies are skipped
+     * The results are the same as integrating each awake body on its own
+     *
+     * @param duration
+     */
+    public void integrate(float duration)
+    {
+        prepareFactors(duration);
+        for(int first = 0; first < count; first += LANES)
+        {
+            int lanes = Math.min(LANES, count - first);
+            if(mask(first, lanes))
+            {
+                integrateLinear(first, lanes, duration);
+                integrateAngular(first, lanes, duration);
+                updateMotion(first, lanes);
+            }
+        }
+    }
+
+    /**
+     * Set the damping of a body, working out its damping factors again for every duration they are kept for
+     *
+     * @param index
+     * @param linear
+     * @param angular
+     */
+    void setDamping(int index, float linear, float angular)
+    {
+        linearDamping[index] = linear;
+        angularDamping[index] = angular;
+        for(int slot = 0; slot < FACTOR_SLOTS; slot++)
+        {
+            if(slotDuration[slot] >= 0.0f)
+            {
+                slotLinearFactor[slot][index] = (float)Math.pow(linear, slotDuration[slot]);
+                slotAngularFactor[slot][index] = (float)Math.pow(angular, slotDuration[slot]);
+            }
+        }
+    }
+
+    /**
+     * Switch to the damping factor of every body and the sleep bias for a duration, working them out unless they are already kept for it
+     * The physics runs at a fixed step split into a few substep counts, so after the first step at each count this only picks the slot
+     * When every slot is taken the one filled longest ago is worked out again for the new duration
+     *
+     * @param duration
+     */
+    void prepareFactors(float duration)
+    {
+        if(factorSlot != -1 && slotDuration[factorSlot] == duration)
+        {
+            return;
+        }
+        for(int slot = 0; slot < FACTOR_SLOTS; slot++)
+        {
+            if(slotDuration[slot] == duration)
+            {
+                useFactors(slot);
+                return;
+            }
+        }
+
+        int slot = nextFactorSlot;
+        nextFactorSlot = (nextFactorSlot + 1) % FACTOR_SLOTS;
+        if(slotLinearFactor[slot] == null)
+        {
+            slotLinearFactor[slot] = new float[awake.length];
+            slotAngularFactor[slot] = new float[awake.length];
+        }
+        slotDuration[slot] = duration;
+        slotSleepBias[slot] = (float)Math.pow(0.5f, duration);
+        float[] linear = slotLinearFactor[slot];
+        float[] angular = slotAngularFactor[slot];
+        for(int index = 0; index < count; index++)
+        {
+            linear[index] = (float)Math.pow(linearDamping[index], duration);
+            angular[index] = (float)Math.pow(angularDamping[index], duration);
+        }
+        useFactors(slot);
+    }
+
+    private void useFactors(int slot)
+    {
+        factorSlot = slot;
+        linearFactor = slotLinearFactor[slot];
+        angularFactor = slotAngularFactor[slot];
+        sleepBias = slotSleepBias[slot];
+    }
+
+    /**
+     * Get the speed of the fastest awake body in the store
+     *
+     * @return
+     */
+    public float getMaxSpeed()
+    {
+        float fastest = 0.0f;
+        for(int index = 0; index < count; index++)
+        {
+            if(awake[index])
+            {
+                int v = index * 3;
+                fastest = Math.max(fastest, velocity[v] * velocity[v] + velocity[v + 1] * velocity[v + 1] + velocity[v + 2] * velocity[v + 2]);
+            }
+        }
+        return (float)Math.sqrt(fastest);
+    }
+
+    /**
+     * Calculate the derived data of every body in the store
+     */
+    public void calculateDerivedData()
+    {
+        for(int index = 0; index < count; index++)
+        {
+            calculateDerivedData(index);
+        }
+    }
+
+    /**
+     * Update the physics values of one body for this frame
+     *
+     * @param index
+     * @param duration
+     */
+    void integrate(int index, float duration)
+    {
+        prepareFactors(duration);
+
+        int v = index * 3;
+        int q = index * 4;
+        int m = index * 9;
+
+        float lastX = acceleration[v] + forceAccum[v] * inverseMass[index];
+        float lastY = acceleration[v + 1] + forceAccum[v + 1] * inverseMass[index];
+        float lastZ = acceleration[v + 2] + forceAccum[v + 2] * inverseMass[index];
+        lastFrameAcceleration[v] = lastX;
+        lastFrameAcceleration[v + 1] = lastY;
+        lastFrameAcceleration[v + 2] = lastZ;
+
+        float torqueX = torqueAccum[v];
+        float torqueY = torqueAccum[v + 1];
+        float torqueZ = torqueAccum[v + 2];
+        float angularX = torqueX * inverseInertiaTensorWorld[m] + torqueY * inverseInertiaTensorWorld[m + 1] + torqueZ * inverseInertiaTensorWorld[m + 2];
+        float angularY = torqueX * inverseInertiaTensorWorld[m + 3] + torqueY * inverseInertiaTensorWorld[m + 4] + torqueZ * inverseInertiaTensorWorld[m + 5];
+        float angularZ = torqueX * inverseInertiaTensorWorld[m + 6] + torqueY * inverseInertiaTensorWorld[m + 7] + torqueZ * inverseInertiaTensorWorld[m + 8];
+
+        float linear = linearFactor[index];
+        float angular = angularFactor[index];
+
+        float velocityX = (velocity[v] + lastX * duration) * linear;
+        float velocityY = (velocity[v + 1] + lastY * duration) * linear;
+        float velocityZ = (velocity[v + 2] + lastZ * duration) * linear;
+        float rotationX = (rotation[v] + angularX * duration) * angular;
+        float rotationY = (rotation[v + 1] + angularY * duration) * angular;
+        float rotationZ = (rotation[v + 2] + angularZ * duration) * angular;
+
+        position[v] += velocityX * duration;
+        position[v + 1] += velocityY * duration;
+        position[v + 2] += velocityZ * duration;
+
+        //orientation += 0.5 * (0, rotation * duration) * orientation
+        float a = rotationX * duration;
+        float b = rotationY * duration;
+        float c = rotationZ * duration;
+        float r = orientation[q];
+        float i = orientation[q + 1];
+        float j = orientation[q + 2];
+        float k = orientation[q + 3];
+        orientation[q] = r + (-a * i - b * j - c * k) * 0.5f;
+        orientation[q + 1] = i + (a * r + b * k - c * j) * 0.5f;
+        orientation[q + 2] = j + (b * r + c * i - a * k) * 0.5f;
+        orientation[q + 3] = k + (c * r + a * j - b * i) * 0.5f;
+
+        velocity[v] = velocityX;
+        velocity[v + 1] = velocityY;
+        velocity[v + 2] = velocityZ;
+        rotation[v] = rotationX;
+        rotation[v + 1] = rotationY;
+        rotation[v + 2] = rotationZ;
+
+        calculateDerivedData(index);
+        clearAccumulators(index);
+
+        if(canSleep[index])
+        {
+            float currentMotion = velocity[v] * velocity[v] + velocity[v + 1] * velocity[v + 1] + velocity[v + 2] * velocity[v + 2]
+                    + rotation[v] * rotation[v] + rotation[v + 1] * rotation[v + 1] + rotation[v + 2] * rotation[v + 2];
+            settle(index, currentMotion);
+        }
+    }
+
+    /**
+     * Mark which lanes of a block are awake
+     *
+     * @param first
+     * @param lanes
+     * @return True if any lane of the block is awake
+     */
+    private boolean mask(int first, int lanes)
+    {
+        boolean any = false;
+        for(int l = 0; l < lanes; l++)
+        {
+            live[l] = awake[first + l];
+            any |= live[l];
+        }
+        return any;
+    }
+
+    /**
+     * Apply the accumulated force to the velocity of each awake lane, then move it by its velocity
+     *
+     * @param first
+     * @param lanes
+     * @param duration
+     */
+    private void integrateLinear(int first, int lanes, float duration)
+    {
+        for(int l = 0; l < lanes; l++)
+        {
+            int index = first + l;
+            int v = index * 3;
+            boolean on = live[l];
+            float linear = linearFactor[index];
+
+            float lastX = acceleration[v] + forceAccum[v] * inverseMass[index];
+            float lastY = acceleration[v + 1] + forceAccum[v + 1] * inverseMass[index];
+            float lastZ = acceleration[v + 2] + forceAccum[v + 2] * inverseMass[index];
+            float velocityX = (velocity[v] + lastX * duration) * linear;
+            float velocityY = (velocity[v + 1] + lastY * duration) * linear;
+            float velocityZ = (velocity[v + 2] + lastZ * duration) * linear;
+
+            lastFrameAcceleration[v] = on ? lastX : lastFrameAcceleration[v];
+            lastFrameAcceleration[v + 1] = on ? lastY : lastFrameAcceleration[v + 1];
+            lastFrameAcceleration[v + 2] = on ? lastZ : lastFrameAcceleration[v + 2];
+            position[v] = on ? position[v] + velocityX * duration : position[v];
+            position[v + 1] = on ? position[v + 1] + velocityY * duration : position[v + 1];
+            position[v + 2] = on ? position[v + 2] + velocityZ * duration : position[v + 2];
+            velocity[v] = on ? velocityX : velocity[v];
+            velocity[v + 1] = on ? velocityY : velocity[v + 1];
+            velocity[v + 2] = on ? velocityZ : velocity[v + 2];
+            forceAccum[v] = on ? 0.0f : forceAccum[v];
+            forceAccum[v + 1] = on ? 0.0f : forceAccum[v + 1];
+            forceAccum[v + 2] = on ? 0.0f : forceAccum[v + 2];
+        }
+    }
+
+    /**
+     * Apply the accumulated torque to the rotation of each awake lane and turn it by its rotation
+     * The new orientation is normalised and the derived data worked out from it in the same pass
+     *
+     * @param first
+     * @param lanes
+     * @param duration
+     */
+    private void integrateAngular(int first, int lanes, float duration)
+    {
+        for(int l = 0; l < lanes; l++)
+        {
+            if(!live[l])
+            {
+                continue;
+            }
+
+            int index = first + l;
+            int v = index * 3;
+            int q = index * 4;
+            int m = index * 9;
+            float angular = angularFactor[index];
+
+            float torqueX = torqueAccum[v];
+            float torqueY = torqueAccum[v + 1];
+            float torqueZ = torqueAccum[v + 2];
+            float angularX = torqueX * inverseInertiaTensorWorld[m] + torqueY * inverseInertiaTensorWorld[m + 1] + torqueZ * inverseInertiaTensorWorld[m + 2];
+            float angularY = torqueX * inverseInertiaTensorWorld[m + 3] + torqueY * inverseInertiaTensorWorld[m + 4] + torqueZ * inverseInertiaTensorWorld[m + 5];
+            float angularZ = torqueX * inverseInertiaTensorWorld[m + 6] + torqueY * inverseInertiaTensorWorld[m + 7] + torqueZ * inverseInertiaTensorWorld[m + 8];
+            float rotationX = (rotation[v] + angularX * duration) * angular;
+            float rotationY = (rotation[v + 1] + angularY * duration) * angular;
+            float rotationZ = (rotation[v + 2] + angularZ * duration) * angular;
+
+            //orientation += 0.5 * (0, rotation * duration) * orientation
+            float a = rotationX * duration;
+            float b = rotationY * duration;
+            float c = rotationZ * duration;
+            float r = orientation[q];
+            float i = orientation[q + 1];
+            float j = orientation[q + 2];
+            float k = orientation[q + 3];
+            updateDerivedData(index, r + (-a * i - b * j - c * k) * 0.5f, i + (a * r + b * k - c * j) * 0.5f,
+                    j + (b * r + c * i - a * k) * 0.5f, k + (c * r + a * j - b * i) * 0.5f);
+
+            rotation[v] = rotationX;
+            rotation[v + 1] = rotationY;
+            rotation[v + 2] = rotationZ;
+            torqueAccum[v] = torqueAccum[v + 1] = torqueAccum[v + 2] = 0.0f;
+        }
+    }
+
+    /**
+     * Update the recent motion of each awake lane that can sleep, putting it to sleep once it has settled
+     *
+     * @param first
+     * @param lanes
+     */
+    private void updateMotion(int first, int lanes)
+    {
+        for(int l = 0; l < lanes; l++)
+        {
+            int index = first + l;
+            if(live[l] && canSleep[index])
+            {
+                int v = index * 3;
+                float currentMotion = velocity[v] * velocity[v] + velocity[v + 1] * velocity[v + 1] + velocity[v + 2] * velocity[v + 2]
+                        + rotation[v] * rotation[v] + rotation[v + 1] * rotation[v + 1] + rotation[v + 2] * rotation[v + 2];
+                settle(index, currentMotion);
+            }
+        }
+    }
+
+    /**
+     * Blend the current motion of a body into its recent motion, putting it to sleep if that has fallen low enough
+     *
+     * @param index
+     * @param currentMotion
+     */
+    private void settle(int index, float currentMotion)
+    {
+        motion[index] = sleepBias * motion[index] + (1 - sleepBias) * currentMotion;
+
+        if(motion[index] < sleepEpsilon[index] && !sleepsWithIsland[index])
+        {
+            setAwake(index, false);
+        }
+        else if(motion[index] > 10 * sleepEpsilon[index])
+        {
+            motion[index] = 10 * sleepEpsilon[index];
+        }
+    }
+
+    /**
+     * Normalise the orientation of a body, then calculate its transform matrix and world inverse inertia tensor from it
+     *
+     * @param index
+     */
+    void calculateDerivedData(int index)
+    {
+        int q = index * 4;
+        updateDerivedData(index, orientation[q], orientation[q + 1], orientation[q + 2], orientation[q + 3]);
+    }
+
+    /**
+     * Normalise and store a new orientation for a body, then calculate its transform matrix and world inverse inertia tensor from it
+     *
+     * @param index
+     * @param r
+     * @param i
+     * @param j
+     * @param k
+     */
+    private void updateDerivedData(int index, float r, float i, float j, float k)
+    {
+        int v = index * 3;
+        int q = index * 4;
+        int m = index * 9;
+        int t = index * 12;
+
+        float d = r * r + i * i + j * j + k * k;
+        if(d == 0)
+        {
+            r = 1;
+        }
+        else
+        {
+            d = 1.0f / (float)Math.sqrt(d);
+            r *= d;
+            i *= d;
+            j *= d;
+            k *= d;
+        }
+        orientation[q] = r;
+        orientation[q + 1] = i;
+        orientation[q + 2] = j;
+        orientation[q + 3] = k;
+
+        float t0 = 1 - 2 * j * j - 2 * k * k;
+        float t1 = 2 * i * j - 2 * r * k;
+        float t2 = 2 * i * k + 2 * r * j;
+        float t4 = 2 * i * j + 2 * r * k;
+        float t5 = 1 - 2 * i * i - 2 * k * k;
+        float t6 = 2 * j * k - 2 * r * i;
+        float t8 = 2 * i * k - 2 * r * j;
+        float t9 = 2 * j * k + 2 * r * i;
+        float t10 = 1 - 2 * i * i - 2 * j * j;
+
+        transform[t] = t0;
+        transform[t + 1] = t1;
+        transform[t + 2] = t2;
+        transform[t + 3] = position[v];
+        transform[t + 4] = t4;
+        transform[t + 5] = t5;
+        transform[t + 6] = t6;
+        transform[t + 7] = position[v + 1];
+        transform[t + 8] = t8;
+        transform[t + 9] = t9;
+        transform[t + 10] = t10;
+        transform[t + 11] = position[v + 2];
+
+        //world tensor = rotation * body tensor * rotation transposed
+        float[] body = inverseInertiaTensor;
+        float a0 = t0 * body[m] + t1 * body[m + 3] + t2 * body[m + 6];
+        float a1 = t0 * body[m + 1] + t1 * body[m + 4] + t2 * body[m + 7];
+        float a2 = t0 * body[m + 2] + t1 * body[m + 5] + t2 * body[m + 8];
+        float b0 = t4 * body[m] + t5 * body[m + 3] + t6 * body[m + 6];
+        float b1 = t4 * body[m + 1] + t5 * body[m + 4] + t6 * body[m + 7];
+        float b2 = t4 * body[m + 2] + t5 * body[m + 5] + t6 * body[m + 8];
+        float c0 = t8 * body[m] + t9 * body[m + 3] + t10 * body[m + 6];
+        float c1 = t8 * body[m + 1] + t9 * body[m + 4] + t10 * body[m + 7];
+        float c2 = t8 * body[m + 2] + t9 * body[m + 5] + t10 * body[m + 8];
+
+        float[] world = inverseInertiaTensorWorld;
+        world[m] = a0 * t0 + a1 * t1 + a2 * t2;
+        world[m + 1] = a0 * t4 + a1 * t5 + a2 * t6;
+        world[m + 2] = a0 * t8 + a1 * t9 + a2 * t10;
+        world[m + 3] = b0 * t0 + b1 * t1 + b2 * t2;
+        world[m + 4] = b0 * t4 + b1 * t5 + b2 * t6;
+        world[m + 5] = b0 * t8 + b1 * t9 + b2 * t10;
+        world[m + 6] = c0 * t0 + c1 * t1 + c2 * t2;
+        world[m + 7] = c0 * t4 + c1 * t5 + c2 * t6;
+        world[m + 8] = c0 * t8 + c1 * t9 + c2 * t10;
+    }
+
+    /**
+     * Clear the force and torque accumulators of a body
+     *
+     * @param index
+     */
+    void clearAccumulators(int index)
+    {
+        int v = index * 3;
+        forceAccum[v] = forceAccum[v + 1] = forceAccum[v + 2] = 0.0f;
+        torqueAccum[v] = torqueAccum[v + 1] = torqueAccum[v + 2] = 0.0f;
+    }
+
+    /**
+     * Wake a body up, or put it to sleep and stop it moving
+     *
+     * @param index
+     * @param isAwake
+     */
+    void setAwake(int index, boolean isAwake)
+    {
+        awake[index] = isAwake;
+        if(isAwake)
+        {
+            motion[index] = sleepEpsilon[index] * 2.0f;
+        }
+        else
+        {
+            int v = index * 3;
+            velocity[v] = velocity[v + 1] = velocity[v + 2] = 0.0f;
+            rotation[v] = rotation[v + 1] = rotation[v + 2] = 0.0f;
+        }
+    }
+
+    private void allocate(int capacity)
+    {
+        if(awake == null)
+        {
+            inverseMass = new float[capacity];
+            linearDamping = new float[capacity];
+            angularDamping = new float[capacity];
+            sleepEpsilon = new float[capacity];
+            motion = new float[capacity];
+            position = new float[capacity * 3];
+            orientation = new float[capacity * 4];
+            velocity = new float[capacity * 3];
+            rotation = new float[capacity * 3];
+            acceleration = new float[capacity * 3];
+            lastFrameAcceleration = new float[capacity * 3];
+            forceAccum = new float[capacity * 3];
+            torqueAccum = new float[capacity * 3];
+            inverseInertiaTensor = new float[capacity * 9];
+            inverseInertiaTensorWorld = new float[capacity * 9];
+            transform = new float[capacity * 12];
+            awake = new boolean[capacity];
+            canSleep = new boolean[capacity];
+            sleepsWithIsland = new boolean[capacity];
+            return;
+        }
+
+        inverseMass = Arrays.copyOf(inverseMass, capacity);
+        linearDamping = Arrays.copyOf(linearDamping, capacity);
+        angularDamping = Arrays.copyOf(angularDamping, capacity);
+        for(int slot = 0; slot < FACTOR_SLOTS; slot++)
+        {
+            if(slotLinearFactor[slot] != null)
+            {
+                slotLinearFactor[slot] = Arrays.copyOf(slotLinearFactor[slot], capacity);
+                slotAngularFactor[slot] = Arrays.copyOf(slotAngularFactor[slot], capacity);
+            }
+        }
+        if(factorSlot != -1)
+        {
+            useFactors(factorSlot);
+        }
+        sleepEpsilon = Arrays.copyOf(sleepEpsilon, capacity);
+        motion = Arrays.copyOf(motion, capacity);
+        position = Arrays.copyOf(position, capacity * 3);
+        orientation = Arrays.copyOf(orientation, capacity * 4);
+        velocity = Arrays.copyOf(velocity, capacity * 3);
+        rotation = Arrays.copyOf(rotation, capacity * 3);
+        acceleration = Arrays.copyOf(acceleration, capacity * 3);
+        lastFrameAcceleration = Arrays.copyOf(lastFrameAcceleration, capacity * 3);
+        forceAccum = Arrays.copyOf(forceAccum, capacity * 3);
+        torqueAccum = Arrays.copyOf(torqueAccum, capacity * 3);
+        inverseInertiaTensor = Arrays.copyOf(inverseInertiaTensor, capacity * 9);
+        inverseInertiaTensorWorld = Arrays.copyOf(inverseInertiaTensorWorld, capacity * 9);
+        transform = Arrays.copyOf(transform, capacity * 12);
+        awake = Arrays.copyOf(awake, capacity);
+        canSleep = Arrays.copyOf(canSleep, capacity);
+        sleepsWithIsland = Arrays.copyOf(sleepsWithIsland, capacity);
+    }
+}
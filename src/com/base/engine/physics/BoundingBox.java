@@ -0,0 +1,108 @@
+package com.base.engine.physics;
+
+import com.base.engine.math.Vec;
+
+/**
+ * Axis-aligned bounding box used by the broadphase to cull pairs before the narrowphase
+ *
+ * @author JordanG
+ */
+public class BoundingBox
+{
+    public Vec min;
+    public Vec max;
+
+    /**
+     * Initialise an empty bounding box at the origin
+     */
+    public BoundingBox()
+    {
+        min = new Vec();
+        max = new Vec();
+    }
+
+    /**
+     * Initialise a bounding box with data from another
+     *
+     * @param other
+     */
+    public BoundingBox(BoundingBox other)
+    {
+        min = new Vec(other.min);
+        max = new Vec(other.max);
+    }
+
+    /**
+     * Set the bounds of the box around a center point and its half extents along each world axis
+     *
+     * @param centerX
+     * @param centerY
+     * @param centerZ
+     * @param extentX
+     * @param extentY
+     * @param extentZ
+     */
+    public void set(float centerX, float centerY, float centerZ, float extentX, float extentY, float extentZ)
+    {
+        min.x = centerX - extentX;
+        min.y = centerY - extentY;
+        min.z = centerZ - extentZ;
+        max.x = centerX + extentX;
+        max.y = centerY + extentY;
+        max.z = centerZ + extentZ;
+    }
+
+    /**
+     * Stretch the box along a displacement so it covers everything between where it is and where it would be after moving by it
+     *
+     * @param x
+     * @param y
+     * @param z
+     */
+    public void sweep(float x, float y, float z)
+    {
+        min.x += Math.min(x, 0.0f);
+        min.y += Math.min(y, 0.0f);
+        min.z += Math.min(z, 0.0f);
+        max.x += Math.max(x, 0.0f);
+        max.y += Math.max(y, 0.0f);
+        max.z += Math.max(z, 0.0f);
+    }
+
+    /**
+     * Check if this box overlaps another
+     *
+     * @param other
+     * @return
+     */
+    public boolean overlaps(BoundingBox other)
+    {
+        return min.x <= other.max.x && max.x >= other.min.x
+            && min.y <= other.max.y && max.y >= other.min.y
+            && min.z <= other.max.z && max.z >= other.min.z;
+    }
+
+    /**
+     * Check if this box fully contains another
+     *
+     * @param other
+     * @return
+     */
+    public boolean contains(BoundingBox other)
+    {
+        return min.x <= other.min.x && max.x >= other.max.x
+            && min.y <= other.min.y && max.y >= other.max.y
+            && min.z <= other.min.z && max.z >= other.max.z;
+    }
+
+    /**
+     * Convert this bounding box to a string
+     *
+     * @return
+     */
+    @Override
+    public String toString()
+    {
+        return "[" + min + " -> " + max + "]";
+    }
+}
@@ -0,0 +1,38 @@
+package com.base.engine.physics;
+
+import java.util.ArrayList;
+
+/**
+ * Required functions of all broadphase stages, which find the pairs of primitives worth testing in the narrowphase
+ *
+ * @author JordanG
+ */
+public interface Broadphase
+{
+    /**
+     * Add a primitive to the broadphase
+     *
+     * @param primitive
+     */
+    public void insert(CollisionPrimitive primitive);
+
+    /**
+     * Remove a primitive from the broadphase
+     *
+     * @param primitive
+     */
+    public void remove(CollisionPrimitive primitive);
+
+    /**
+     * Refresh the bounds of all primitives after they have been integrated this frame
+     */
+    public void update();
+
+    /**
+     * Write every overlapping pair into the list, reusing the entries already in it
+     *
+     * @param contacts
+     * @return Number of valid pairs written to the start of the list
+     */
+    public int findPotentialContacts(ArrayList<PotentialContact> contacts);
+}
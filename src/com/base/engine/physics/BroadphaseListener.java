@@ -0,0 +1,12 @@
+package com.base.engine.physics;
+
+/**
+ * Receives the pairs a persistent broadphase starts and stops tracking
+ *
+ * @author JordanG
+ */
+public interface BroadphaseListener
+{
+    public void pairAdded(CollisionPrimitive one, CollisionPrimitive two);
+    public void pairRemoved(CollisionPrimitive one, CollisionPrimitive two);
+}
@@ -1,14 +1,109 @@
-package com.base.engine.physics;
-
-import com.base.engine.math.Vec;
-
-public class CollisionBox extends CollisionPrimitive
-{
-    public Vec halfSize;
-
-    public CollisionBox()
-    {
-        body = new Body();
-        halfSize = new Vec();
-    }
-}
+package com.base.engine.physics;
+
+import com.base.engine.math.Vec;
+
+public class CollisionBox extends CollisionPrimitive
+{
+    public Vec halfSize;
+
+    public CollisionBox(BodyStore store)
+    {
+        body = new Body(store);
+        halfSize = new Vec();
+    }
+
+    /**
+     * Calculate the world-space bounding box of the box by projecting its half sizes onto each world axis
+     * A swept box is bounded by its corner radius on every axis, so the box still fits however it turned on the way, stretched back over its move
+     * 
+     * @param box 
+     */
+    @Override
+    public void calculateBoundingBox(BoundingBox box)
+    {
+        float[] m = transform.data;
+
+        if(swept)
+        {
+            float radius = getRadius();
+            box.set(m[3], m[7], m[11], radius, radius, radius);
+            box.sweep(-sweepX, -sweepY, -sweepZ);
+            return;
+        }
+
+        float extentX = Math.abs(m[0]) * halfSize.x + Math.abs(m[1]) * halfSize.y + Math.abs(m[2]) * halfSize.z;
+        float extentY = Math.abs(m[4]) * halfSize.x + Math.abs(m[5]) * halfSize.y + Math.abs(m[6]) * halfSize.z;
+        float extentZ = Math.abs(m[8]) * halfSize.x + Math.abs(m[9]) * halfSize.y + Math.abs(m[10]) * halfSize.z;
+
+        box.set(m[3], m[7], m[11], extentX, extentY, extentZ);
+    }
+
+    /**
+     * Find the corner of the box furthest along a world direction
+     * Corners are indexed by three bits, set where the corner is on the positive side of the x, y and z axes of the box
+     * 
+     * @param x
+     * @param y
+     * @param z
+     * @param point
+     * @return 
+     */
+    @Override
+    public int support(float x, float y, float z, float[] point)
+    {
+        float[] m = transform.data;
+        int index = 0;
+        if((x * m[0]) + (y * m[4]) + (z * m[8]) >= 0.0f)
+        {
+            index |= 1;
+        }
+        if((x * m[1]) + (y * m[5]) + (z * m[9]) >= 0.0f)
+        {
+            index |= 2;
+        }
+        if((x * m[2]) + (y * m[6]) + (z * m[10]) >= 0.0f)
+        {
+            index |= 4;
+        }
+        getVertex(index, point);
+        return index;
+    }
+
+    /**
+     * Get the world position of a corner of the box
+     * 
+     * @param index
+     * @param point 
+     */
+    @Override
+    public void getVertex(int index, float[] point)
+    {
+        float[] m = transform.data;
+        float x = (index & 1) != 0 ? halfSize.x : -halfSize.x;
+        float y = (index & 2) != 0 ? halfSize.y : -halfSize.y;
+        float z = (index & 4) != 0 ? halfSize.z : -halfSize.z;
+        point[0] = x * m[0] + y * m[1] + z * m[2] + m[3];
+        point[1] = x * m[4] + y * m[5] + z * m[6] + m[7];
+        point[2] = x * m[8] + y * m[9] + z * m[10] + m[11];
+    }
+
+    /**
+     * Get the distance from the center of the box to its corners, the furthest any point of it is from the center
+     * 
+     * @return 
+     */
+    public float getRadius()
+    {
+        return (float)Math.sqrt(halfSize.x * halfSize.x + halfSize.y * halfSize.y + halfSize.z * halfSize.z);
+    }
+
+    /**
+     * Get the smallest of the half sizes of the box, half its thinnest width
+     * 
+     * @return 
+     */
+    public float getSmallestHalfSize()
+    {
+        return Math.min(halfSize.x, Math.min(halfSize.y, halfSize.z));
+    }
+}
@@ -1,36 +1,74 @@
-package com.base.engine.physics;
-
-import java.util.ArrayList;
-
-/**
- * Stores data of all collisions for the current frame
- * 
- * @author JordanG
- */
-public class CollisionData
-{
-    public int contactArrayIndex;
-
-    public ArrayList<Contact> contacts;
-
-    public float friction;
-
-    public float restitution;
-
-    public float tolerance;
-
-    public CollisionData()
-    {
-        contacts = new ArrayList<Contact>();
-    }
-
-    public boolean hasMoreContacts()
-    {
-        return true;
-    }
-
-    public void reset()
-    {
-        contacts.clear();
-    }
-}
+package com.base.engine.physics;
+
+import java.util.ArrayList;
+
+/**
+ * Stores data of all collisions for the current frame
+ * Contacts are handed out from a pool that lives as long as the collision data, so keeping one collision data across frames stops contacts being created once the pool has grown to fit
+ * 
+ * @author JordanG
+ */
+public class CollisionData
+{
+    public int contactArrayIndex;
+
+    public ArrayList<Contact> contacts;
+
+    private ArrayList<Contact> pool;
+    private int poolIndex;                                                      //number of pooled contacts handed out this frame
+
+    public float friction;
+
+    public float restitution;
+
+    public float tolerance;
+
+    public CollisionData()
+    {
+        contacts = new ArrayList<Contact>();
+        pool = new ArrayList<Contact>();
+    }
+
+    /**
+     * Get a contact to fill in and add it to the contacts of this frame
+     * A contact from the pool is reset and reused where there is one left this frame, otherwise the pool grows by one
+     *
+     * @return
+     */
+    public Contact addContact()
+    {
+        if(poolIndex == pool.size())
+        {
+            pool.add(new Contact());
+        }
+
+        Contact contact = pool.get(poolIndex++);
+        contact.reset();
+        contacts.add(contact);
+        return contact;
+    }
+
+    /**
+     * Get the number of contacts the pool holds, used or not
+     *
+     * @return
+     */
+    public int getPoolSize()
+    {
+        return pool.size();
+    }
+
+    public boolean hasMoreContacts()
+    {
+        return true;
+    }
+
+    /**
+     * Clear the contacts of the frame, handing every pooled contact back to be reused
+     */
+    public void reset()
+    {
+        contacts.clear();
+        poolIndex = 0;
+    }
+}
@@ -1,393 +1,1034 @@
-package com.base.engine.physics;
-
-import com.base.engine.math.Matrix4;
-import com.base.engine.math.Vec;
-
-/**
- * Detects collisions between objects
- * 
- * @author JordanG
- */
-public class CollisionDetector
-{
-    public float smallestPenetration;
-    public int smallestCase;
-	
-    public static float transformToAxis(CollisionBox box, Vec axis)
-    {
-        return box.halfSize.x * Math.abs(axis.dotProd(box.getAxis(0))) + box.halfSize.y * Math.abs(axis.dotProd(box.getAxis(1))) + box.halfSize.z * Math.abs(axis.dotProd(box.getAxis(2)));
-    }
-
-    /**
-     * Check for penetration on the specified axis, between two boxes
-     * 
-     * @param one
-     * @param two
-     * @param axis
-     * @param toCenter
-     * @return 
-     */
-    private static float penetrationOnAxis(CollisionBox one, CollisionBox two, Vec axis, Vec toCenter)
-    {
-        float oneProject = transformToAxis(one, axis);
-        float twoProject = transformToAxis(two, axis);
-
-        float distance = Math.abs(toCenter.dotProd(axis));
-
-        return oneProject + twoProject - distance;
-    }
-
-    /**
-     * Check for penetration on the specified axis between two boxes
-     * 
-     * @param one
-     * @param two
-     * @param axis
-     * @param toCenter
-     * @param index
-     * @return 
-     */
-    private boolean tryAxis(CollisionBox one, CollisionBox two, Vec axis, Vec toCenter, int index)
-    {
-        if(axis.squaredMagnitude() <= 0.0001)
-        {
-            return true;
-        }
-        axis = axis.normalize();
-
-        float penetration = penetrationOnAxis(one, two, axis, toCenter);
-
-        if (penetration < 0.0f)
-        {
-            return false;
-        }
-        
-        if (penetration < smallestPenetration)
-        {
-                smallestPenetration = penetration;
-                smallestCase = index;
-        }
-
-        return true;
-    }
-
-    /**
-     * Check for collisions between two boxes via SAT
-     * 
-     * @param one
-     * @param two
-     * @param data
-     * @return 
-     */
-    public int boxAndBox(CollisionBox one, CollisionBox two, CollisionData data)
-    {
-        Vec toCenter = new Vec(two.getAxis(3));
-        toCenter = toCenter.subtract(one.getAxis(3));
-
-        smallestPenetration = Float.MAX_VALUE;
-        smallestCase = 0xffffff;
-
-        if(!tryAxis(one, two, one.getAxis(0), toCenter, 0))
-        {
-            return 0;
-        }
-        if(!tryAxis(one, two, one.getAxis(1), toCenter, 1))
-        {
-            return 0;
-        }
-        if(!tryAxis(one, two, one.getAxis(2), toCenter, 2))
-        {
-            return 0;
-        }
-        if(!tryAxis(one, two, one.getAxis(0), toCenter, 3))
-        {
-            return 0;
-        }
-        if(!tryAxis(one, two, one.getAxis(1), toCenter, 4))
-        {
-            return 0;
-        }
-        if(!tryAxis(one, two, one.getAxis(2), toCenter, 5))
-        {
-            return 0;
-        }
-
-        int bestSingleAxis = smallestCase;
-
-        if(!tryAxis(one, two, one.getAxis(0).crossProd(two.getAxis(0)), toCenter, 6))
-        {
-            return 0;
-        }
-        if(!tryAxis(one, two, one.getAxis(0).crossProd(two.getAxis(1)), toCenter, 7))
-        {
-            return 0;
-        }
-        if(!tryAxis(one, two, one.getAxis(0).crossProd(two.getAxis(3)), toCenter, 8))
-        {
-            return 0;
-        }
-        if(!tryAxis(one, two, one.getAxis(1).crossProd(two.getAxis(0)), toCenter, 9))
-        {
-            return 0;
-        }
-        if(!tryAxis(one, two, one.getAxis(1).crossProd(two.getAxis(1)), toCenter, 10))
-        {
-            return 0;
-        }
-        if(!tryAxis(one, two, one.getAxis(1).crossProd(two.getAxis(2)), toCenter, 11))
-        {
-            return 0;
-        }
-        if(!tryAxis(one, two, one.getAxis(2).crossProd(two.getAxis(0)), toCenter, 12))
-        {
-            return 0;
-        }
-        if(!tryAxis(one, two, one.getAxis(2).crossProd(two.getAxis(1)), toCenter, 13))
-        {
-            return 0;
-        }
-        if(!tryAxis(one, two, one.getAxis(2).crossProd(two.getAxis(2)), toCenter, 14))
-        {
-            return 0;
-        }
-
-        if(smallestCase != 0xffffff)
-        {
-            if(smallestCase < 3)
-            {
-                fillPointFaceBoxBox(one, two, toCenter, data, smallestCase, smallestPenetration);
-                data.contactArrayIndex++;
-                return 1;
-            }
-            else if(smallestCase < 6)
-            {
-                fillPointFaceBoxBox(two, one, toCenter.multiply(-1.0f), data, smallestCase - 3, smallestPenetration);
-                data.contactArrayIndex++;
-                return 1;
-            }
-            else
-            {
-                smallestCase -= 6;
-                int oneAxisIndex = (int) (smallestCase / 3);
-                int twoAxisIndex = smallestCase % 3;
-
-                Vec oneAxis = new Vec(one.getAxis(oneAxisIndex));
-                Vec twoAxis = new Vec(two.getAxis(twoAxisIndex));
-                Vec axis = oneAxis.crossProd(twoAxis);
-                axis = axis.normalize();
-
-                if(axis.dotProd(toCenter) > 0.0f)
-                {
-                    axis = axis.multiply(-1.0f);
-                }
-
-                Vec ptOnOneEdge = new Vec(one.halfSize);
-                Vec ptOnTwoEdge = new Vec(two.halfSize);
-
-
-                if(0 == oneAxisIndex)
-                {
-                    ptOnOneEdge.x = 0;
-                }
-                else if(one.getAxis(0).dotProd(axis) > 0.0f)
-                {
-                    ptOnOneEdge.x = -ptOnOneEdge.x;
-                }
-
-                if(0 == twoAxisIndex)
-                {
-                    ptOnTwoEdge.x = 0;
-                }
-                else if(two.getAxis(0).dotProd(axis) < 0.0f)
-                {
-                    ptOnTwoEdge.x = -ptOnTwoEdge.x;
-                }
-
-                if(1 == oneAxisIndex)
-                {
-                    ptOnOneEdge.y = 0;
-                }
-                else if(one.getAxis(1).dotProd(axis) > 0.0f)
-                {
-                    ptOnOneEdge.y = -ptOnOneEdge.y;
-                }
-
-                if(1 == twoAxisIndex)
-                {
-                    ptOnTwoEdge.y = 0;
-                }
-                else if(two.getAxis(1).dotProd(axis) < 0.0f)
-                {
-                    ptOnTwoEdge.y = -ptOnTwoEdge.y;
-                }
-
-                if(2 == oneAxisIndex)
-                {
-                    ptOnOneEdge.z = 0;
-                }
-                else if(one.getAxis(2).dotProd(axis) > 0.0f)
-                {
-                    ptOnOneEdge.z = -ptOnOneEdge.z;
-                }
-
-                if(2 == twoAxisIndex)
-                {
-                    ptOnTwoEdge.z = 0;
-                }
-                else if(two.getAxis(2).dotProd(axis) < 0.0f)
-                {
-                    ptOnTwoEdge.z = -ptOnTwoEdge.z;
-                }
-
-                Matrix4 tmp = new Matrix4(one.transform);
-                ptOnOneEdge = tmp.multiply(ptOnOneEdge);
-
-                tmp = new Matrix4(two.transform);
-                ptOnTwoEdge = tmp.multiply(ptOnTwoEdge);
-
-                Vec vertex = new Vec();
-
-                if(oneAxisIndex == 0 && twoAxisIndex == 0)
-                {
-                    vertex = new Vec(getContactPoint(ptOnOneEdge, oneAxis, one.halfSize.x, ptOnTwoEdge, twoAxis, two.halfSize.x, bestSingleAxis > 2));
-                }
-                else if(oneAxisIndex == 0 && twoAxisIndex == 1)
-                {
-                    vertex = new Vec(getContactPoint(ptOnOneEdge, oneAxis, one.halfSize.x, ptOnTwoEdge, twoAxis, two.halfSize.y, bestSingleAxis > 2));
-                }
-                else if(oneAxisIndex == 0 && twoAxisIndex == 2)
-                {
-                    vertex = new Vec(getContactPoint(ptOnOneEdge, oneAxis, one.halfSize.x, ptOnTwoEdge, twoAxis, two.halfSize.z, bestSingleAxis > 2));
-                }
-                else if(oneAxisIndex == 1 && twoAxisIndex == 0)
-                {
-                    vertex = new Vec(getContactPoint(ptOnOneEdge, oneAxis, one.halfSize.y, ptOnTwoEdge, twoAxis, two.halfSize.x, bestSingleAxis > 2));
-                }
-                else if(oneAxisIndex == 1 && twoAxisIndex == 1)
-                {
-                    vertex = new Vec(getContactPoint(ptOnOneEdge, oneAxis, one.halfSize.y, ptOnTwoEdge, twoAxis, two.halfSize.y, bestSingleAxis > 2));
-                }
-                else if(oneAxisIndex == 1 && twoAxisIndex == 2)
-                {
-                    vertex = new Vec(getContactPoint(ptOnOneEdge, oneAxis, one.halfSize.y, ptOnTwoEdge, twoAxis, two.halfSize.z, bestSingleAxis > 2));
-                }
-                else if(oneAxisIndex == 2 && twoAxisIndex == 0)
-                {
-                    vertex = new Vec(getContactPoint(ptOnOneEdge, oneAxis, one.halfSize.z, ptOnTwoEdge, twoAxis, two.halfSize.x, bestSingleAxis > 2));
-                }
-                else if(oneAxisIndex == 2 && twoAxisIndex == 1)
-                {
-                    vertex = new Vec(getContactPoint(ptOnOneEdge, oneAxis, one.halfSize.z, ptOnTwoEdge, twoAxis, two.halfSize.y, bestSingleAxis > 2));
-                }
-                else if(oneAxisIndex == 2 && twoAxisIndex == 2)
-                {
-                    vertex = new Vec(getContactPoint(ptOnOneEdge, oneAxis, one.halfSize.z, ptOnTwoEdge, twoAxis, two.halfSize.z, bestSingleAxis > 2));
-                }
-
-                Contact contact = new Contact();
-                contact.penetration = smallestPenetration;
-                contact.contactNormal = axis;
-                contact.contactPoint = vertex;
-                contact.setBodyData(one.body, two.body, data.friction, data.restitution);
-
-                data.contacts.add(contact);
-                data.contactArrayIndex++;
-                return 1;
-            }
-        }
-        return 0;
-    }
-
-    public void fillPointFaceBoxBox(CollisionBox one, CollisionBox two, Vec toCenter, CollisionData data, int best, float penetration)
-    {
-        Contact contact = new Contact();
-
-        Vec normal = one.getAxis(best);
-        if(one.getAxis(best).dotProd(toCenter) > 0.0f)
-        {
-            normal = normal.multiply(-1.0f);
-        }
-
-        Vec vertex = new Vec(two.halfSize);
-
-        if(two.getAxis(0).dotProd(normal) < 0.0f)
-        {
-            vertex.x = -vertex.x;
-        }
-        if(two.getAxis(1).dotProd(normal) < 0.0f)
-        {
-            vertex.y = -vertex.y;
-        }
-        if(two.getAxis(2).dotProd(normal) < 0.0f)
-        {
-            vertex.z = -vertex.z;
-        }
-
-        contact.contactNormal = normal;
-        contact.penetration  = penetration;
-
-        Matrix4 tmp = new Matrix4(two.getTransform());
-        contact.contactPoint = new Vec(tmp.multiply(vertex));
-        contact.setBodyData(one.body, two.body, data.friction, data.restitution);
-        data.contacts.add(contact);
-    }
-
-    /**
-     * Get the contact point of a collision
-     * 
-     * @param pointA
-     * @param axisA
-     * @param sizeA
-     * @param pointB
-     * @param axisB
-     * @param sizeB
-     * @param useA
-     * @return 
-     */
-    public Vec getContactPoint(Vec pointA, Vec axisA, float sizeA, Vec pointB, Vec axisB, float sizeB, boolean useA)
-    {
-        Vec toCenter = new Vec();
-        Vec contactA = new Vec();
-        Vec contactB = new Vec();
-
-        float dotCenterA, dotCenterB, dotAB, lengthA, lengthB;
-        float denominator, unitA, unitB;
-
-        lengthA = axisA.squaredMagnitude();
-        lengthB = axisB.squaredMagnitude();
-        dotAB = axisB.dotProd(axisA);
-
-        toCenter = new Vec(pointA);
-        toCenter = toCenter.subtract(pointB);
-        dotCenterA = axisA.dotProd(toCenter);
-        dotCenterB = axisB.dotProd(toCenter);
-
-        denominator = lengthA * lengthB - dotAB * dotAB;
-
-        if(Math.abs(denominator) < 0.0001d)
-        {
-            return useA ? pointA : pointB;
-        }
-
-        unitA = (dotAB * dotCenterB - lengthB * dotCenterA) / denominator;
-        unitB = (lengthA * dotCenterB - dotAB * dotCenterA) / denominator;
-
-        if(unitA > sizeA || unitA < -sizeA || unitB > sizeB || unitB < -sizeB)
-        {
-            return useA ? pointA : pointB;
-        }
-        else
-        {
-            contactA = new Vec(pointA);
-            contactA = contactA.addScaledVector(axisA, unitA);
-
-            contactB = new Vec(pointB);
-            contactB = contactB.addScaledVector(axisB, unitB);
-
-            contactA = contactA.multiply(0.5f);
-            contactA = contactA.addScaledVector(contactB, 0.5f);
-
-            return contactA;
-        }
-    }
-}
+package com.base.engine.physics;
+
+import com.base.engine.math.Vec;
+
+/**
+ * Detects collisions between objects
+ * The box tests work on primitive floats and scratch arrays owned by the detector so that no vectors or matrices are created per test
+ * A detector is therefore not safe to share between threads
+ *
+ * @author JordanG
+ */
+public class CollisionDetector
+{
+    private static final float EDGE_RELATIVE_TOLERANCE = 0.95f;
+    private static final float EDGE_ABSOLUTE_TOLERANCE = 0.001f;
+    private static final int MAX_MANIFOLD_POINTS = 4;
+
+    public float smallestPenetration;
+    public int smallestCase;
+
+    //axes 0-2 and the position (3) of each box, stored as x, y, z triples
+    private final float[] oneAxes = new float[12];
+    private final float[] twoAxes = new float[12];
+
+    private SeparatingAxisCache axisCache;
+    private boolean manifoldMode;
+    private final GjkEpa gjk = new GjkEpa();
+
+    //incident face polygon while it is clipped, up to eight points stored as x, y, z triples
+    private final float[] clipIn = new float[8 * 3];
+    private final float[] clipOut = new float[8 * 3];
+    private final float[] clipDepth = new float[8];
+    private final boolean[] clipKept = new boolean[8];
+
+    //result of the last edge-edge contact point calculation
+    private float contactX, contactY, contactZ;
+
+    /**
+     * Set the cache of separating axes checked before each box-box test, or null to always test every axis
+     *
+     * @param axisCache
+     */
+    public void setAxisCache(SeparatingAxisCache axisCache)
+    {
+        this.axisCache = axisCache;
+    }
+
+    /**
+     * Get the cache of separating axes checked before each box-box test
+     *
+     * @return
+     */
+    public SeparatingAxisCache getAxisCache()
+    {
+        return axisCache;
+    }
+
+    /**
+     * Set whether face contacts between boxes build a full manifold of up to four points instead of a single vertex
+     * Manifold mode also tests the second box's own face axes, which the single contact mode has never done
+     *
+     * @param manifoldMode
+     */
+    public void setManifoldMode(boolean manifoldMode)
+    {
+        this.manifoldMode = manifoldMode;
+    }
+
+    /**
+     * Check if face contacts between boxes build a full manifold
+     *
+     * @return
+     */
+    public boolean isManifoldMode()
+    {
+        return manifoldMode;
+    }
+
+    public static float transformToAxis(CollisionBox box, Vec axis)
+    {
+        return box.halfSize.x * Math.abs(axis.dotProd(box.getAxis(0))) + box.halfSize.y * Math.abs(axis.dotProd(box.getAxis(1))) + box.halfSize.z * Math.abs(axis.dotProd(box.getAxis(2)));
+    }
+
+    /**
+     * Project the half size of a box onto an axis
+     *
+     * @param box
+     * @param axes
+     * @param x
+     * @param y
+     * @param z
+     * @return
+     */
+    private static float transformToAxis(CollisionBox box, float[] axes, float x, float y, float z)
+    {
+        return box.halfSize.x * Math.abs((x * axes[0]) + (y * axes[1]) + (z * axes[2])) + box.halfSize.y * Math.abs((x * axes[3]) + (y * axes[4]) + (z * axes[5])) + box.halfSize.z * Math.abs((x * axes[6]) + (y * axes[7]) + (z * axes[8]));
+    }
+
+    /**
+     * Copy the axes and position of a box out of its transform
+     *
+     * @param box
+     * @param axes
+     */
+    private static void loadAxes(CollisionBox box, float[] axes)
+    {
+        float[] m = box.transform.data;
+        for(int i = 0; i < 4; i++)
+        {
+            axes[i * 3] = m[i];
+            axes[i * 3 + 1] = m[i + 4];
+            axes[i * 3 + 2] = m[i + 8];
+        }
+    }
+
+    /**
+     * Get the penetration of two boxes along the specified axis
+     *
+     * @param one
+     * @param two
+     * @param x
+     * @param y
+     * @param z
+     * @param toCenterX
+     * @param toCenterY
+     * @param toCenterZ
+     * @return Penetration, or the largest float if the axis is too short to test
+     */
+    private float penetrationOnAxis(CollisionBox one, CollisionBox two, float x, float y, float z, float toCenterX, float toCenterY, float toCenterZ)
+    {
+        if((x * x) + (y * y) + (z * z) <= 0.0001)
+        {
+            return Float.MAX_VALUE;
+        }
+
+        float length = (float)Math.sqrt((x * x) + (y * y) + (z * z));
+        if(length > 0.0f)
+        {
+            x *= 1.0f / length;
+            y *= 1.0f / length;
+            z *= 1.0f / length;
+        }
+
+        float oneProject = transformToAxis(one, oneAxes, x, y, z);
+        float twoProject = transformToAxis(two, twoAxes, x, y, z);
+        float distance = Math.abs((toCenterX * x) + (toCenterY * y) + (toCenterZ * z));
+
+        return oneProject + twoProject - distance;
+    }
+
+    /**
+     * Check for penetration on the specified axis between two boxes
+     *
+     * @param one
+     * @param two
+     * @param x
+     * @param y
+     * @param z
+     * @param toCenterX
+     * @param toCenterY
+     * @param toCenterZ
+     * @param index
+     * @return
+     */
+    private boolean tryAxis(CollisionBox one, CollisionBox two, float x, float y, float z, float toCenterX, float toCenterY, float toCenterZ, int index)
+    {
+        float penetration = penetrationOnAxis(one, two, x, y, z, toCenterX, toCenterY, toCenterZ);
+        if(penetration == Float.MAX_VALUE)
+        {
+            return true;
+        }
+
+        if (penetration < 0.0f)
+        {
+            return false;
+        }
+
+        if (penetration < smallestPenetration)
+        {
+                smallestPenetration = penetration;
+                smallestCase = index;
+        }
+
+        return true;
+    }
+
+    /**
+     * Check if two boxes are separated along the axis of the specified SAT case, without recording it as the smallest penetration
+     *
+     * @param one
+     * @param two
+     * @param index
+     * @param toCenterX
+     * @param toCenterY
+     * @param toCenterZ
+     * @return
+     */
+    private boolean separatedOnCase(CollisionBox one, CollisionBox two, int index, float toCenterX, float toCenterY, float toCenterZ)
+    {
+        float penetration;
+        if(index < 6)
+        {
+            float[] axes = index < 3 || !manifoldMode ? oneAxes : twoAxes;
+            int i = (index % 3) * 3;
+            penetration = penetrationOnAxis(one, two, axes[i], axes[i + 1], axes[i + 2], toCenterX, toCenterY, toCenterZ);
+        }
+        else
+        {
+            int a = ((index - 6) / 3) * 3;
+            int b = (index == 8 && !manifoldMode ? 3 : (index - 6) % 3) * 3;
+            float ax = oneAxes[a], ay = oneAxes[a + 1], az = oneAxes[a + 2];
+            float bx = twoAxes[b], by = twoAxes[b + 1], bz = twoAxes[b + 2];
+            penetration = penetrationOnAxis(one, two, (ay * bz) - (az * by), (az * bx) - (ax * bz), (ax * by) - (ay * bx), toCenterX, toCenterY, toCenterZ);
+        }
+        return penetration < 0.0f;
+    }
+
+    /**
+     * Record the axis that separated two boxes in the cache
+     *
+     * @param one
+     * @param two
+     * @param index
+     * @return No contacts
+     */
+    private int separatedOn(CollisionBox one, CollisionBox two, int index)
+    {
+        if(axisCache != null)
+        {
+            axisCache.store(one.body, two.body, index);
+        }
+        return 0;
+    }
+
+    /**
+     * Check one of the edge-edge axes, made from the cross product of an axis of each box
+     *
+     * @param one
+     * @param two
+     * @param oneAxis
+     * @param twoAxis
+     * @param toCenterX
+     * @param toCenterY
+     * @param toCenterZ
+     * @param index
+     * @return
+     */
+    private boolean tryCrossAxis(CollisionBox one, CollisionBox two, int oneAxis, int twoAxis, float toCenterX, float toCenterY, float toCenterZ, int index)
+    {
+        float ax = oneAxes[oneAxis * 3], ay = oneAxes[oneAxis * 3 + 1], az = oneAxes[oneAxis * 3 + 2];
+        float bx = twoAxes[twoAxis * 3], by = twoAxes[twoAxis * 3 + 1], bz = twoAxes[twoAxis * 3 + 2];
+
+        return tryAxis(one, two, (ay * bz) - (az * by), (az * bx) - (ax * bz), (ax * by) - (ay * bx), toCenterX, toCenterY, toCenterZ, index);
+    }
+
+    /**
+     * Check for collisions between two boxes via SAT
+     *
+     * @param one
+     * @param two
+     * @param data
+     * @return
+     */
+    public int boxAndBox(CollisionBox one, CollisionBox two, CollisionData data)
+    {
+        loadAxes(one, oneAxes);
+        loadAxes(two, twoAxes);
+
+        float toCenterX = twoAxes[9] - oneAxes[9];
+        float toCenterY = twoAxes[10] - oneAxes[10];
+        float toCenterZ = twoAxes[11] - oneAxes[11];
+
+        if(axisCache != null)
+        {
+            int cached = axisCache.getAxis(one.body, two.body);
+            if(cached != -1 && separatedOnCase(one, two, cached, toCenterX, toCenterY, toCenterZ))
+            {
+                axisCache.recordHit();
+                return 0;
+            }
+        }
+
+        smallestPenetration = Float.MAX_VALUE;
+        smallestCase = 0xffffff;
+
+        if(!tryAxis(one, two, oneAxes[0], oneAxes[1], oneAxes[2], toCenterX, toCenterY, toCenterZ, 0))
+        {
+            return separatedOn(one, two, 0);
+        }
+        if(!tryAxis(one, two, oneAxes[3], oneAxes[4], oneAxes[5], toCenterX, toCenterY, toCenterZ, 1))
+        {
+            return separatedOn(one, two, 1);
+        }
+        if(!tryAxis(one, two, oneAxes[6], oneAxes[7], oneAxes[8], toCenterX, toCenterY, toCenterZ, 2))
+        {
+            return separatedOn(one, two, 2);
+        }
+        //cases 3-5 have always been tested against the first box's axes, kept as-is outside of manifold mode so contacts stay the same
+        float[] faceAxes = manifoldMode ? twoAxes : oneAxes;
+        if(!tryAxis(one, two, faceAxes[0], faceAxes[1], faceAxes[2], toCenterX, toCenterY, toCenterZ, 3))
+        {
+            return separatedOn(one, two, 3);
+        }
+        if(!tryAxis(one, two, faceAxes[3], faceAxes[4], faceAxes[5], toCenterX, toCenterY, toCenterZ, 4))
+        {
+            return separatedOn(one, two, 4);
+        }
+        if(!tryAxis(one, two, faceAxes[6], faceAxes[7], faceAxes[8], toCenterX, toCenterY, toCenterZ, 5))
+        {
+            return separatedOn(one, two, 5);
+        }
+
+        int bestSingleAxis = smallestCase;
+        float bestFacePenetration = smallestPenetration;
+
+        if(!tryCrossAxis(one, two, 0, 0, toCenterX, toCenterY, toCenterZ, 6))
+        {
+            return separatedOn(one, two, 6);
+        }
+        if(!tryCrossAxis(one, two, 0, 1, toCenterX, toCenterY, toCenterZ, 7))
+        {
+            return separatedOn(one, two, 7);
+        }
+        //as above, case 8 has always crossed with the second box's position rather than its third axis
+        if(!tryCrossAxis(one, two, 0, manifoldMode ? 2 : 3, toCenterX, toCenterY, toCenterZ, 8))
+        {
+            return separatedOn(one, two, 8);
+        }
+        if(!tryCrossAxis(one, two, 1, 0, toCenterX, toCenterY, toCenterZ, 9))
+        {
+            return separatedOn(one, two, 9);
+        }
+        if(!tryCrossAxis(one, two, 1, 1, toCenterX, toCenterY, toCenterZ, 10))
+        {
+            return separatedOn(one, two, 10);
+        }
+        if(!tryCrossAxis(one, two, 1, 2, toCenterX, toCenterY, toCenterZ, 11))
+        {
+            return separatedOn(one, two, 11);
+        }
+        if(!tryCrossAxis(one, two, 2, 0, toCenterX, toCenterY, toCenterZ, 12))
+        {
+            return separatedOn(one, two, 12);
+        }
+        if(!tryCrossAxis(one, two, 2, 1, toCenterX, toCenterY, toCenterZ, 13))
+        {
+            return separatedOn(one, two, 13);
+        }
+        if(!tryCrossAxis(one, two, 2, 2, toCenterX, toCenterY, toCenterZ, 14))
+        {
+            return separatedOn(one, two, 14);
+        }
+
+        return fillBoxAndBox(one, two, toCenterX, toCenterY, toCenterZ, data, bestSingleAxis, bestFacePenetration);
+    }
+
+    /**
+     * Check for a collision between any two convex primitives with GJK, and find its depth and direction with EPA if they overlap
+     * One contact is made, between the points of each primitive deepest inside the other, at the point of the second
+     *
+     * @param one
+     * @param two
+     * @param data
+     * @return Number of contacts added
+     */
+    public int convexAndConvex(CollisionPrimitive one, CollisionPrimitive two, CollisionData data)
+    {
+        int added = 0;
+        if(gjk.intersect(one, two) && gjk.penetrate(one, two))
+        {
+            Contact contact = data.addContact();
+            gjk.getNormal(contact.contactNormal);
+            contact.contactNormal.x = -contact.contactNormal.x;                //from the second primitive to the first
+            contact.contactNormal.y = -contact.contactNormal.y;
+            contact.contactNormal.z = -contact.contactNormal.z;
+            contact.penetration = gjk.getDepth();
+            gjk.getPointTwo(contact.contactPoint);
+            contact.setBodyData(one.body, two.body, data.friction, data.restitution);
+            data.contactArrayIndex++;
+            added = 1;
+        }
+        return added;
+    }
+
+    /**
+     * Set the cache of simplices GJK starts each pair from, or null to start every query from scratch
+     *
+     * @param simplexCache
+     */
+    public void setSimplexCache(SimplexCache simplexCache)
+    {
+        gjk.setSimplexCache(simplexCache);
+    }
+
+    /**
+     * Get the cache of simplices GJK starts each pair from
+     *
+     * @return
+     */
+    public SimplexCache getSimplexCache()
+    {
+        return gjk.getSimplexCache();
+    }
+
+    /**
+     * Get the GJK and EPA queries used for convex primitives, for their iteration counters
+     *
+     * @return
+     */
+    public GjkEpa getGjk()
+    {
+        return gjk;
+    }
+
+    /**
+     * Reset the GJK and EPA query counters
+     */
+    public void resetCounters()
+    {
+        gjk.resetCounters();
+    }
+
+    /**
+     * Create the contacts between two boxes that overlap on every axis, from the smallest penetration found by the separating axis test
+     *
+     * @param one
+     * @param two
+     * @param toCenterX
+     * @param toCenterY
+     * @param toCenterZ
+     * @param data
+     * @param bestSingleAxis
+     * @param bestFacePenetration
+     * @return Number of contacts added
+     */
+    private int fillBoxAndBox(CollisionBox one, CollisionBox two, float toCenterX, float toCenterY, float toCenterZ, CollisionData data, int bestSingleAxis, float bestFacePenetration)
+    {
+        if(axisCache != null)
+        {
+            axisCache.clear(one.body, two.body);
+        }
+
+        if(manifoldMode && smallestCase != 0xffffff)
+        {
+            //only take an edge-edge contact when it is clearly shallower than the best face, faces give far more stable stacks
+            if(smallestCase >= 6 && smallestPenetration > bestFacePenetration * EDGE_RELATIVE_TOLERANCE - EDGE_ABSOLUTE_TOLERANCE)
+            {
+                smallestCase = bestSingleAxis;
+                smallestPenetration = bestFacePenetration;
+            }
+
+            int added = 0;
+            if(smallestCase < 3)
+            {
+                added = fillFaceFaceBoxBox(one, oneAxes, two, twoAxes, toCenterX, toCenterY, toCenterZ, data, smallestCase);
+            }
+            else if(smallestCase < 6)
+            {
+                added = fillFaceFaceBoxBox(two, twoAxes, one, oneAxes, toCenterX * -1.0f, toCenterY * -1.0f, toCenterZ * -1.0f, data, smallestCase - 3);
+            }
+            if(added > 0)
+            {
+                data.contactArrayIndex += added;
+                return added;
+            }
+        }
+
+        if(smallestCase != 0xffffff)
+        {
+            if(smallestCase < 3)
+            {
+                fillPointFaceBoxBox(one, oneAxes, two, twoAxes, toCenterX, toCenterY, toCenterZ, data, smallestCase, smallestPenetration);
+                data.contactArrayIndex++;
+                return 1;
+            }
+            else if(smallestCase < 6)
+            {
+                fillPointFaceBoxBox(two, twoAxes, one, oneAxes, toCenterX * -1.0f, toCenterY * -1.0f, toCenterZ * -1.0f, data, smallestCase - 3, smallestPenetration);
+                data.contactArrayIndex++;
+                return 1;
+            }
+            else
+            {
+                fillEdgeEdgeBoxBox(one, two, toCenterX, toCenterY, toCenterZ, data, bestSingleAxis);
+                data.contactArrayIndex++;
+                return 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Create the contact between the edges of two boxes for the edge-edge axis in smallestCase
+     *
+     * @param one
+     * @param two
+     * @param toCenterX
+     * @param toCenterY
+     * @param toCenterZ
+     * @param data
+     * @param bestSingleAxis
+     */
+    private void fillEdgeEdgeBoxBox(CollisionBox one, CollisionBox two, float toCenterX, float toCenterY, float toCenterZ, CollisionData data, int bestSingleAxis)
+    {
+        smallestCase -= 6;
+        int oneAxisIndex = (int) (smallestCase / 3);
+        int twoAxisIndex = smallestCase % 3;
+
+        float oneAxisX = oneAxes[oneAxisIndex * 3], oneAxisY = oneAxes[oneAxisIndex * 3 + 1], oneAxisZ = oneAxes[oneAxisIndex * 3 + 2];
+        float twoAxisX = twoAxes[twoAxisIndex * 3], twoAxisY = twoAxes[twoAxisIndex * 3 + 1], twoAxisZ = twoAxes[twoAxisIndex * 3 + 2];
+
+        float axisX = (oneAxisY * twoAxisZ) - (oneAxisZ * twoAxisY);
+        float axisY = (oneAxisZ * twoAxisX) - (oneAxisX * twoAxisZ);
+        float axisZ = (oneAxisX * twoAxisY) - (oneAxisY * twoAxisX);
+
+        float length = (float)Math.sqrt((axisX * axisX) + (axisY * axisY) + (axisZ * axisZ));
+        if(length > 0.0f)
+        {
+            axisX *= 1.0f / length;
+            axisY *= 1.0f / length;
+            axisZ *= 1.0f / length;
+        }
+
+        if((axisX * toCenterX) + (axisY * toCenterY) + (axisZ * toCenterZ) > 0.0f)
+        {
+            axisX = axisX * -1.0f;
+            axisY = axisY * -1.0f;
+            axisZ = axisZ * -1.0f;
+        }
+
+        //find the point in the middle of the colliding edge of each box, in local space
+        float oneEdgeX = edgeComponent(one.halfSize.x, 0, oneAxisIndex, oneAxes, axisX, axisY, axisZ, false);
+        float oneEdgeY = edgeComponent(one.halfSize.y, 1, oneAxisIndex, oneAxes, axisX, axisY, axisZ, false);
+        float oneEdgeZ = edgeComponent(one.halfSize.z, 2, oneAxisIndex, oneAxes, axisX, axisY, axisZ, false);
+        float twoEdgeX = edgeComponent(two.halfSize.x, 0, twoAxisIndex, twoAxes, axisX, axisY, axisZ, true);
+        float twoEdgeY = edgeComponent(two.halfSize.y, 1, twoAxisIndex, twoAxes, axisX, axisY, axisZ, true);
+        float twoEdgeZ = edgeComponent(two.halfSize.z, 2, twoAxisIndex, twoAxes, axisX, axisY, axisZ, true);
+
+        float[] m = one.transform.data;
+        float pointOneX = oneEdgeX * m[0] + oneEdgeY * m[1] + oneEdgeZ * m[2] + m[3];
+        float pointOneY = oneEdgeX * m[4] + oneEdgeY * m[5] + oneEdgeZ * m[6] + m[7];
+        float pointOneZ = oneEdgeX * m[8] + oneEdgeY * m[9] + oneEdgeZ * m[10] + m[11];
+
+        m = two.transform.data;
+        float pointTwoX = twoEdgeX * m[0] + twoEdgeY * m[1] + twoEdgeZ * m[2] + m[3];
+        float pointTwoY = twoEdgeX * m[4] + twoEdgeY * m[5] + twoEdgeZ * m[6] + m[7];
+        float pointTwoZ = twoEdgeX * m[8] + twoEdgeY * m[9] + twoEdgeZ * m[10] + m[11];
+
+        calculateContactPoint(pointOneX, pointOneY, pointOneZ, oneAxisX, oneAxisY, oneAxisZ, component(one.halfSize, oneAxisIndex),
+                              pointTwoX, pointTwoY, pointTwoZ, twoAxisX, twoAxisY, twoAxisZ, component(two.halfSize, twoAxisIndex), bestSingleAxis > 2);
+
+        Contact contact = data.addContact();
+        contact.penetration = smallestPenetration;
+        contact.contactNormal.x = axisX;
+        contact.contactNormal.y = axisY;
+        contact.contactNormal.z = axisZ;
+        contact.contactPoint.x = contactX;
+        contact.contactPoint.y = contactY;
+        contact.contactPoint.z = contactZ;
+        contact.setBodyData(one.body, two.body, data.friction, data.restitution);
+    }
+
+    /**
+     * Get one local co-ordinate of the middle of a box's colliding edge
+     * The co-ordinate along the edge itself is zero, the others pick the side of the box facing the other one
+     *
+     * @param halfSize
+     * @param index
+     * @param edgeAxis
+     * @param axes
+     * @param axisX
+     * @param axisY
+     * @param axisZ
+     * @param second Whether the box is the second of the pair, which faces along the axis rather than against it
+     * @return
+     */
+    private static float edgeComponent(float halfSize, int index, int edgeAxis, float[] axes, float axisX, float axisY, float axisZ, boolean second)
+    {
+        if(index == edgeAxis)
+        {
+            return 0;
+        }
+
+        float dot = (axes[index * 3] * axisX) + (axes[index * 3 + 1] * axisY) + (axes[index * 3 + 2] * axisZ);
+        if(second ? dot < 0.0f : dot > 0.0f)
+        {
+            return -halfSize;
+        }
+        return halfSize;
+    }
+
+    private static float component(Vec vector, int index)
+    {
+        if(index == 0)
+        {
+            return vector.x;
+        }
+        else if(index == 1)
+        {
+            return vector.y;
+        }
+        return vector.z;
+    }
+
+    public void fillPointFaceBoxBox(CollisionBox one, CollisionBox two, Vec toCenter, CollisionData data, int best, float penetration)
+    {
+        loadAxes(one, oneAxes);
+        loadAxes(two, twoAxes);
+        fillPointFaceBoxBox(one, oneAxes, two, twoAxes, toCenter.x, toCenter.y, toCenter.z, data, best, penetration);
+    }
+
+    /**
+     * Create the contact between a vertex of the second box and a face of the first
+     *
+     * @param one
+     * @param oneAxes
+     * @param two
+     * @param twoAxes
+     * @param toCenterX
+     * @param toCenterY
+     * @param toCenterZ
+     * @param data
+     * @param best
+     * @param penetration
+     */
+    private void fillPointFaceBoxBox(CollisionBox one, float[] oneAxes, CollisionBox two, float[] twoAxes, float toCenterX, float toCenterY, float toCenterZ, CollisionData data, int best, float penetration)
+    {
+        Contact contact = data.addContact();
+
+        float normalX = oneAxes[best * 3];
+        float normalY = oneAxes[best * 3 + 1];
+        float normalZ = oneAxes[best * 3 + 2];
+        if((normalX * toCenterX) + (normalY * toCenterY) + (normalZ * toCenterZ) > 0.0f)
+        {
+            normalX = normalX * -1.0f;
+            normalY = normalY * -1.0f;
+            normalZ = normalZ * -1.0f;
+        }
+
+        float vertexX = two.halfSize.x;
+        float vertexY = two.halfSize.y;
+        float vertexZ = two.halfSize.z;
+
+        if((twoAxes[0] * normalX) + (twoAxes[1] * normalY) + (twoAxes[2] * normalZ) < 0.0f)
+        {
+            vertexX = -vertexX;
+        }
+        if((twoAxes[3] * normalX) + (twoAxes[4] * normalY) + (twoAxes[5] * normalZ) < 0.0f)
+        {
+            vertexY = -vertexY;
+        }
+        if((twoAxes[6] * normalX) + (twoAxes[7] * normalY) + (twoAxes[8] * normalZ) < 0.0f)
+        {
+            vertexZ = -vertexZ;
+        }
+
+        contact.contactNormal.x = normalX;
+        contact.contactNormal.y = normalY;
+        contact.contactNormal.z = normalZ;
+        contact.penetration  = penetration;
+
+        float[] m = two.getTransform().data;
+        contact.contactPoint.x = vertexX * m[0] + vertexY * m[1] + vertexZ * m[2] + m[3];
+        contact.contactPoint.y = vertexX * m[4] + vertexY * m[5] + vertexZ * m[6] + m[7];
+        contact.contactPoint.z = vertexX * m[8] + vertexY * m[9] + vertexZ * m[10] + m[11];
+        contact.setBodyData(one.body, two.body, data.friction, data.restitution);
+    }
+
+    /**
+     * Create up to four contacts between a face of the reference box and the most opposed face of the incident box
+     * The incident face is clipped against the side planes of the reference face and every point left below the reference face becomes a contact
+     *
+     * @param reference
+     * @param referenceAxes
+     * @param incident
+     * @param incidentAxes
+     * @param toCenterX
+     * @param toCenterY
+     * @param toCenterZ
+     * @param data
+     * @param best
+     * @return Number of contacts added
+     */
+    private int fillFaceFaceBoxBox(CollisionBox reference, float[] referenceAxes, CollisionBox incident, float[] incidentAxes, float toCenterX, float toCenterY, float toCenterZ, CollisionData data, int best)
+    {
+        //face normal of the reference box pointing at the incident box, the contact normal is the opposite of this
+        float faceX = referenceAxes[best * 3];
+        float faceY = referenceAxes[best * 3 + 1];
+        float faceZ = referenceAxes[best * 3 + 2];
+        if((faceX * toCenterX) + (faceY * toCenterY) + (faceZ * toCenterZ) < 0.0f)
+        {
+            faceX = -faceX;
+            faceY = -faceY;
+            faceZ = -faceZ;
+        }
+
+        //incident face is the one whose normal points most against the reference face
+        int incidentAxis = 0;
+        float mostOpposed = 0.0f;
+        for(int i = 0; i < 3; i++)
+        {
+            float dot = Math.abs((incidentAxes[i * 3] * faceX) + (incidentAxes[i * 3 + 1] * faceY) + (incidentAxes[i * 3 + 2] * faceZ));
+            if(dot > mostOpposed)
+            {
+                mostOpposed = dot;
+                incidentAxis = i;
+            }
+        }
+        float incidentDot = (incidentAxes[incidentAxis * 3] * faceX) + (incidentAxes[incidentAxis * 3 + 1] * faceY) + (incidentAxes[incidentAxis * 3 + 2] * faceZ);
+        float incidentSign = incidentDot > 0.0f ? -1.0f : 1.0f;
+
+        float incidentHalf = component(incident.halfSize, incidentAxis) * incidentSign;
+        float centerX = incidentAxes[9] + incidentAxes[incidentAxis * 3] * incidentHalf;
+        float centerY = incidentAxes[10] + incidentAxes[incidentAxis * 3 + 1] * incidentHalf;
+        float centerZ = incidentAxes[11] + incidentAxes[incidentAxis * 3 + 2] * incidentHalf;
+
+        int u = (incidentAxis + 1) % 3;
+        int v = (incidentAxis + 2) % 3;
+        float uX = incidentAxes[u * 3] * component(incident.halfSize, u);
+        float uY = incidentAxes[u * 3 + 1] * component(incident.halfSize, u);
+        float uZ = incidentAxes[u * 3 + 2] * component(incident.halfSize, u);
+        float vX = incidentAxes[v * 3] * component(incident.halfSize, v);
+        float vY = incidentAxes[v * 3 + 1] * component(incident.halfSize, v);
+        float vZ = incidentAxes[v * 3 + 2] * component(incident.halfSize, v);
+
+        //corners of the incident face, wound around the face
+        setPoint(clipIn, 0, centerX + uX + vX, centerY + uY + vY, centerZ + uZ + vZ);
+        setPoint(clipIn, 1, centerX - uX + vX, centerY - uY + vY, centerZ - uZ + vZ);
+        setPoint(clipIn, 2, centerX - uX - vX, centerY - uY - vY, centerZ - uZ - vZ);
+        setPoint(clipIn, 3, centerX + uX - vX, centerY + uY - vY, centerZ + uZ - vZ);
+        int count = 4;
+
+        //clip against the four side planes of the reference face
+        float[] in = clipIn;
+        float[] out = clipOut;
+        for(int side = 1; side <= 2 && count > 0; side++)
+        {
+            int axis = (best + side) % 3;
+            float nx = referenceAxes[axis * 3], ny = referenceAxes[axis * 3 + 1], nz = referenceAxes[axis * 3 + 2];
+            float centerDot = (nx * referenceAxes[9]) + (ny * referenceAxes[10]) + (nz * referenceAxes[11]);
+            float half = component(reference.halfSize, axis);
+
+            count = clipPolygon(in, count, out, nx, ny, nz, centerDot + half);
+            float[] swap = in;
+            in = out;
+            out = swap;
+            count = clipPolygon(in, count, out, -nx, -ny, -nz, -centerDot + half);
+            swap = in;
+            in = out;
+            out = swap;
+        }
+
+        //keep the points that are below the reference face
+        float planeDot = (faceX * referenceAxes[9]) + (faceY * referenceAxes[10]) + (faceZ * referenceAxes[11]) + component(reference.halfSize, best);
+        int kept = 0;
+        for(int i = 0; i < count; i++)
+        {
+            float depth = planeDot - ((faceX * in[i * 3]) + (faceY * in[i * 3 + 1]) + (faceZ * in[i * 3 + 2]));
+            if(depth >= 0.0f)
+            {
+                setPoint(in, kept, in[i * 3], in[i * 3 + 1], in[i * 3 + 2]);
+                clipDepth[kept] = depth;
+                kept++;
+            }
+        }
+        if(kept == 0)
+        {
+            return 0;
+        }
+
+        if(kept > MAX_MANIFOLD_POINTS)
+        {
+            reduceManifold(in, kept, faceX, faceY, faceZ);
+        }
+        else
+        {
+            for(int i = 0; i < kept; i++)
+            {
+                clipKept[i] = true;
+            }
+        }
+
+        int added = 0;
+        for(int i = 0; i < kept; i++)
+        {
+            if(!clipKept[i])
+            {
+                continue;
+            }
+
+            Contact contact = data.addContact();
+            contact.contactNormal.x = -faceX;
+            contact.contactNormal.y = -faceY;
+            contact.contactNormal.z = -faceZ;
+            contact.contactPoint.x = in[i * 3];
+            contact.contactPoint.y = in[i * 3 + 1];
+            contact.contactPoint.z = in[i * 3 + 2];
+            contact.penetration = clipDepth[i];
+            contact.setBodyData(reference.body, incident.body, data.friction, data.restitution);
+            added++;
+        }
+        return added;
+    }
+
+    /**
+     * Clip a polygon against a plane, keeping the part on the side the plane normal points away from
+     *
+     * @param in
+     * @param count
+     * @param out
+     * @param nx
+     * @param ny
+     * @param nz
+     * @param offset
+     * @return Number of points in the clipped polygon
+     */
+    private static int clipPolygon(float[] in, int count, float[] out, float nx, float ny, float nz, float offset)
+    {
+        int written = 0;
+        for(int i = 0; i < count; i++)
+        {
+            int next = (i + 1) % count;
+            float distance = (nx * in[i * 3]) + (ny * in[i * 3 + 1]) + (nz * in[i * 3 + 2]) - offset;
+            float nextDistance = (nx * in[next * 3]) + (ny * in[next * 3 + 1]) + (nz * in[next * 3 + 2]) - offset;
+
+            if(distance <= 0.0f)
+            {
+                setPoint(out, written++, in[i * 3], in[i * 3 + 1], in[i * 3 + 2]);
+            }
+            if((distance <= 0.0f) != (nextDistance <= 0.0f))
+            {
+                float t = distance / (distance - nextDistance);
+                setPoint(out, written++, in[i * 3] + (in[next * 3] - in[i * 3]) * t, in[i * 3 + 1] + (in[next * 3 + 1] - in[i * 3 + 1]) * t, in[i * 3 + 2] + (in[next * 3 + 2] - in[i * 3 + 2]) * t);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Pick the four points of a clipped manifold that keep the most of its area: the deepest point,
+     * the point furthest from it, the point making the largest triangle with both and the point furthest outside that triangle
+     *
+     * @param points
+     * @param count
+     * @param normalX
+     * @param normalY
+     * @param normalZ
+     */
+    private void reduceManifold(float[] points, int count, float normalX, float normalY, float normalZ)
+    {
+        for(int i = 0; i < count; i++)
+        {
+            clipKept[i] = false;
+        }
+
+        int a = 0;
+        for(int i = 1; i < count; i++)
+        {
+            if(clipDepth[i] > clipDepth[a])
+            {
+                a = i;
+            }
+        }
+        clipKept[a] = true;
+
+        int b = -1;
+        float furthest = -1.0f;
+        for(int i = 0; i < count; i++)
+        {
+            float dx = points[i * 3] - points[a * 3];
+            float dy = points[i * 3 + 1] - points[a * 3 + 1];
+            float dz = points[i * 3 + 2] - points[a * 3 + 2];
+            float distance = dx * dx + dy * dy + dz * dz;
+            if(!clipKept[i] && distance > furthest)
+            {
+                furthest = distance;
+                b = i;
+            }
+        }
+        clipKept[b] = true;
+
+        int c = -1;
+        float largest = 0.0f;
+        float cSign = 1.0f;
+        for(int i = 0; i < count; i++)
+        {
+            float area = signedArea(points, a, b, i, normalX, normalY, normalZ);
+            if(!clipKept[i] && (c == -1 || Math.abs(area) > largest))
+            {
+                largest = Math.abs(area);
+                cSign = area < 0.0f ? -1.0f : 1.0f;
+                c = i;
+            }
+        }
+        clipKept[c] = true;
+
+        //a point outside the triangle makes a negative area with the edge it lies beyond, once the triangle is wound positively
+        int d = -1;
+        float outside = 0.0f;
+        for(int i = 0; i < count; i++)
+        {
+            if(clipKept[i])
+            {
+                continue;
+            }
+            float area = Math.max(-cSign * signedArea(points, a, b, i, normalX, normalY, normalZ), Math.max(-cSign * signedArea(points, b, c, i, normalX, normalY, normalZ), -cSign * signedArea(points, c, a, i, normalX, normalY, normalZ)));
+            if(d == -1 || area > outside)
+            {
+                outside = area;
+                d = i;
+            }
+        }
+        clipKept[d] = true;
+    }
+
+    /**
+     * Get twice the signed area of a triangle of points, measured around the specified normal
+     *
+     * @param points
+     * @param a
+     * @param b
+     * @param c
+     * @param normalX
+     * @param normalY
+     * @param normalZ
+     * @return
+     */
+    private static float signedArea(float[] points, int a, int b, int c, float normalX, float normalY, float normalZ)
+    {
+        float abX = points[b * 3] - points[a * 3], abY = points[b * 3 + 1] - points[a * 3 + 1], abZ = points[b * 3 + 2] - points[a * 3 + 2];
+        float acX = points[c * 3] - points[a * 3], acY = points[c * 3 + 1] - points[a * 3 + 1], acZ = points[c * 3 + 2] - points[a * 3 + 2];
+
+        return normalX * (abY * acZ - abZ * acY) + normalY * (abZ * acX - abX * acZ) + normalZ * (abX * acY - abY * acX);
+    }
+
+    private static void setPoint(float[] points, int index, float x, float y, float z)
+    {
+        points[index * 3] = x;
+        points[index * 3 + 1] = y;
+        points[index * 3 + 2] = z;
+    }
+
+    /**
+     * Get the contact point of a collision
+     *
+     * @param pointA
+     * @param axisA
+     * @param sizeA
+     * @param pointB
+     * @param axisB
+     * @param sizeB
+     * @param useA
+     * @return
+     */
+    public Vec getContactPoint(Vec pointA, Vec axisA, float sizeA, Vec pointB, Vec axisB, float sizeB, boolean useA)
+    {
+        calculateContactPoint(pointA.x, pointA.y, pointA.z, axisA.x, axisA.y, axisA.z, sizeA, pointB.x, pointB.y, pointB.z, axisB.x, axisB.y, axisB.z, sizeB, useA);
+        return new Vec(contactX, contactY, contactZ);
+    }
+
+    /**
+     * Find the closest point between two edges, storing it in the contact point fields of the detector
+     * Falls back to the middle of one of the edges if they are parallel or the closest point is off the end of either edge
+     *
+     * @param pointAX
+     * @param pointAY
+     * @param pointAZ
+     * @param axisAX
+     * @param axisAY
+     * @param axisAZ
+     * @param sizeA
+     * @param pointBX
+     * @param pointBY
+     * @param pointBZ
+     * @param axisBX
+     * @param axisBY
+     * @param axisBZ
+     * @param sizeB
+     * @param useA
+     */
+    private void calculateContactPoint(float pointAX, float pointAY, float pointAZ, float axisAX, float axisAY, float axisAZ, float sizeA,
+                                       float pointBX, float pointBY, float pointBZ, float axisBX, float axisBY, float axisBZ, float sizeB, boolean useA)
+    {
+        float dotCenterA, dotCenterB, dotAB, lengthA, lengthB;
+        float denominator, unitA, unitB;
+
+        lengthA = (axisAX * axisAX) + (axisAY * axisAY) + (axisAZ * axisAZ);
+        lengthB = (axisBX * axisBX) + (axisBY * axisBY) + (axisBZ * axisBZ);
+        dotAB = (axisBX * axisAX) + (axisBY * axisAY) + (axisBZ * axisAZ);
+
+        float toCenterX = pointAX - pointBX;
+        float toCenterY = pointAY - pointBY;
+        float toCenterZ = pointAZ - pointBZ;
+        dotCenterA = (axisAX * toCenterX) + (axisAY * toCenterY) + (axisAZ * toCenterZ);
+        dotCenterB = (axisBX * toCenterX) + (axisBY * toCenterY) + (axisBZ * toCenterZ);
+
+        denominator = lengthA * lengthB - dotAB * dotAB;
+
+        if(Math.abs(denominator) < 0.0001d)
+        {
+            setContactPoint(useA, pointAX, pointAY, pointAZ, pointBX, pointBY, pointBZ);
+            return;
+        }
+
+        unitA = (dotAB * dotCenterB - lengthB * dotCenterA) / denominator;
+        unitB = (lengthA * dotCenterB - dotAB * dotCenterA) / denominator;
+
+        if(unitA > sizeA || unitA < -sizeA || unitB > sizeB || unitB < -sizeB)
+        {
+            setContactPoint(useA, pointAX, pointAY, pointAZ, pointBX, pointBY, pointBZ);
+        }
+        else
+        {
+            float contactAX = pointAX + (axisAX * unitA);
+            float contactAY = pointAY + (axisAY * unitA);
+            float contactAZ = pointAZ + (axisAZ * unitA);
+
+            float contactBX = pointBX + (axisBX * unitB);
+            float contactBY = pointBY + (axisBY * unitB);
+            float contactBZ = pointBZ + (axisBZ * unitB);
+
+            contactX = (contactAX * 0.5f) + (contactBX * 0.5f);
+            contactY = (contactAY * 0.5f) + (contactBY * 0.5f);
+            contactZ = (contactAZ * 0.5f) + (contactBZ * 0.5f);
+        }
+    }
+
+    private void setContactPoint(boolean useA, float pointAX, float pointAY, float pointAZ, float pointBX, float pointBY, float pointBZ)
+    {
+        contactX = useA ? pointAX : pointBX;
+        contactY = useA ? pointAY : pointBY;
+        contactZ = useA ? pointAZ : pointBZ;
+    }
+}
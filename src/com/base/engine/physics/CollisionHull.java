@@ -0,0 +1,174 @@
+package com.base.engine.physics;
+
+import com.base.engine.math.Vec;
+
+/**
+ * Convex hull collision primitive, described only by the vertices of the hull in body space
+ * The hull is never built explicitly: collision works from its support mapping, the vertex furthest along a direction,
+ * which is the same for a cloud of points as for the hull around them, so points inside the hull are harmless but cost time
+ * The vertices should be centered on the center of mass of the body
+ *
+ * @author JordanG
+ */
+public class CollisionHull extends CollisionPrimitive
+{
+    protected float[] vertices;
+    protected int vertexCount;
+
+    /**
+     * Initialise a hull in the specified store around vertices packed as x, y, z triples
+     *
+     * @param store
+     * @param vertices
+     */
+    public CollisionHull(BodyStore store, float[] vertices)
+    {
+        if(vertices.length < 3 || vertices.length % 3 != 0)
+        {
+            throw new IllegalArgumentException("Hull vertices must be x, y, z triples: " + vertices.length);
+        }
+        body = new Body(store);
+        this.vertices = vertices.clone();
+        vertexCount = vertices.length / 3;
+    }
+
+    /**
+     * Get the vertices of a box with the specified half sizes, to build hulls that can be checked against CollisionBox
+     *
+     * @param halfSize
+     * @return
+     */
+    public static float[] boxVertices(Vec halfSize)
+    {
+        float[] corners = new float[24];
+        for(int corner = 0; corner < 8; corner++)
+        {
+            corners[corner * 3] = (corner & 1) != 0 ? halfSize.x : -halfSize.x;
+            corners[corner * 3 + 1] = (corner & 2) != 0 ? halfSize.y : -halfSize.y;
+            corners[corner * 3 + 2] = (corner & 4) != 0 ? halfSize.z : -halfSize.z;
+        }
+        return corners;
+    }
+
+    /**
+     * Get the number of vertices of the hull
+     *
+     * @return
+     */
+    public int getVertexCount()
+    {
+        return vertexCount;
+    }
+
+    /**
+     * Get the half sizes of the box around the vertices in body space
+     *
+     * @return
+     */
+    public Vec getLocalHalfSize()
+    {
+        Vec halfSize = new Vec();
+        for(int v = 0; v < vertexCount; v++)
+        {
+            halfSize.x = Math.max(halfSize.x, Math.abs(vertices[v * 3]));
+            halfSize.y = Math.max(halfSize.y, Math.abs(vertices[v * 3 + 1]));
+            halfSize.z = Math.max(halfSize.z, Math.abs(vertices[v * 3 + 2]));
+        }
+        return halfSize;
+    }
+
+    /**
+     * Get the distance from the center of the hull to its furthest vertex
+     *
+     * @return
+     */
+    public float getRadius()
+    {
+        float furthest = 0.0f;
+        for(int v = 0; v < vertexCount; v++)
+        {
+            float x = vertices[v * 3], y = vertices[v * 3 + 1], z = vertices[v * 3 + 2];
+            furthest = Math.max(furthest, (x * x) + (y * y) + (z * z));
+        }
+        return (float)Math.sqrt(furthest);
+    }
+
+    /**
+     * Find the vertex of the hull furthest along a world direction, by turning the direction into body space and checking every vertex
+     *
+     * @param x
+     * @param y
+     * @param z
+     * @param point
+     * @return
+     */
+    @Override
+    public int support(float x, float y, float z, float[] point)
+    {
+        float[] m = transform.data;
+        float localX = (x * m[0]) + (y * m[4]) + (z * m[8]);
+        float localY = (x * m[1]) + (y * m[5]) + (z * m[9]);
+        float localZ = (x * m[2]) + (y * m[6]) + (z * m[10]);
+
+        int best = 0;
+        float bestDistance = -Float.MAX_VALUE;
+        for(int v = 0; v < vertexCount; v++)
+        {
+            float distance = (vertices[v * 3] * localX) + (vertices[v * 3 + 1] * localY) + (vertices[v * 3 + 2] * localZ);
+            if(distance > bestDistance)
+            {
+                bestDistance = distance;
+                best = v;
+            }
+        }
+        getVertex(best, point);
+        return best;
+    }
+
+    /**
+     * Get the world position of a vertex of the hull
+     *
+     * @param index
+     * @param point
+     */
+    @Override
+    public void getVertex(int index, float[] point)
+    {
+        float[] m = transform.data;
+        float x = vertices[index * 3], y = vertices[index * 3 + 1], z = vertices[index * 3 + 2];
+        point[0] = x * m[0] + y * m[1] + z * m[2] + m[3];
+        point[1] = x * m[4] + y * m[5] + z * m[6] + m[7];
+        point[2] = x * m[8] + y * m[9] + z * m[10] + m[11];
+    }
+
+    /**
+     * Calculate the world-space bounding box of the hull from its vertices
+     * A swept hull is bounded by its radius on every axis, stretched back over its move, as a swept box is
+     *
+     * @param box
+     */
+    @Override
+    public void calculateBoundingBox(BoundingBox box)
+    {
+        float[] m = transform.data;
+
+        if(swept)
+        {
+            float radius = getRadius();
+            box.set(m[3], m[7], m[11], radius, radius, radius);
+            box.sweep(-sweepX, -sweepY, -sweepZ);
+            return;
+        }
+
+        float extentX = 0.0f, extentY = 0.0f, extentZ = 0.0f;
+        for(int v = 0; v < vertexCount; v++)
+        {
+            float x = vertices[v * 3], y = vertices[v * 3 + 1], z = vertices[v * 3 + 2];
+            extentX = Math.max(extentX, Math.abs(x * m[0] + y * m[1] + z * m[2]));
+            extentY = Math.max(extentY, Math.abs(x * m[4] + y * m[5] + z * m[6]));
+            extentZ = Math.max(extentZ, Math.abs(x * m[8] + y * m[9] + z * m[10]));
+        }
+
+        box.set(m[3], m[7], m[11], extentX, extentY, extentZ);
+    }
+}
@@ -1,79 +1,215 @@
-package com.base.engine.physics;
-
-import com.base.engine.Sprite;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.FloatBuffer;
-import com.base.engine.math.Matrix4;
-import com.base.engine.math.Vec;
-import org.lwjgl.opengl.GL11;
-import static org.lwjgl.opengl.GL11.glPopMatrix;
-import static org.lwjgl.opengl.GL11.glPushMatrix;
-
-/**
- * Primitive data of a collision object
- * 
- * @author JordanG
- */
-public class CollisionPrimitive
-{	
-    public Body body;
-    public Matrix4 offset;
-    protected Matrix4 transform;
-    
-    public Sprite spr;
-
-    public void calculateInternals()
-    {
-        transform = new Matrix4();
-        transform = body.getTransform();
-    }
-
-    /**
-     * Render the object in 3D
-     */
-    public void render()
-    {  
-        glPushMatrix();
-        {
-            float[] mat = new float[16];
-            body.getTransform().fillGLArray(mat);
-
-            ByteBuffer bb = ByteBuffer.allocateDirect(16 * 4);
-            bb.order(ByteOrder.nativeOrder());
-            FloatBuffer fb = bb.asFloatBuffer();
-            fb.put(mat);
-            fb.position(0);
-
-            GL11.glMultMatrix(fb);
-            spr.render3D();
-        }
-        glPopMatrix();
-    }
-
-    /**
-     * Update the logic of the object for this frame
-     * 
-     * @param duration 
-     */
-    public void update(float duration)
-    {
-        body.integrate(duration);
-        calculateInternals();
-    }
-
-    public Vec getAxis(int index)
-    {
-        return transform.getAxisVector(index);
-    }
-
-    public Matrix4 getTransform()
-    {
-        return transform;
-    }
-
-    public void init(float positionX, float positionY, float red, float blue, float green, float sizeX, float sizeY, float sizeZ)
-    {
-        spr = new Sprite(red, blue, green, sizeX, sizeY, sizeZ);
-    }
-}
+package com.base.engine.physics;
+
+import com.base.engine.Sprite;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import com.base.engine.math.Matrix4;
+import com.base.engine.math.Vec;
+import org.lwjgl.opengl.GL11;
+import static org.lwjgl.opengl.GL11.glPopMatrix;
+import static org.lwjgl.opengl.GL11.glPushMatrix;
+
+/**
+ * Primitive data of a collision object
+ * 
+ * @author JordanG
+ */
+public class CollisionPrimitive
+{	
+    public Body body;
+    public Matrix4 offset;
+    protected Matrix4 transform;
+
+    //how far the body moved over the last step, set while continuous collision detection follows it so its bounds cover the whole move
+    protected float sweepX, sweepY, sweepZ;
+    protected boolean swept;
+
+    //matrix handed to OpenGL, reused by every render
+    private float[] glMatrix;
+    private FloatBuffer glBuffer;
+    
+    public Sprite spr;
+
+    public void calculateInternals()
+    {
+        if(transform == null)
+        {
+            transform = new Matrix4();
+        }
+        body.getTransform(transform);
+    }
+
+    /**
+     * Render the object in 3D
+     */
+    public void render()
+    {  
+        prepareGLMatrix();
+        body.getGLTransform(glMatrix);
+        renderGLMatrix();
+    }
+
+    /**
+     * Render the object in 3D where it was in a snapshot, so it can be drawn while the physics thread moves the body on
+     * Objects whose bodies were added after the snapshot was captured are not drawn until the next one
+     * 
+     * @param snapshot 
+     */
+    public void render(BodySnapshot snapshot)
+    {
+        if(!snapshot.holds(body))
+        {
+            return;
+        }
+        prepareGLMatrix();
+        snapshot.getGLTransform(body, glMatrix);
+        renderGLMatrix();
+    }
+
+    /**
+     * Render the object in 3D part of the way between where it was in two snapshots, so motion stays smooth when frames and steps do not line up
+     * 
+     * @param previous
+     * @param current
+     * @param alpha 0 draws the previous snapshot, 1 draws the current one
+     */
+    public void render(BodySnapshot previous, BodySnapshot current, float alpha)
+    {
+        if(!current.holds(body))
+        {
+            return;
+        }
+        prepareGLMatrix();
+        current.getGLTransform(previous, body, alpha, glMatrix);
+        renderGLMatrix();
+    }
+
+    private void prepareGLMatrix()
+    {
+        if(glMatrix == null)
+        {
+            glMatrix = new float[16];
+            ByteBuffer bb = ByteBuffer.allocateDirect(16 * 4);
+            bb.order(ByteOrder.nativeOrder());
+            glBuffer = bb.asFloatBuffer();
+        }
+    }
+
+    private void renderGLMatrix()
+    {
+        glPushMatrix();
+        {
+            glBuffer.clear();
+            glBuffer.put(glMatrix);
+            glBuffer.position(0);
+
+            GL11.glMultMatrix(glBuffer);
+            spr.render3D();
+        }
+        glPopMatrix();
+    }
+
+    /**
+     * Update the logic of the object for this frame
+     * 
+     * @param duration 
+     */
+    public void update(float duration)
+    {
+        body.integrate(duration);
+        calculateInternals();
+    }
+
+    public Vec getAxis(int index)
+    {
+        return transform.getAxisVector(index);
+    }
+
+    public Matrix4 getTransform()
+    {
+        return transform;
+    }
+
+    /**
+     * Calculate the world-space bounding box of the primitive from its current transform
+     * Primitives without any volume are bounded by the point at their position
+     * 
+     * @param box 
+     */
+    public void calculateBoundingBox(BoundingBox box)
+    {
+        box.set(transform.data[3], transform.data[7], transform.data[11], 0.0f, 0.0f, 0.0f);
+        if(swept)
+        {
+            box.sweep(-sweepX, -sweepY, -sweepZ);
+        }
+    }
+
+    /**
+     * Find the point of the primitive furthest along a world direction, the support mapping GJK and EPA work from
+     * Primitives without any volume only have the point at their position
+     * 
+     * @param x
+     * @param y
+     * @param z
+     * @param point Filled with the world position of the point
+     * @return Index of the vertex at the point, so it can be found again with getVertex after the primitive moves
+     */
+    public int support(float x, float y, float z, float[] point)
+    {
+        getVertex(0, point);
+        return 0;
+    }
+
+    /**
+     * Get the world position of a vertex found by support
+     * 
+     * @param index
+     * @param point 
+     */
+    public void getVertex(int index, float[] point)
+    {
+        point[0] = transform.data[3];
+        point[1] = transform.data[7];
+        point[2] = transform.data[11];
+    }
+
+    /**
+     * Set how far the body moved over the last step, so the bounding box also covers where it started the step
+     * 
+     * @param x
+     * @param y
+     * @param z 
+     */
+    public void setSweep(float x, float y, float z)
+    {
+        sweepX = x;
+        sweepY = y;
+        sweepZ = z;
+        swept = true;
+    }
+
+    /**
+     * Bound the primitive by where it is now only
+     */
+    public void clearSweep()
+    {
+        swept = false;
+    }
+
+    /**
+     * Check if the bounding box of the primitive covers the whole of its last move
+     * 
+     * @return 
+     */
+    public boolean isSwept()
+    {
+        return swept;
+    }
+
+    public void init(float positionX, float positionY, float red, float blue, float green, float sizeX, float sizeY, float sizeZ)
+    {
+        spr = new Sprite(red, blue, green, sizeX, sizeY, sizeZ);
+    }
+}
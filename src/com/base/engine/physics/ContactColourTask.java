@@ -0,0 +1,71 @@
+package com.base.engine.physics;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork-join task solving a range of contacts of one colour, split in half until each task is small enough
+ * Contacts of one colour never share a moving body, so the ranges can be solved at the same time without changing the results
+ * A task keeps the two halves it splits into, so the same tree of tasks is aimed at a new range every sweep instead of being built again
+ *
+ * @author JordanG
+ */
+class ContactColourTask extends RecursiveAction
+{
+    private static final long serialVersionUID = 1L;
+
+    private final SequentialImpulseSolver solver;
+    private final int grain;
+    private int first;
+    private int last;
+    private int pass;
+
+    private ContactColourTask lower;
+    private ContactColourTask upper;
+
+    /**
+     * Initialise a task for the solver's colour order, aimed at a range with setRange before each invoke
+     *
+     * @param solver
+     * @param grain Number of contacts a task solves itself instead of splitting
+     */
+    ContactColourTask(SequentialImpulseSolver solver, int grain)
+    {
+        this.solver = solver;
+        this.grain = grain;
+    }
+
+    /**
+     * Aim the task at the contacts from first up to but not including last in the solver's colour order, ready to be invoked again
+     *
+     * @param first
+     * @param last
+     * @param pass
+     */
+    void setRange(int first, int last, int pass)
+    {
+        this.first = first;
+        this.last = last;
+        this.pass = pass;
+        reinitialize();
+    }
+
+    @Override
+    protected void compute()
+    {
+        if(last - first <= grain)
+        {
+            solver.solveRange(first, last, pass);
+            return;
+        }
+
+        if(lower == null)
+        {
+            lower = new ContactColourTask(solver, grain);
+            upper = new ContactColourTask(solver, grain);
+        }
+        int middle = (first + last) / 2;
+        lower.setRange(first, middle, pass);
+        upper.setRange(middle, last, pass);
+        invokeAll(lower, upper);
+    }
+}
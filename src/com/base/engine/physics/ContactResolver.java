@@ -1,246 +1,407 @@
-package com.base.engine.physics;
-
-import com.base.engine.math.Vec;
-import java.util.ArrayList;
-
-/**
- * Resolves all outstanding collisions
- * 
- * @author JordanG
- */
-public class ContactResolver
-{
-    protected int velocityIterations;
-    protected int positionIterations;
-    protected float velocityEpsilon;
-    protected float positionEpsilon;
-
-    public int velocityIterationsUsed;
-    public int positionIterationsUsed;
-
-    public ContactResolver(int i)
-    {
-        setIterations(i, i);
-    }
-
-    /**
-     * Set the number of iterations the resolver should run for
-     * 
-     * @param velocityIterations
-     * @param positionIterations 
-     */
-    public final void setIterations(int velocityIterations, int positionIterations)
-    {
-        this.velocityIterations = velocityIterations;
-        this.positionIterations = positionIterations;
-        
-        positionEpsilon = 0.01f;
-        velocityEpsilon = 0.01f;
-    }
-
-    /**
-     * Resolve all existing contacts
-     * 
-     * @param contacts
-     * @param duration 
-     */
-    public void resolveContacts(ArrayList<Contact> contacts, float duration)
-    {
-        if (contacts.isEmpty())
-        {
-            return;
-        }
-        if (!isValid())
-        {
-            return;
-        }
-
-        prepareContacts(contacts, duration);
-
-        adjustPositions(contacts);
-        adjustVelocities(contacts, duration);
-    }
-
-    /**
-     * Adjust the resulting velocities of objects involved in collisions
-     * 
-     * @param contacts
-     * @param duration 
-     */
-    private void adjustVelocities(ArrayList<Contact> contacts, float duration) 
-    {
-        Vec[] velocityChange = new Vec[2];
-        Vec[] rotationChange = new Vec[2];
-
-        velocityChange[0] = new Vec();
-        velocityChange[1] = new Vec();
-
-        rotationChange[0] = new Vec();
-        rotationChange[1] = new Vec();
-
-        
-
-        //velocityIterations = contacts.size();
-        velocityIterations = 15;
-        velocityIterationsUsed = 0;
-
-        while(velocityIterationsUsed < velocityIterations)
-        {
-            double max = velocityEpsilon;
-            int index = contacts.size();
-
-            for(int i = 0; i < contacts.size(); i++)
-            {
-                if(contacts.get(i).desiredDeltaVelocity > max)
-                {
-                    max = contacts.get(i).desiredDeltaVelocity;
-                    index = i;
-                }
-            }
-            if(index == contacts.size())
-            {
-                break;
-            }
-
-            contacts.get(index).matchAwakeState();
-            contacts.get(index).applyVelocityChange(velocityChange, rotationChange);
-
-            Vec deltaVel;
-            for(int i = 0; i < contacts.size(); i++)
-            {
-                for(int j = 0; j < 2; j++)
-                {
-                    if(contacts.get(i).body[j] != null)
-                    {
-                        for(int k = 0; k < 2; k++)
-                        {
-                            if(contacts.get(i).body[j] == contacts.get(index).body[k])
-                            {
-                                deltaVel = new Vec(velocityChange[k]);
-                                deltaVel = deltaVel.add(rotationChange[k].crossProd(contacts.get(i).relativeContactPosition[j]));
-
-                                float sign;
-                                if (j == 1)
-                                {
-                                    sign = -1.0f;
-                                }
-                                else
-                                {
-                                    sign = 1.0f;
-                                }
-
-                                Vec temp = new Vec(contacts.get(i).contactToWorld.transformTranspose(deltaVel));
-                                temp = temp.multiply(sign);
-
-                                contacts.get(i).contactVelocity = contacts.get(i).contactVelocity.add(temp);
-                                contacts.get(i).calculateDesiredDeltaVelocity(duration);
-                            }
-                        }
-
-                    }
-                }
-            }
-            velocityIterationsUsed++;
-        }
-    }
-
-
-
-    /**
-     * Adjust the resulting positions of objects involved in collisions
-     * 
-     * @param contacts 
-     */
-    private void adjustPositions(ArrayList<Contact> contacts) 
-    {
-        int index;
-        float max;
-
-        Vec[] linearChange = new Vec[2];
-        Vec[] angularChange = new Vec[2];
-
-        linearChange[0] = new Vec();
-        linearChange[1] = new Vec();
-        angularChange[0] = new Vec();
-        angularChange[1] = new Vec();
-
-        Vec deltaPosition = new Vec();
-
-        positionIterations = 15;
-        positionIterationsUsed = 0;
-
-        while(positionIterationsUsed < positionIterations)
-        {
-            max = positionEpsilon;
-            index = contacts.size();
-
-            for(int i = 0; i < contacts.size(); i++)
-            {
-                if(contacts.get(i).penetration > max)
-                {
-                    max = contacts.get(i).penetration;
-                    index = i;
-                }
-            }
-            if(index >= contacts.size())
-            {
-                break;
-            }
-
-            contacts.get(index).matchAwakeState();
-            contacts.get(index).applyPositionChange(linearChange, angularChange, max);
-
-            for(int i = 0; i < contacts.size(); i++)
-            {
-                for(int b = 0; b < 2; b++)
-                {
-                    if(contacts.get(i).body[b] != null)
-                    {
-                        for(int d = 0; d < 2; d++)
-                        {
-                            if(contacts.get(i).body[b] == contacts.get(index).body[d])
-                            {
-                                deltaPosition = new Vec(linearChange[d]);
-                                deltaPosition = deltaPosition.add(angularChange[d].crossProd(contacts.get(i).relativeContactPosition[b]));
-
-                                if(b == 0)
-                                {
-                                    contacts.get(i).penetration -= deltaPosition.dotProd(contacts.get(i).contactNormal);
-                                }
-                                else
-                                {
-                                    contacts.get(i).penetration += deltaPosition.dotProd(contacts.get(i).contactNormal);
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-            positionIterationsUsed++;
-        }
-    }
-
-    /**
-     * Prepare contacts for collision resolution with some basic value setup
-     * 
-     * @param contacts
-     * @param duration 
-     */
-    private void prepareContacts(ArrayList<Contact> contacts, float duration)
-    {
-        for (int i = 0; i < contacts.size(); i++)
-        {
-            contacts.get(i).calculateInternals(duration);
-        }
-    }
-
-    /**
-     * Check to see if this is a valid collision with outgoing velocity and iterative checks above 0
-     * 
-     * @return 
-     */
-    private boolean isValid()
-    {
-        return (velocityIterations > 0) && (positionIterations > 0) && (positionEpsilon >= 0.0f) && (velocityEpsilon >= 0.0f);
-    }
-}
+package com.base.engine.physics;
+
+import com.base.engine.math.Vec;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Resolves all outstanding collisions
+ * 
+ * @author JordanG
+ */
+public class ContactResolver implements ContactSolver
+{
+    protected int velocityIterations;
+    protected int positionIterations;
+    protected float velocityEpsilon;
+    protected float positionEpsilon;
+
+    public int velocityIterationsUsed;
+    public int positionIterationsUsed;
+
+    private int iterationsPerContact;
+    private ManifoldCache manifoldCache;
+
+    //contacts waiting to be resolved, ordered by how badly they need it
+    private IndexedMaxHeap queue;
+    //contacts of each body, the contacts of body b are bodyContacts[bodyContactStart[b]] up to bodyContactStart[b + 1]
+    private int[] bodyContactStart;
+    private int[] bodyContactFill;
+    private int[] bodyContacts;
+
+    //changes made to the two bodies of the contact just resolved, and the change seen by a contact sharing one of them
+    private Vec[] velocityChange;
+    private Vec[] rotationChange;
+    private Vec[] linearChange;
+    private Vec[] angularChange;
+    private Vec deltaChange;
+
+    public ContactResolver(int i)
+    {
+        setIterations(i, i);
+
+        queue = new IndexedMaxHeap();
+        bodyContactStart = new int[32];
+        bodyContactFill = new int[32];
+        bodyContacts = new int[64];
+
+        velocityChange = new Vec[] {new Vec(), new Vec()};
+        rotationChange = new Vec[] {new Vec(), new Vec()};
+        linearChange = new Vec[] {new Vec(), new Vec()};
+        angularChange = new Vec[] {new Vec(), new Vec()};
+        deltaChange = new Vec();
+    }
+
+    /**
+     * Set the number of iterations the resolver should run for
+     * 
+     * @param velocityIterations
+     * @param positionIterations 
+     */
+    @Override
+    public final void setIterations(int velocityIterations, int positionIterations)
+    {
+        this.velocityIterations = velocityIterations;
+        this.positionIterations = positionIterations;
+        
+        positionEpsilon = 0.01f;
+        velocityEpsilon = 0.01f;
+    }
+
+    /**
+     * Give the resolver a number of iterations for every contact it is handed instead of a fixed count
+     * Setting this to 0 goes back to the count given to setIterations
+     * 
+     * @param iterationsPerContact 
+     */
+    public void setIterationsPerContact(int iterationsPerContact)
+    {
+        this.iterationsPerContact = iterationsPerContact;
+    }
+
+    /**
+     * Set the cache used to carry contact impulses over between frames, or null to start every frame from nothing
+     * 
+     * @param manifoldCache 
+     */
+    @Override
+    public void setManifoldCache(ManifoldCache manifoldCache)
+    {
+        this.manifoldCache = manifoldCache;
+    }
+
+    /**
+     * Get the cache used to carry contact impulses over between frames
+     * 
+     * @return 
+     */
+    @Override
+    public ManifoldCache getManifoldCache()
+    {
+        return manifoldCache;
+    }
+
+    /**
+     * Create another resolver with the same iterations and manifold cache, to resolve separate islands at the same time as this one
+     * 
+     * @return 
+     */
+    @Override
+    public ContactSolver createWorker()
+    {
+        ContactResolver worker = new ContactResolver(1);
+        worker.setIterations(velocityIterations, positionIterations);
+        worker.setIterationsPerContact(iterationsPerContact);
+        worker.setManifoldCache(manifoldCache);
+        return worker;
+    }
+
+    /**
+     * Resolve all existing contacts
+     * 
+     * @param contacts
+     * @param duration 
+     */
+    @Override
+    public void resolveContacts(ArrayList<Contact> contacts, float duration)
+    {
+        if (contacts.isEmpty())
+        {
+            return;
+        }
+        if(iterationsPerContact > 0)
+        {
+            velocityIterations = contacts.size() * iterationsPerContact;
+            positionIterations = velocityIterations;
+        }
+        if (!isValid())
+        {
+            return;
+        }
+
+        prepareContacts(contacts, duration);
+        if(manifoldCache != null)
+        {
+            manifoldCache.warmStartNormal(contacts, duration);                 //contact impulses are never clamped here, so only what each contact needs is carried over
+            prepareContacts(contacts, duration);
+        }
+
+        buildBodyContacts(contacts);
+        adjustPositions(contacts);
+        adjustVelocities(contacts, duration);
+
+        if(manifoldCache != null)
+        {
+            manifoldCache.store(contacts);
+        }
+    }
+
+    /**
+     * Adjust the resulting velocities of objects involved in collisions
+     * 
+     * @param contacts
+     * @param duration 
+     */
+    private void adjustVelocities(ArrayList<Contact> contacts, float duration) 
+    {
+        queue.reset(contacts.size());
+        for(int i = 0; i < contacts.size(); i++)
+        {
+            queue.setKey(i, contacts.get(i).desiredDeltaVelocity);
+        }
+        queue.heapify();
+
+        velocityIterationsUsed = 0;
+
+        while(velocityIterationsUsed < velocityIterations)
+        {
+            int index = queue.peek();
+            if(queue.getKey(index) <= velocityEpsilon)
+            {
+                break;
+            }
+
+            Contact resolved = contacts.get(index);
+            resolved.matchAwakeState();
+            resolved.applyVelocityChange(velocityChange, rotationChange);
+
+            Vec deltaVel = deltaChange;
+            for(int k = 0; k < 2; k++)
+            {
+                Body body = resolved.body[k];
+                if(body == null || body.getInverseMass() <= 0.0f || (isZero(velocityChange[k]) && isZero(rotationChange[k])))
+                {
+                    continue;
+                }
+
+                for(int n = bodyContactStart[body.solverIndex]; n < bodyContactStart[body.solverIndex + 1]; n++)
+                {
+                    int i = bodyContacts[n];
+                    Contact contact = contacts.get(i);
+                    for(int j = 0; j < 2; j++)
+                    {
+                        if(contact.body[j] == body)
+                        {
+                            rotationChange[k].crossInto(contact.relativeContactPosition[j], deltaVel);
+                            deltaVel.set(velocityChange[k].x + deltaVel.x, velocityChange[k].y + deltaVel.y, velocityChange[k].z + deltaVel.z);
+
+                            float sign;
+                            if (j == 1)
+                            {
+                                sign = -1.0f;
+                            }
+                            else
+                            {
+                                sign = 1.0f;
+                            }
+
+                            contact.contactToWorld.transformTransposeInto(deltaVel, deltaVel);
+                            contact.contactVelocity.addLocal(deltaVel.scaleLocal(sign));
+                            contact.calculateDesiredDeltaVelocity(duration);
+                        }
+                    }
+                    queue.update(i, contact.desiredDeltaVelocity);
+                }
+            }
+            velocityIterationsUsed++;
+        }
+    }
+
+    /**
+     * Adjust the resulting positions of objects involved in collisions
+     * 
+     * @param contacts 
+     */
+    private void adjustPositions(ArrayList<Contact> contacts) 
+    {
+        Vec deltaPosition = deltaChange;
+
+        queue.reset(contacts.size());
+        for(int i = 0; i < contacts.size(); i++)
+        {
+            queue.setKey(i, contacts.get(i).penetration);
+        }
+        queue.heapify();
+
+        positionIterationsUsed = 0;
+
+        while(positionIterationsUsed < positionIterations)
+        {
+            int index = queue.peek();
+            float max = queue.getKey(index);
+            if(max <= positionEpsilon)
+            {
+                break;
+            }
+
+            Contact resolved = contacts.get(index);
+            resolved.matchAwakeState();
+            resolved.applyPositionChange(linearChange, angularChange, max);
+
+            for(int d = 0; d < 2; d++)
+            {
+                Body body = resolved.body[d];
+                if(body == null || body.getInverseMass() <= 0.0f || (isZero(linearChange[d]) && isZero(angularChange[d])))
+                {
+                    continue;
+                }
+
+                for(int n = bodyContactStart[body.solverIndex]; n < bodyContactStart[body.solverIndex + 1]; n++)
+                {
+                    int i = bodyContacts[n];
+                    Contact contact = contacts.get(i);
+                    for(int b = 0; b < 2; b++)
+                    {
+                        if(contact.body[b] == body)
+                        {
+                            angularChange[d].crossInto(contact.relativeContactPosition[b], deltaPosition);
+                            deltaPosition.set(linearChange[d].x + deltaPosition.x, linearChange[d].y + deltaPosition.y, linearChange[d].z + deltaPosition.z);
+
+                            if(b == 0)
+                            {
+                                contact.penetration -= deltaPosition.dotProd(contact.contactNormal);
+                            }
+                            else
+                            {
+                                contact.penetration += deltaPosition.dotProd(contact.contactNormal);
+                            }
+                        }
+                    }
+                    queue.update(i, contact.penetration);
+                }
+            }
+            positionIterationsUsed++;
+        }
+    }
+
+    /**
+     * Build the table of which contacts touch each body, so resolving a contact only has to revisit the contacts sharing its bodies
+     * 
+     * @param contacts 
+     */
+    private void buildBodyContacts(ArrayList<Contact> contacts)
+    {
+        for(int i = 0; i < contacts.size(); i++)
+        {
+            for(int j = 0; j < 2; j++)
+            {
+                if(isMovable(contacts.get(i).body[j]))
+                {
+                    contacts.get(i).body[j].solverIndex = -1;
+                }
+            }
+        }
+
+        int bodyCount = 0;
+        for(int i = 0; i < contacts.size(); i++)
+        {
+            for(int j = 0; j < 2; j++)
+            {
+                Body body = contacts.get(i).body[j];
+                if(isMovable(body) && body.solverIndex == -1)
+                {
+                    body.solverIndex = bodyCount++;
+                }
+            }
+        }
+
+        if(bodyCount + 1 > bodyContactStart.length)
+        {
+            bodyContactStart = new int[Math.max(bodyCount + 1, bodyContactStart.length * 2)];
+            bodyContactFill = new int[bodyContactStart.length];
+        }
+        if(contacts.size() * 2 > bodyContacts.length)
+        {
+            bodyContacts = new int[Math.max(contacts.size() * 2, bodyContacts.length * 2)];
+        }
+
+        //count the contacts of each body, then turn the counts into start offsets
+        Arrays.fill(bodyContactStart, 0, bodyCount + 1, 0);
+        for(int i = 0; i < contacts.size(); i++)
+        {
+            for(int j = 0; j < 2; j++)
+            {
+                if(isMovable(contacts.get(i).body[j]))
+                {
+                    bodyContactStart[contacts.get(i).body[j].solverIndex + 1]++;
+                }
+            }
+        }
+        for(int b = 0; b < bodyCount; b++)
+        {
+            bodyContactStart[b + 1] += bodyContactStart[b];
+        }
+
+        System.arraycopy(bodyContactStart, 0, bodyContactFill, 0, bodyCount);
+        for(int i = 0; i < contacts.size(); i++)
+        {
+            for(int j = 0; j < 2; j++)
+            {
+                if(isMovable(contacts.get(i).body[j]))
+                {
+                    bodyContacts[bodyContactFill[contacts.get(i).body[j].solverIndex]++] = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if a body can be moved by contacts, immovable bodies are left out of the per-body tables as they may be shared with islands resolved at the same time
+     * 
+     * @param body
+     * @return 
+     */
+    private static boolean isMovable(Body body)
+    {
+        return body != null && body.getInverseMass() > 0.0f;
+    }
+
+    private static boolean isZero(Vec vector)
+    {
+        return vector.x == 0.0f && vector.y == 0.0f && vector.z == 0.0f;
+    }
+
+    /**
+     * Prepare contacts for collision resolution with some basic value setup
+     * 
+     * @param contacts
+     * @param duration 
+     */
+    private void prepareContacts(ArrayList<Contact> contacts, float duration)
+    {
+        for (int i = 0; i < contacts.size(); i++)
+        {
+            contacts.get(i).calculateInternals(duration);
+        }
+    }
+
+    /**
+     * Check to see if this is a valid collision with outgoing velocity and iterative checks above 0
+     * 
+     * @return 
+     */
+    private boolean isValid()
+    {
+        return (velocityIterations > 0) && (positionIterations > 0) && (positionEpsilon >= 0.0f) && (velocityEpsilon >= 0.0f);
+    }
+}
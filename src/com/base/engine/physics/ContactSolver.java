@@ -0,0 +1,48 @@
+package com.base.engine.physics;
+
+import java.util.ArrayList;
+
+/**
+ * Required functions of all contact solvers, which push colliding bodies apart and stop them moving into each other
+ *
+ * @author JordanG
+ */
+public interface ContactSolver
+{
+    /**
+     * Set the number of iterations the solver should run for
+     *
+     * @param velocityIterations
+     * @param positionIterations
+     */
+    public void setIterations(int velocityIterations, int positionIterations);
+
+    /**
+     * Set the cache used to carry contact impulses over between frames, or null to start every frame from nothing
+     *
+     * @param manifoldCache
+     */
+    public void setManifoldCache(ManifoldCache manifoldCache);
+
+    /**
+     * Get the cache used to carry contact impulses over between frames
+     *
+     * @return
+     */
+    public ManifoldCache getManifoldCache();
+
+    /**
+     * Create another solver with the same settings and manifold cache, to resolve separate islands at the same time as this one
+     *
+     * @return
+     */
+    public ContactSolver createWorker();
+
+    /**
+     * Resolve all contacts found this frame
+     *
+     * @param contacts
+     * @param duration
+     */
+    public void resolveContacts(ArrayList<Contact> contacts, float duration);
+}
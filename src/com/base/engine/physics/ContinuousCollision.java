@@ -0,0 +1,453 @@
+package com.base.engine.physics;
+
+import com.base.engine.math.Quaternion;
+import java.util.ArrayList;
+
+/**
+ * Continuous collision detection for boxes that move further in one step than the discrete narrowphase can follow
+ * The pose of every body is recorded before integration, and boxes that moved more than a fraction of their thinnest half size are swept,
+ * so the broadphase bounds them over the whole move and pairs them with everything they passed
+ * Each swept pair is then advanced conservatively from the start of the step: the boxes are moved forward by no more than their gap over the fastest
+ * any point of them can close it, until they just overlap. A box that would have passed through, or ended the step deep inside, is put back where it
+ * first touched and keeps its velocity, so the contact found there stops it
+ *
+ * @author JordanG
+ */
+public class ContinuousCollision
+{
+    private static final int MAX_ITERATIONS = 32;                               //advancement steps tried for one pair before settling for the last safe time
+    private static final float TOLERANCE = 0.005f;                              //depth short of the target depth that still counts as touching
+
+    private float fastFraction = 0.5f;                                          //fraction of the thinnest half size a box moves in one step before it is swept
+    private float targetDepth = 0.01f;                                          //depth boxes are advanced to, so the narrowphase finds a contact between them
+
+    //pose of every body in the store at the start of the step
+    private float[] startPosition;
+    private float[] startOrientation;
+
+    //earliest time of impact of each swept body this step, from 0 at the start of the step to 1 at the end
+    private float[] impact;
+    private ArrayList<CollisionBox> fast;
+
+    //scratch axes and positions of two boxes at a time between the start and end of the step, laid out as three axes then the position
+    private final float[] oneAxes = new float[12];
+    private final float[] twoAxes = new float[12];
+    private final Quaternion from = new Quaternion();
+    private final Quaternion to = new Quaternion();
+    private final Quaternion between = new Quaternion();
+
+    //largest gap found by the last separation test, and the axis it was found on pointing from the first box to the second
+    private float largestGap;
+    private float normalX, normalY, normalZ;
+
+    //boxes swept, pairs advanced, advancement steps and boxes put back, since the counters were last reset
+    public long sweptBodies;
+    public long sweptPairs;
+    public long iterations;
+    public long clampedBodies;
+
+    /**
+     * Initialise continuous collision detection with boxes swept once they move half their thinnest half size in a step
+     */
+    public ContinuousCollision()
+    {
+        startPosition = new float[96];
+        startOrientation = new float[128];
+        impact = new float[32];
+        fast = new ArrayList<CollisionBox>();
+    }
+
+    /**
+     * Set the fraction of its thinnest half size a box has to move in one step before it is swept
+     *
+     * @param fastFraction
+     */
+    public void setFastFraction(float fastFraction)
+    {
+        this.fastFraction = fastFraction;
+    }
+
+    /**
+     * Set how deep into each other swept boxes are advanced, deep enough for the narrowphase to find a contact but no deeper
+     *
+     * @param targetDepth
+     */
+    public void setTargetDepth(float targetDepth)
+    {
+        this.targetDepth = targetDepth;
+    }
+
+    /**
+     * Record where every body of the store is before it is integrated
+     *
+     * @param store
+     */
+    public void begin(BodyStore store)
+    {
+        int count = store.count;
+        if(impact.length < count)
+        {
+            int capacity = Math.max(count, impact.length * 2);
+            startPosition = new float[capacity * 3];
+            startOrientation = new float[capacity * 4];
+            impact = new float[capacity];
+        }
+        System.arraycopy(store.position, 0, startPosition, 0, count * 3);
+        System.arraycopy(store.orientation, 0, startOrientation, 0, count * 4);
+    }
+
+    /**
+     * Sweep every box that moved far enough this step for the discrete narrowphase to miss what it passed through
+     * Called after integration, before the broadphase is updated
+     *
+     * @param objects
+     */
+    public void sweep(ArrayList<CollisionPrimitive> objects)
+    {
+        fast.clear();
+        for(int i = 0; i < objects.size(); i++)
+        {
+            CollisionPrimitive go = objects.get(i);
+            go.clearSweep();
+            if(!(go instanceof CollisionBox) || !IslandManager.isActive(go.body))
+            {
+                continue;
+            }
+
+            CollisionBox box = (CollisionBox)go;
+            float[] position = box.body.getStore().position;
+            int v = box.body.index * 3;
+            float x = position[v] - startPosition[v];
+            float y = position[v + 1] - startPosition[v + 1];
+            float z = position[v + 2] - startPosition[v + 2];
+
+            float limit = fastFraction * box.getSmallestHalfSize();
+            if((x * x) + (y * y) + (z * z) > limit * limit)
+            {
+                box.setSweep(x, y, z);
+                impact[box.body.index] = 1.0f;
+                fast.add(box);
+            }
+        }
+        sweptBodies += fast.size();
+    }
+
+    /**
+     * Find when each swept box first touches the boxes it was paired with, and put back those that would otherwise pass through or end up deep inside
+     * Called after the broadphase has found the pairs of this step, before the narrowphase
+     *
+     * @param pairs
+     * @param count Number of valid pairs at the start of the list
+     */
+    public void clamp(ArrayList<PotentialContact> pairs, int count)
+    {
+        if(fast.isEmpty())
+        {
+            return;
+        }
+
+        for(int i = 0; i < count; i++)
+        {
+            PotentialContact pair = pairs.get(i);
+            CollisionPrimitive one = pair.primitive[0];
+            CollisionPrimitive two = pair.primitive[1];
+            if(!(one.isSwept() || two.isSwept()) || !(one instanceof CollisionBox) || !(two instanceof CollisionBox))
+            {
+                continue;
+            }
+
+            float time = timeOfImpact((CollisionBox)one, (CollisionBox)two);
+            if(one.isSwept())
+            {
+                impact[one.body.index] = Math.min(impact[one.body.index], time);
+            }
+            if(two.isSwept())
+            {
+                impact[two.body.index] = Math.min(impact[two.body.index], time);
+            }
+        }
+
+        for(int i = 0; i < fast.size(); i++)
+        {
+            CollisionBox box = fast.get(i);
+            float time = impact[box.body.index];
+            if(time < 1.0f)
+            {
+                moveTo(box.body, time);
+                box.calculateInternals();
+                clampedBodies++;
+            }
+        }
+    }
+
+    /**
+     * Reset the counters
+     */
+    public void resetCounters()
+    {
+        sweptBodies = 0;
+        sweptPairs = 0;
+        iterations = 0;
+        clampedBodies = 0;
+    }
+
+    /**
+     * Work out when in the step two boxes first overlap by the target depth, using conservative advancement
+     * Pairs that already touch at the start of the step, or that end it only slightly overlapping, are left to the discrete narrowphase
+     *
+     * @param one
+     * @param two
+     * @return Time from 0 at the start of the step to 1 at the end, 1 if the boxes can be left where they are
+     */
+    private float timeOfImpact(CollisionBox one, CollisionBox two)
+    {
+        float allowed = fastFraction * Math.min(one.getSmallestHalfSize(), two.getSmallestHalfSize());
+        float end = separation(one, two, 1.0f);
+        if(end <= 0.0f && end >= -allowed)
+        {
+            return 1.0f;                                                        //the discrete narrowphase finds this contact as it is
+        }
+
+        float gap = separation(one, two, 0.0f);
+        if(gap <= 0.0f)
+        {
+            return approaching(one.body, two.body) ? 0.0f : 1.0f;               //touching already, so they hit at the start unless they are moving apart
+        }
+
+        //no point of either box moves further over the step than this, so the gap between them cannot close any faster
+        float bound = relativeTravel(one.body, two.body) + turn(one.body) * one.getRadius() + turn(two.body) * two.getRadius();
+        if(bound <= 0.0f)
+        {
+            return 1.0f;
+        }
+
+        sweptPairs++;
+        float target = -targetDepth;
+        float time = 0.0f;
+        for(int iteration = 0; iteration < MAX_ITERATIONS && gap > target + TOLERANCE; iteration++)
+        {
+            time += (gap - target) / bound;
+            if(time >= 1.0f)
+            {
+                return 1.0f;                                                    //passed close by without ever overlapping
+            }
+            gap = separation(one, two, time);
+            iterations++;
+        }
+        return time;
+    }
+
+    /**
+     * Get the largest gap between two boxes along any of their separating axes at a time in the step
+     * The gap is never more than the real distance between them, and is minus their penetration depth when they overlap
+     *
+     * @param one
+     * @param two
+     * @param time
+     * @return
+     */
+    private float separation(CollisionBox one, CollisionBox two, float time)
+    {
+        pose(one.body, time, oneAxes);
+        pose(two.body, time, twoAxes);
+
+        float toCenterX = twoAxes[9] - oneAxes[9];
+        float toCenterY = twoAxes[10] - oneAxes[10];
+        float toCenterZ = twoAxes[11] - oneAxes[11];
+
+        largestGap = -Float.MAX_VALUE;
+        for(int a = 0; a < 3; a++)
+        {
+            tryAxis(one, two, oneAxes[a * 3], oneAxes[a * 3 + 1], oneAxes[a * 3 + 2], toCenterX, toCenterY, toCenterZ);
+            tryAxis(one, two, twoAxes[a * 3], twoAxes[a * 3 + 1], twoAxes[a * 3 + 2], toCenterX, toCenterY, toCenterZ);
+        }
+        for(int a = 0; a < 3; a++)
+        {
+            float ax = oneAxes[a * 3], ay = oneAxes[a * 3 + 1], az = oneAxes[a * 3 + 2];
+            for(int b = 0; b < 3; b++)
+            {
+                float bx = twoAxes[b * 3], by = twoAxes[b * 3 + 1], bz = twoAxes[b * 3 + 2];
+                tryAxis(one, two, (ay * bz) - (az * by), (az * bx) - (ax * bz), (ax * by) - (ay * bx), toCenterX, toCenterY, toCenterZ);
+            }
+        }
+        return largestGap;
+    }
+
+    /**
+     * Work out the gap between the projections of two boxes onto an axis, negative when they overlap on it, and keep it if it is the largest yet
+     *
+     * @param one
+     * @param two
+     * @param x
+     * @param y
+     * @param z
+     * @param toCenterX
+     * @param toCenterY
+     * @param toCenterZ
+     */
+    private void tryAxis(CollisionBox one, CollisionBox two, float x, float y, float z, float toCenterX, float toCenterY, float toCenterZ)
+    {
+        float length = (x * x) + (y * y) + (z * z);
+        if(length <= 0.0001f)
+        {
+            return;                                                             //parallel edges, already covered by the face axes
+        }
+
+        length = 1.0f / (float)Math.sqrt(length);
+        x *= length;
+        y *= length;
+        z *= length;
+
+        float oneProject = one.halfSize.x * Math.abs((x * oneAxes[0]) + (y * oneAxes[1]) + (z * oneAxes[2]))
+                + one.halfSize.y * Math.abs((x * oneAxes[3]) + (y * oneAxes[4]) + (z * oneAxes[5]))
+                + one.halfSize.z * Math.abs((x * oneAxes[6]) + (y * oneAxes[7]) + (z * oneAxes[8]));
+        float twoProject = two.halfSize.x * Math.abs((x * twoAxes[0]) + (y * twoAxes[1]) + (z * twoAxes[2]))
+                + two.halfSize.y * Math.abs((x * twoAxes[3]) + (y * twoAxes[4]) + (z * twoAxes[5]))
+                + two.halfSize.z * Math.abs((x * twoAxes[6]) + (y * twoAxes[7]) + (z * twoAxes[8]));
+
+        float distance = (toCenterX * x) + (toCenterY * y) + (toCenterZ * z);
+        float axisGap = Math.abs(distance) - oneProject - twoProject;
+        if(axisGap > largestGap)
+        {
+            float sign = distance < 0.0f ? -1.0f : 1.0f;
+            largestGap = axisGap;
+            normalX = x * sign;
+            normalY = y * sign;
+            normalZ = z * sign;
+        }
+    }
+
+    /**
+     * Check if two bodies moved further into each other this step along the axis the last separation test found them least overlapped on
+     *
+     * @param one
+     * @param two
+     * @return
+     */
+    private boolean approaching(Body one, Body two)
+    {
+        float[] onePosition = one.getStore().position;
+        float[] twoPosition = two.getStore().position;
+        int a = one.index * 3;
+        int b = two.index * 3;
+        float x = (twoPosition[b] - startPosition[b]) - (onePosition[a] - startPosition[a]);
+        float y = (twoPosition[b + 1] - startPosition[b + 1]) - (onePosition[a + 1] - startPosition[a + 1]);
+        float z = (twoPosition[b + 2] - startPosition[b + 2]) - (onePosition[a + 2] - startPosition[a + 2]);
+        return (x * normalX) + (y * normalY) + (z * normalZ) < 0.0f;
+    }
+
+    /**
+     * Work out the axes and position of a body at a time in the step, moving in a straight line and turning at a steady rate between its start and end poses
+     *
+     * @param body
+     * @param time
+     * @param axes
+     */
+    private void pose(Body body, float time, float[] axes)
+    {
+        interpolate(body, time);
+
+        float r = between.r, i = between.i, j = between.j, k = between.k;
+        axes[0] = 1 - 2 * j * j - 2 * k * k;
+        axes[1] = 2 * i * j + 2 * r * k;
+        axes[2] = 2 * i * k - 2 * r * j;
+        axes[3] = 2 * i * j - 2 * r * k;
+        axes[4] = 1 - 2 * i * i - 2 * k * k;
+        axes[5] = 2 * j * k + 2 * r * i;
+        axes[6] = 2 * i * k + 2 * r * j;
+        axes[7] = 2 * j * k - 2 * r * i;
+        axes[8] = 1 - 2 * i * i - 2 * j * j;
+
+        float[] position = body.getStore().position;
+        int v = body.index * 3;
+        axes[9] = startPosition[v] + (position[v] - startPosition[v]) * time;
+        axes[10] = startPosition[v + 1] + (position[v + 1] - startPosition[v + 1]) * time;
+        axes[11] = startPosition[v + 2] + (position[v + 2] - startPosition[v + 2]) * time;
+    }
+
+    /**
+     * Slerp the orientation of a body from the start of the step to where it is now, leaving the result in the between quaternion
+     *
+     * @param body
+     * @param time
+     */
+    private void interpolate(Body body, float time)
+    {
+        loadOrientations(body);
+        from.slerpInto(to, time, between);
+    }
+
+    /**
+     * Put a body back to where it was at a time in the step, keeping its velocity
+     *
+     * @param body
+     * @param time
+     */
+    private void moveTo(Body body, float time)
+    {
+        BodyStore store = body.getStore();
+        interpolate(body, time);
+        int v = body.index * 3;
+        int q = body.index * 4;
+        for(int axis = 0; axis < 3; axis++)
+        {
+            store.position[v + axis] = startPosition[v + axis] + (store.position[v + axis] - startPosition[v + axis]) * time;
+        }
+        store.orientation[q] = between.r;
+        store.orientation[q + 1] = between.i;
+        store.orientation[q + 2] = between.j;
+        store.orientation[q + 3] = between.k;
+        store.calculateDerivedData(body.index);
+    }
+
+    /**
+     * Get the distance between how far two bodies moved this step
+     *
+     * @param one
+     * @param two
+     * @return
+     */
+    private float relativeTravel(Body one, Body two)
+    {
+        float[] onePosition = one.getStore().position;
+        float[] twoPosition = two.getStore().position;
+        int a = one.index * 3;
+        int b = two.index * 3;
+        float x = (onePosition[a] - startPosition[a]) - (twoPosition[b] - startPosition[b]);
+        float y = (onePosition[a + 1] - startPosition[a + 1]) - (twoPosition[b + 1] - startPosition[b + 1]);
+        float z = (onePosition[a + 2] - startPosition[a + 2]) - (twoPosition[b + 2] - startPosition[b + 2]);
+        return (float)Math.sqrt((x * x) + (y * y) + (z * z));
+    }
+
+    /**
+     * Get the angle in radians a body turned through this step
+     *
+     * @param body
+     * @return
+     */
+    private float turn(Body body)
+    {
+        loadOrientations(body);
+        float cos = Math.abs(from.r * to.r + from.i * to.i + from.j * to.j + from.k * to.k);
+        return 2.0f * (float)Math.acos(Math.min(cos, 1.0f));
+    }
+
+    /**
+     * Load the orientations of a body at the start of the step and now into the from and to quaternions
+     *
+     * @param body
+     */
+    private void loadOrientations(Body body)
+    {
+        float[] orientation = body.getStore().orientation;
+        int q = body.index * 4;
+        from.r = startOrientation[q];
+        from.i = startOrientation[q + 1];
+        from.j = startOrientation[q + 2];
+        from.k = startOrientation[q + 3];
+        to.r = orientation[q];
+        to.i = orientation[q + 1];
+        to.j = orientation[q + 2];
+        to.k = orientation[q + 3];
+    }
+}
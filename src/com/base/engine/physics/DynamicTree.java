@@ -0,0 +1,713 @@
+package com.base.engine.physics;
+
+import com.base.engine.math.Vec;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Dynamic bounding volume tree broadphase
+ * Each primitive is a leaf holding a fattened copy of its bounds, so it is only reinserted once it moves out of that enlarged box
+ * Leaves are placed by a surface area heuristic and the tree is kept balanced with rotations, which suits worlds mixing huge and tiny objects
+ * Nodes live in parallel primitive arrays indexed by node id instead of being an object each
+ *
+ * @author JordanG
+ */
+public class DynamicTree implements Broadphase
+{
+    private static final int NULL = -1;
+
+    private float margin;
+    private BoundingBox bounds;
+
+    //node data, bounds are stored as minX, minY, minZ, maxX, maxY, maxZ
+    private float[] nodeBounds;
+    private int[] parent;
+    private int[] child1;
+    private int[] child2;
+    private int[] height;
+    private CollisionPrimitive[] nodePrimitive;
+    private int nodeCapacity;
+    private int freeNode;
+    private int root;
+
+    //tight bounds of each leaf, only used to filter the fattened overlaps before they reach the narrowphase
+    private float[] leafBounds;
+
+    private ArrayList<CollisionPrimitive> primitives;
+    private int[] primitiveLeaf;
+
+    private int[] moved;
+    private int movedCount;
+    private int[] stack;
+    private PairTable pairs;
+    private float rayNear, rayFar;
+
+    public int reinsertions;
+
+    /**
+     * Initialise an empty tree
+     *
+     * @param margin Distance each leaf's bounds are fattened by on every side
+     */
+    public DynamicTree(float margin)
+    {
+        this.margin = margin;
+        bounds = new BoundingBox();
+
+        nodeCapacity = 16;
+        nodeBounds = new float[nodeCapacity * 6];
+        leafBounds = new float[nodeCapacity * 6];
+        parent = new int[nodeCapacity];
+        child1 = new int[nodeCapacity];
+        child2 = new int[nodeCapacity];
+        height = new int[nodeCapacity];
+        nodePrimitive = new CollisionPrimitive[nodeCapacity];
+        linkFreeNodes(0);
+        root = NULL;
+
+        primitives = new ArrayList<CollisionPrimitive>();
+        primitiveLeaf = new int[16];
+
+        moved = new int[16];
+        stack = new int[64];
+        pairs = new PairTable();
+    }
+
+    /**
+     * Add a primitive as a new leaf
+     *
+     * @param primitive
+     */
+    @Override
+    public void insert(CollisionPrimitive primitive)
+    {
+        int leaf = allocateNode();
+        nodePrimitive[leaf] = primitive;
+        height[leaf] = 0;
+        calculateLeafBounds(leaf);
+        fattenLeaf(leaf);
+        insertLeaf(leaf);
+
+        if(primitives.size() == primitiveLeaf.length)
+        {
+            primitiveLeaf = Arrays.copyOf(primitiveLeaf, primitiveLeaf.length * 2);
+        }
+        primitiveLeaf[primitives.size()] = leaf;
+        primitives.add(primitive);
+
+        markMoved(leaf);
+    }
+
+    /**
+     * Remove a primitive's leaf along with any pairs it was part of
+     *
+     * @param primitive
+     */
+    @Override
+    public void remove(CollisionPrimitive primitive)
+    {
+        int index = primitives.indexOf(primitive);
+        if(index == -1)
+        {
+            return;
+        }
+        int leaf = primitiveLeaf[index];
+
+        int last = primitives.size() - 1;
+        primitives.set(index, primitives.get(last));
+        primitiveLeaf[index] = primitiveLeaf[last];
+        primitives.remove(last);
+
+        for(int slot = pairs.size() - 1; slot >= 0; slot--)
+        {
+            if(pairs.getFirst(slot) == leaf || pairs.getSecond(slot) == leaf)
+            {
+                pairs.remove(pairs.getFirst(slot), pairs.getSecond(slot));
+            }
+        }
+        for(int i = 0; i < movedCount; i++)
+        {
+            if(moved[i] == leaf)
+            {
+                moved[i] = moved[--movedCount];
+                break;
+            }
+        }
+
+        removeLeaf(leaf);
+        freeNode(leaf);
+    }
+
+    /**
+     * Recalculate the bounds of every primitive and reinsert the leaves that escaped their fattened bounds
+     */
+    @Override
+    public void update()
+    {
+        reinsertions = 0;
+
+        for(int i = 0; i < primitives.size(); i++)
+        {
+            int leaf = primitiveLeaf[i];
+            calculateLeafBounds(leaf);
+
+            int b = leaf * 6;
+            if(leafBounds[b] < nodeBounds[b] || leafBounds[b + 1] < nodeBounds[b + 1] || leafBounds[b + 2] < nodeBounds[b + 2]
+                || leafBounds[b + 3] > nodeBounds[b + 3] || leafBounds[b + 4] > nodeBounds[b + 4] || leafBounds[b + 5] > nodeBounds[b + 5])
+            {
+                removeLeaf(leaf);
+                fattenLeaf(leaf);
+                insertLeaf(leaf);
+                markMoved(leaf);
+                reinsertions++;
+            }
+        }
+    }
+
+    /**
+     * Find new pairs for the leaves that moved, drop pairs whose fattened bounds separated, and write out the pairs whose tight bounds overlap
+     *
+     * @param contacts
+     * @return
+     */
+    @Override
+    public int findPotentialContacts(ArrayList<PotentialContact> contacts)
+    {
+        for(int i = 0; i < movedCount; i++)
+        {
+            int leaf = moved[i];
+            int top = push(0, root);
+            while(top > 0)
+            {
+                int node = stack[--top];
+                if(node == leaf || !overlaps(nodeBounds, node, nodeBounds, leaf))
+                {
+                    continue;
+                }
+                if(child1[node] == NULL)
+                {
+                    pairs.add(leaf, node);
+                }
+                else
+                {
+                    top = push(top, child1[node]);
+                    top = push(top, child2[node]);
+                }
+            }
+        }
+        movedCount = 0;
+
+        int count = 0;
+        for(int slot = pairs.size() - 1; slot >= 0; slot--)
+        {
+            int one = pairs.getFirst(slot);
+            int two = pairs.getSecond(slot);
+            if(!overlaps(nodeBounds, one, nodeBounds, two))
+            {
+                pairs.remove(one, two);
+            }
+        }
+        for(int slot = 0; slot < pairs.size(); slot++)
+        {
+            int one = pairs.getFirst(slot);
+            int two = pairs.getSecond(slot);
+            if(overlaps(leafBounds, one, leafBounds, two))
+            {
+                PotentialContact.obtain(contacts, count++).set(nodePrimitive[one], nodePrimitive[two]);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Collect every primitive whose bounds overlap the specified box
+     *
+     * @param box
+     * @param results
+     */
+    public void query(BoundingBox box, ArrayList<CollisionPrimitive> results)
+    {
+        int top = push(0, root);
+        while(top > 0)
+        {
+            int node = stack[--top];
+            float[] data = child1[node] == NULL ? leafBounds : nodeBounds;
+            int b = node * 6;
+            if(data[b] > box.max.x || data[b + 3] < box.min.x || data[b + 1] > box.max.y || data[b + 4] < box.min.y || data[b + 2] > box.max.z || data[b + 5] < box.min.z)
+            {
+                continue;
+            }
+            if(child1[node] == NULL)
+            {
+                results.add(nodePrimitive[node]);
+            }
+            else
+            {
+                top = push(top, child1[node]);
+                top = push(top, child2[node]);
+            }
+        }
+    }
+
+    /**
+     * Collect every primitive whose bounds are crossed by the segment between two points
+     *
+     * @param start
+     * @param end
+     * @param results
+     */
+    public void rayCast(Vec start, Vec end, ArrayList<CollisionPrimitive> results)
+    {
+        float dirX = end.x - start.x;
+        float dirY = end.y - start.y;
+        float dirZ = end.z - start.z;
+
+        int top = push(0, root);
+        while(top > 0)
+        {
+            int node = stack[--top];
+            float[] data = child1[node] == NULL ? leafBounds : nodeBounds;
+            if(!segmentHits(data, node * 6, start, dirX, dirY, dirZ))
+            {
+                continue;
+            }
+            if(child1[node] == NULL)
+            {
+                results.add(nodePrimitive[node]);
+            }
+            else
+            {
+                top = push(top, child1[node]);
+                top = push(top, child2[node]);
+            }
+        }
+    }
+
+    /**
+     * Get the height of the tree, which stays logarithmic in the number of leaves while it is balanced
+     *
+     * @return
+     */
+    public int getHeight()
+    {
+        return root == NULL ? 0 : height[root];
+    }
+
+    /**
+     * Get the number of pairs whose fattened bounds overlap
+     *
+     * @return
+     */
+    public int getPairCount()
+    {
+        return pairs.size();
+    }
+
+    /**
+     * Slab test of a segment against a stored box
+     *
+     * @param data
+     * @param b
+     * @param start
+     * @param dirX
+     * @param dirY
+     * @param dirZ
+     * @return
+     */
+    private boolean segmentHits(float[] data, int b, Vec start, float dirX, float dirY, float dirZ)
+    {
+        rayNear = 0.0f;
+        rayFar = 1.0f;
+        return clipSlab(start.x, dirX, data[b], data[b + 3]) && clipSlab(start.y, dirY, data[b + 1], data[b + 4]) && clipSlab(start.z, dirZ, data[b + 2], data[b + 5]);
+    }
+
+    /**
+     * Narrow the segment interval being tested to the part inside one slab of a box
+     *
+     * @param origin
+     * @param direction
+     * @param min
+     * @param max
+     * @return False if the segment misses the slab
+     */
+    private boolean clipSlab(float origin, float direction, float min, float max)
+    {
+        if(Math.abs(direction) < 1e-8f)
+        {
+            return origin >= min && origin <= max;
+        }
+
+        float inverse = 1.0f / direction;
+        float t1 = (min - origin) * inverse;
+        float t2 = (max - origin) * inverse;
+        rayNear = Math.max(rayNear, Math.min(t1, t2));
+        rayFar = Math.min(rayFar, Math.max(t1, t2));
+        return rayNear <= rayFar;
+    }
+
+    /**
+     * Place a leaf into the tree next to the sibling that increases the total surface area the least
+     *
+     * @param leaf
+     */
+    private void insertLeaf(int leaf)
+    {
+        if(root == NULL)
+        {
+            root = leaf;
+            parent[root] = NULL;
+            return;
+        }
+
+        int index = root;
+        while(child1[index] != NULL)
+        {
+            float area = surfaceArea(index);
+            float combinedArea = combinedSurfaceArea(index, leaf);
+
+            //cost of creating a new parent for this node and the leaf, and the cost of pushing the leaf further down
+            float cost = 2.0f * combinedArea;
+            float inheritanceCost = 2.0f * (combinedArea - area);
+
+            float cost1 = descendCost(child1[index], leaf) + inheritanceCost;
+            float cost2 = descendCost(child2[index], leaf) + inheritanceCost;
+
+            if(cost < cost1 && cost < cost2)
+            {
+                break;
+            }
+            index = cost1 < cost2 ? child1[index] : child2[index];
+        }
+
+        int sibling = index;
+        int oldParent = parent[sibling];
+        int newParent = allocateNode();
+        parent[newParent] = oldParent;
+        nodePrimitive[newParent] = null;
+        combine(newParent, leaf, sibling);
+        height[newParent] = height[sibling] + 1;
+        child1[newParent] = sibling;
+        child2[newParent] = leaf;
+        parent[sibling] = newParent;
+        parent[leaf] = newParent;
+
+        if(oldParent != NULL)
+        {
+            if(child1[oldParent] == sibling)
+            {
+                child1[oldParent] = newParent;
+            }
+            else
+            {
+                child2[oldParent] = newParent;
+            }
+        }
+        else
+        {
+            root = newParent;
+        }
+
+        refit(parent[leaf]);
+    }
+
+    /**
+     * Take a leaf out of the tree, replacing its parent with its sibling
+     *
+     * @param leaf
+     */
+    private void removeLeaf(int leaf)
+    {
+        if(leaf == root)
+        {
+            root = NULL;
+            return;
+        }
+
+        int oldParent = parent[leaf];
+        int grandParent = parent[oldParent];
+        int sibling = child1[oldParent] == leaf ? child2[oldParent] : child1[oldParent];
+
+        if(grandParent != NULL)
+        {
+            if(child1[grandParent] == oldParent)
+            {
+                child1[grandParent] = sibling;
+            }
+            else
+            {
+                child2[grandParent] = sibling;
+            }
+            parent[sibling] = grandParent;
+            freeNode(oldParent);
+            refit(grandParent);
+        }
+        else
+        {
+            root = sibling;
+            parent[sibling] = NULL;
+            freeNode(oldParent);
+        }
+    }
+
+    /**
+     * Walk up from a node rebalancing and recalculating the bounds and heights of each ancestor
+     *
+     * @param index
+     */
+    private void refit(int index)
+    {
+        while(index != NULL)
+        {
+            index = balance(index);
+
+            int one = child1[index];
+            int two = child2[index];
+            height[index] = 1 + Math.max(height[one], height[two]);
+            combine(index, one, two);
+
+            index = parent[index];
+        }
+    }
+
+    /**
+     * Rotate the children of a node if one side of it is more than one level taller than the other
+     *
+     * @param a
+     * @return Node now sitting where the specified node was
+     */
+    private int balance(int a)
+    {
+        if(child1[a] == NULL || height[a] < 2)
+        {
+            return a;
+        }
+
+        int b = child1[a];
+        int c = child2[a];
+        int difference = height[c] - height[b];
+
+        if(difference > 1)
+        {
+            rotateUp(a, c, b, false);
+            return c;
+        }
+        if(difference < -1)
+        {
+            rotateUp(a, b, c, true);
+            return b;
+        }
+        return a;
+    }
+
+    /**
+     * Rotate the taller child of a node up into its place, handing the shorter grandchild down to the old node
+     *
+     * @param a Node being rotated down
+     * @param up Taller child of the node being rotated up
+     * @param other Shorter child of the node that stays with it
+     * @param upIsFirst Whether the taller child is the first child of the node
+     */
+    private void rotateUp(int a, int up, int other, boolean upIsFirst)
+    {
+        int f = child1[up];
+        int g = child2[up];
+
+        child1[up] = a;
+        parent[up] = parent[a];
+        parent[a] = up;
+
+        if(parent[up] != NULL)
+        {
+            if(child1[parent[up]] == a)
+            {
+                child1[parent[up]] = up;
+            }
+            else
+            {
+                child2[parent[up]] = up;
+            }
+        }
+        else
+        {
+            root = up;
+        }
+
+        //keep the taller grandchild with the node moving up and give the shorter one to the node moving down
+        int keep = height[f] > height[g] ? f : g;
+        int give = keep == f ? g : f;
+
+        child2[up] = keep;
+        if(upIsFirst)
+        {
+            child1[a] = give;
+        }
+        else
+        {
+            child2[a] = give;
+        }
+        parent[give] = a;
+
+        combine(a, other, give);
+        combine(up, a, keep);
+        height[a] = 1 + Math.max(height[other], height[give]);
+        height[up] = 1 + Math.max(height[a], height[keep]);
+    }
+
+    /**
+     * Get the cost of pushing a leaf down into the specified child
+     *
+     * @param child
+     * @param leaf
+     * @return
+     */
+    private float descendCost(int child, int leaf)
+    {
+        if(child1[child] == NULL)
+        {
+            return combinedSurfaceArea(child, leaf);
+        }
+        return combinedSurfaceArea(child, leaf) - surfaceArea(child);
+    }
+
+    private float surfaceArea(int node)
+    {
+        int b = node * 6;
+        float x = nodeBounds[b + 3] - nodeBounds[b];
+        float y = nodeBounds[b + 4] - nodeBounds[b + 1];
+        float z = nodeBounds[b + 5] - nodeBounds[b + 2];
+        return 2.0f * (x * y + y * z + z * x);
+    }
+
+    private float combinedSurfaceArea(int one, int two)
+    {
+        int a = one * 6;
+        int b = two * 6;
+        float x = Math.max(nodeBounds[a + 3], nodeBounds[b + 3]) - Math.min(nodeBounds[a], nodeBounds[b]);
+        float y = Math.max(nodeBounds[a + 4], nodeBounds[b + 4]) - Math.min(nodeBounds[a + 1], nodeBounds[b + 1]);
+        float z = Math.max(nodeBounds[a + 5], nodeBounds[b + 5]) - Math.min(nodeBounds[a + 2], nodeBounds[b + 2]);
+        return 2.0f * (x * y + y * z + z * x);
+    }
+
+    /**
+     * Set the bounds of a node to enclose two others
+     *
+     * @param target
+     * @param one
+     * @param two
+     */
+    private void combine(int target, int one, int two)
+    {
+        int t = target * 6;
+        int a = one * 6;
+        int b = two * 6;
+        for(int i = 0; i < 3; i++)
+        {
+            nodeBounds[t + i] = Math.min(nodeBounds[a + i], nodeBounds[b + i]);
+            nodeBounds[t + i + 3] = Math.max(nodeBounds[a + i + 3], nodeBounds[b + i + 3]);
+        }
+    }
+
+    private static boolean overlaps(float[] dataOne, int one, float[] dataTwo, int two)
+    {
+        int a = one * 6;
+        int b = two * 6;
+        return dataOne[a] <= dataTwo[b + 3] && dataOne[a + 3] >= dataTwo[b]
+            && dataOne[a + 1] <= dataTwo[b + 4] && dataOne[a + 4] >= dataTwo[b + 1]
+            && dataOne[a + 2] <= dataTwo[b + 5] && dataOne[a + 5] >= dataTwo[b + 2];
+    }
+
+    private void calculateLeafBounds(int leaf)
+    {
+        nodePrimitive[leaf].calculateBoundingBox(bounds);
+        int b = leaf * 6;
+        leafBounds[b] = bounds.min.x;
+        leafBounds[b + 1] = bounds.min.y;
+        leafBounds[b + 2] = bounds.min.z;
+        leafBounds[b + 3] = bounds.max.x;
+        leafBounds[b + 4] = bounds.max.y;
+        leafBounds[b + 5] = bounds.max.z;
+    }
+
+    private void fattenLeaf(int leaf)
+    {
+        int b = leaf * 6;
+        for(int i = 0; i < 3; i++)
+        {
+            nodeBounds[b + i] = leafBounds[b + i] - margin;
+            nodeBounds[b + i + 3] = leafBounds[b + i + 3] + margin;
+        }
+    }
+
+    private void markMoved(int leaf)
+    {
+        if(movedCount == moved.length)
+        {
+            moved = Arrays.copyOf(moved, moved.length * 2);
+        }
+        moved[movedCount++] = leaf;
+    }
+
+    private int push(int top, int node)
+    {
+        if(node == NULL)
+        {
+            return top;
+        }
+        if(top == stack.length)
+        {
+            stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+        stack[top] = node;
+        return top + 1;
+    }
+
+    private int allocateNode()
+    {
+        if(freeNode == NULL)
+        {
+            int oldCapacity = nodeCapacity;
+            nodeCapacity *= 2;
+            nodeBounds = Arrays.copyOf(nodeBounds, nodeCapacity * 6);
+            leafBounds = Arrays.copyOf(leafBounds, nodeCapacity * 6);
+            parent = Arrays.copyOf(parent, nodeCapacity);
+            child1 = Arrays.copyOf(child1, nodeCapacity);
+            child2 = Arrays.copyOf(child2, nodeCapacity);
+            height = Arrays.copyOf(height, nodeCapacity);
+            nodePrimitive = Arrays.copyOf(nodePrimitive, nodeCapacity);
+            linkFreeNodes(oldCapacity);
+        }
+
+        int node = freeNode;
+        freeNode = parent[node];
+        parent[node] = NULL;
+        child1[node] = NULL;
+        child2[node] = NULL;
+        height[node] = 0;
+        return node;
+    }
+
+    private void freeNode(int node)
+    {
+        nodePrimitive[node] = null;
+        height[node] = -1;
+        parent[node] = freeNode;
+        freeNode = node;
+    }
+
+    /**
+     * Chain the unused nodes from the specified index onwards into the free list, reusing the parent array as the link
+     *
+     * @param start
+     */
+    private void linkFreeNodes(int start)
+    {
+        for(int i = start; i < nodeCapacity - 1; i++)
+        {
+            parent[i] = i + 1;
+            height[i] = -1;
+        }
+        parent[nodeCapacity - 1] = NULL;
+        height[nodeCapacity - 1] = -1;
+        freeNode = start;
+    }
+}
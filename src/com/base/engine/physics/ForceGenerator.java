@@ -1,6 +1,6 @@
-package com.base.engine.physics;
-
-public interface ForceGenerator
-{
-    public void UpdateForce(Body body, float rotation);
-}
+package com.base.engine.physics;
+
+public interface ForceGenerator
+{
+    public void UpdateForce(Body body, float rotation);
+}
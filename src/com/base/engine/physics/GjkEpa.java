@@ -0,0 +1,878 @@
+package com.base.engine.physics;
+
+import com.base.engine.math.Vec;
+
+/**
+ * GJK distance and EPA penetration queries between any two convex primitives, worked out from nothing but their support mappings
+ * GJK walks a simplex of up to four points of the Minkowski difference of the two primitives towards the origin, ending on the closest
+ * points between them or on a tetrahedron around the origin when they overlap. EPA then grows that tetrahedron into a polytope until
+ * the face closest to the origin is on the surface of the difference, giving the direction and depth of the penetration
+ * With a simplex cache each query starts from the vertices the last query of the pair ended on
+ * Like the detector it belongs to, an instance works on scratch arrays and is not safe to share between threads
+ *
+ * @author JordanG
+ */
+public class GjkEpa
+{
+    private static final int MAX_ITERATIONS = 32;
+    private static final int MAX_EPA_ITERATIONS = 64;
+    private static final int MAX_VERTICES = 64;
+    private static final int MAX_FACES = 2 * MAX_VERTICES;                      //a convex polytope has at most 2v - 4 faces
+    private static final float TOUCHING = 1.0e-8f;                              //squared distance treated as touching
+    private static final float CONVERGED = 1.0e-4f;                             //relative improvement below which GJK stops
+    private static final float EPA_TOLERANCE = 1.0e-4f;                         //growth of the closest face below which EPA stops
+    private static final float DEGENERATE = 1.0e-10f;
+
+    //the three points of each face of a tetrahedron followed by the point opposite it
+    private static final int[][] TETRAHEDRON_FACES = {{0, 1, 2, 3}, {0, 2, 3, 1}, {0, 3, 1, 2}, {1, 3, 2, 0}};
+
+    private SimplexCache cache;
+
+    //simplex: points of the difference, the points of each primitive they came from, their vertex indices and barycentric weights
+    private int count;
+    private final float[] wx = new float[4], wy = new float[4], wz = new float[4];
+    private final float[] ax = new float[4], ay = new float[4], az = new float[4];
+    private final float[] bx = new float[4], by = new float[4], bz = new float[4];
+    private final int[] oneIndex = new int[4];
+    private final int[] twoIndex = new int[4];
+    private final float[] lambda = new float[4];
+    private final float[] weights = new float[4];
+    private final float[] onePoint = new float[3];
+    private final float[] twoPoint = new float[3];
+
+    //polytope grown by EPA, faces are triangles of vertex indices wound outwards
+    private int vertexTotal;
+    private final float[] px = new float[MAX_VERTICES], py = new float[MAX_VERTICES], pz = new float[MAX_VERTICES];
+    private final float[] pax = new float[MAX_VERTICES], pay = new float[MAX_VERTICES], paz = new float[MAX_VERTICES];
+    private final float[] pbx = new float[MAX_VERTICES], pby = new float[MAX_VERTICES], pbz = new float[MAX_VERTICES];
+    private int faceTotal;
+    private final int[] face = new int[MAX_FACES * 3];
+    private final float[] faceX = new float[MAX_FACES], faceY = new float[MAX_FACES], faceZ = new float[MAX_FACES];
+    private final float[] faceDistance = new float[MAX_FACES];
+    private final boolean[] faceLive = new boolean[MAX_FACES];
+    private int edgeCount;
+    private final int[] edge = new int[MAX_FACES * 3 * 2];
+
+    //result of the last query
+    private float distance;
+    private float depth;
+    private float normalX, normalY, normalZ;
+    private float oneX, oneY, oneZ;
+    private float twoX, twoY, twoZ;
+
+    //queries run, support points added by GJK and EPA, and EPA queries, for iterations per query
+    public long queries;
+    public long iterations;
+    public long penetrationQueries;
+    public long penetrationIterations;
+
+    /**
+     * Set the cache of simplices each GJK query is started from, or null to start every query from scratch
+     *
+     * @param cache
+     */
+    public void setSimplexCache(SimplexCache cache)
+    {
+        this.cache = cache;
+    }
+
+    /**
+     * Get the cache of simplices each GJK query is started from
+     *
+     * @return
+     */
+    public SimplexCache getSimplexCache()
+    {
+        return cache;
+    }
+
+    /**
+     * Get the average number of support points GJK needed per query since the counters were last reset
+     *
+     * @return
+     */
+    public float getIterationsPerQuery()
+    {
+        return queries == 0 ? 0.0f : (float)iterations / queries;
+    }
+
+    /**
+     * Reset the iteration counters
+     */
+    public void resetCounters()
+    {
+        queries = 0;
+        iterations = 0;
+        penetrationQueries = 0;
+        penetrationIterations = 0;
+    }
+
+    /**
+     * Run GJK between two primitives, finding the distance and closest points between them or that they overlap
+     *
+     * @param one
+     * @param two
+     * @return True if the primitives overlap or touch
+     */
+    public boolean intersect(CollisionPrimitive one, CollisionPrimitive two)
+    {
+        queries++;
+
+        count = cache == null ? 0 : cache.load(one.body, two.body, oneIndex, twoIndex);
+        for(int i = 0; i < count; i++)
+        {
+            one.getVertex(oneIndex[i], onePoint);
+            two.getVertex(twoIndex[i], twoPoint);
+            setVertex(i);
+        }
+        if(count == 0)
+        {
+            float[] m = one.getTransform().data;
+            float[] n = two.getTransform().data;
+            float x = n[3] - m[3], y = n[7] - m[7], z = n[11] - m[11];
+            if((x * x) + (y * y) + (z * z) <= DEGENERATE)
+            {
+                x = 1.0f;
+            }
+            support(one, two, x, y, z, 0);
+            count = 1;
+        }
+
+        boolean overlap = false;
+        float closestX = 0.0f, closestY = 0.0f, closestZ = 0.0f;
+        for(int iteration = 0; ; iteration++)
+        {
+            reduce(solve());
+            if(count == 4)
+            {
+                overlap = true;
+                break;
+            }
+
+            closestX = 0.0f;
+            closestY = 0.0f;
+            closestZ = 0.0f;
+            for(int i = 0; i < count; i++)
+            {
+                closestX += lambda[i] * wx[i];
+                closestY += lambda[i] * wy[i];
+                closestZ += lambda[i] * wz[i];
+            }
+            float squared = (closestX * closestX) + (closestY * closestY) + (closestZ * closestZ);
+            if(squared <= TOUCHING)
+            {
+                overlap = true;
+                break;
+            }
+            if(iteration == MAX_ITERATIONS)
+            {
+                break;
+            }
+
+            iterations++;
+            support(one, two, -closestX, -closestY, -closestZ, count);
+            if(isDuplicate(count))
+            {
+                break;                                                          //nothing closer left to add
+            }
+            float along = (closestX * wx[count]) + (closestY * wy[count]) + (closestZ * wz[count]);
+            if(squared - along <= CONVERGED * squared)
+            {
+                break;
+            }
+            count++;
+        }
+
+        if(cache != null)
+        {
+            cache.store(one.body, two.body, oneIndex, twoIndex, count);
+        }
+
+        distance = overlap ? 0.0f : (float)Math.sqrt((closestX * closestX) + (closestY * closestY) + (closestZ * closestZ));
+        oneX = oneY = oneZ = twoX = twoY = twoZ = 0.0f;
+        for(int i = 0; i < count; i++)
+        {
+            oneX += lambda[i] * ax[i];
+            oneY += lambda[i] * ay[i];
+            oneZ += lambda[i] * az[i];
+            twoX += lambda[i] * bx[i];
+            twoY += lambda[i] * by[i];
+            twoZ += lambda[i] * bz[i];
+        }
+        return overlap;
+    }
+
+    /**
+     * Run EPA from the simplex the last intersect call ended on, finding how deep and in which direction the primitives overlap
+     * Only meaningful after intersect has returned true for the same primitives
+     *
+     * @param one
+     * @param two
+     * @return False if the primitives only touch or are too flat for a penetration direction to be found
+     */
+    public boolean penetrate(CollisionPrimitive one, CollisionPrimitive two)
+    {
+        penetrationQueries++;
+        if(!expandSimplex(one, two))
+        {
+            return false;
+        }
+
+        vertexTotal = 4;
+        for(int i = 0; i < 4; i++)
+        {
+            px[i] = wx[i];
+            py[i] = wy[i];
+            pz[i] = wz[i];
+            pax[i] = ax[i];
+            pay[i] = ay[i];
+            paz[i] = az[i];
+            pbx[i] = bx[i];
+            pby[i] = by[i];
+            pbz[i] = bz[i];
+        }
+
+        faceTotal = 0;
+        if(!addFace(0, 1, 2, 3) || !addFace(0, 3, 1, 2) || !addFace(0, 2, 3, 1) || !addFace(1, 3, 2, 0))
+        {
+            return false;
+        }
+
+        int best = closestFace();
+        for(int iteration = 0; iteration < MAX_EPA_ITERATIONS && vertexTotal < MAX_VERTICES; iteration++)
+        {
+            penetrationIterations++;
+            int added = vertexTotal;
+            one.support(faceX[best], faceY[best], faceZ[best], onePoint);
+            two.support(-faceX[best], -faceY[best], -faceZ[best], twoPoint);
+            px[added] = onePoint[0] - twoPoint[0];
+            py[added] = onePoint[1] - twoPoint[1];
+            pz[added] = onePoint[2] - twoPoint[2];
+            if((faceX[best] * px[added]) + (faceY[best] * py[added]) + (faceZ[best] * pz[added]) - faceDistance[best] <= EPA_TOLERANCE)
+            {
+                break;                                                          //the closest face is on the surface of the difference
+            }
+            pax[added] = onePoint[0];
+            pay[added] = onePoint[1];
+            paz[added] = onePoint[2];
+            pbx[added] = twoPoint[0];
+            pby[added] = twoPoint[1];
+            pbz[added] = twoPoint[2];
+            vertexTotal++;
+
+            //every face the new point can see is removed, leaving a hole bounded by the horizon edges that is filled with faces to the point
+            edgeCount = 0;
+            for(int f = 0; f < faceTotal; f++)
+            {
+                int v = face[f * 3];
+                if((faceX[f] * (px[added] - px[v])) + (faceY[f] * (py[added] - py[v])) + (faceZ[f] * (pz[added] - pz[v])) > 0.0f)
+                {
+                    faceLive[f] = false;
+                    addEdge(face[f * 3], face[f * 3 + 1]);
+                    addEdge(face[f * 3 + 1], face[f * 3 + 2]);
+                    addEdge(face[f * 3 + 2], face[f * 3]);
+                }
+            }
+            compactFaces();
+            for(int e = 0; e < edgeCount; e++)
+            {
+                if(!addFace(edge[e * 2], edge[e * 2 + 1], added, -1))
+                {
+                    return false;
+                }
+            }
+            best = closestFace();
+            if(best == -1)
+            {
+                return false;
+            }
+        }
+
+        depth = faceDistance[best];
+        if(depth <= 0.0f)
+        {
+            return false;
+        }
+        normalX = faceX[best];
+        normalY = faceY[best];
+        normalZ = faceZ[best];
+        witness(best);
+        return true;
+    }
+
+    /**
+     * Get the distance between the primitives of the last intersect call, 0 if they overlapped
+     *
+     * @return
+     */
+    public float getDistance()
+    {
+        return distance;
+    }
+
+    /**
+     * Get the depth of the penetration found by the last penetrate call
+     *
+     * @return
+     */
+    public float getDepth()
+    {
+        return depth;
+    }
+
+    /**
+     * Get the direction of the penetration found by the last penetrate call, the way the second primitive has to move to get out of the first
+     *
+     * @param normal
+     */
+    public void getNormal(Vec normal)
+    {
+        normal.x = normalX;
+        normal.y = normalY;
+        normal.z = normalZ;
+    }
+
+    /**
+     * Get the point of the first primitive closest to the second, or deepest inside it after penetrate
+     *
+     * @param point
+     */
+    public void getPointOne(Vec point)
+    {
+        point.x = oneX;
+        point.y = oneY;
+        point.z = oneZ;
+    }
+
+    /**
+     * Get the point of the second primitive closest to the first, or deepest inside it after penetrate
+     *
+     * @param point
+     */
+    public void getPointTwo(Vec point)
+    {
+        point.x = twoX;
+        point.y = twoY;
+        point.z = twoZ;
+    }
+
+    /**
+     * Add the point of the difference furthest along a direction to the simplex
+     *
+     * @param one
+     * @param two
+     * @param x
+     * @param y
+     * @param z
+     * @param slot
+     */
+    private void support(CollisionPrimitive one, CollisionPrimitive two, float x, float y, float z, int slot)
+    {
+        oneIndex[slot] = one.support(x, y, z, onePoint);
+        twoIndex[slot] = two.support(-x, -y, -z, twoPoint);
+        setVertex(slot);
+    }
+
+    /**
+     * Set a point of the simplex from the points of each primitive in the scratch arrays
+     *
+     * @param slot
+     */
+    private void setVertex(int slot)
+    {
+        ax[slot] = onePoint[0];
+        ay[slot] = onePoint[1];
+        az[slot] = onePoint[2];
+        bx[slot] = twoPoint[0];
+        by[slot] = twoPoint[1];
+        bz[slot] = twoPoint[2];
+        wx[slot] = onePoint[0] - twoPoint[0];
+        wy[slot] = onePoint[1] - twoPoint[1];
+        wz[slot] = onePoint[2] - twoPoint[2];
+    }
+
+    /**
+     * Check if the point in a slot came from the same pair of vertices as a point already in the simplex
+     *
+     * @param slot
+     * @return
+     */
+    private boolean isDuplicate(int slot)
+    {
+        for(int i = 0; i < slot; i++)
+        {
+            if(oneIndex[i] == oneIndex[slot] && twoIndex[i] == twoIndex[slot])
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find the point of the simplex closest to the origin, setting the weights of the points that make it up
+     *
+     * @return Bit mask of the points that make up the closest point, all four if the origin is inside the simplex
+     */
+    private int solve()
+    {
+        weights[0] = weights[1] = weights[2] = weights[3] = 0.0f;
+        int mask;
+        switch(count)
+        {
+            case 1:
+                weights[0] = 1.0f;
+                mask = 1;
+                break;
+            case 2:
+                mask = solveSegment(0, 1);
+                break;
+            case 3:
+                mask = solveTriangle(0, 1, 2);
+                break;
+            default:
+                return solveTetrahedron();
+        }
+        System.arraycopy(weights, 0, lambda, 0, 4);
+        return mask;
+    }
+
+    /**
+     * Find the point of a segment of the simplex closest to the origin
+     *
+     * @param a
+     * @param b
+     * @return
+     */
+    private int solveSegment(int a, int b)
+    {
+        float ex = wx[b] - wx[a], ey = wy[b] - wy[a], ez = wz[b] - wz[a];
+        float t = -((wx[a] * ex) + (wy[a] * ey) + (wz[a] * ez));
+        float length = (ex * ex) + (ey * ey) + (ez * ez);
+        if(t <= 0.0f || length <= DEGENERATE)
+        {
+            weights[a] = 1.0f;
+            return 1 << a;
+        }
+        if(t >= length)
+        {
+            weights[b] = 1.0f;
+            return 1 << b;
+        }
+        t /= length;
+        weights[a] = 1.0f - t;
+        weights[b] = t;
+        return (1 << a) | (1 << b);
+    }
+
+    /**
+     * Find the point of a triangle of the simplex closest to the origin, checking which vertex, edge or face region the origin is in
+     *
+     * @param a
+     * @param b
+     * @param c
+     * @return
+     */
+    private int solveTriangle(int a, int b, int c)
+    {
+        float abx = wx[b] - wx[a], aby = wy[b] - wy[a], abz = wz[b] - wz[a];
+        float acx = wx[c] - wx[a], acy = wy[c] - wy[a], acz = wz[c] - wz[a];
+
+        float d1 = -((abx * wx[a]) + (aby * wy[a]) + (abz * wz[a]));
+        float d2 = -((acx * wx[a]) + (acy * wy[a]) + (acz * wz[a]));
+        if(d1 <= 0.0f && d2 <= 0.0f)
+        {
+            weights[a] = 1.0f;
+            return 1 << a;
+        }
+
+        float d3 = -((abx * wx[b]) + (aby * wy[b]) + (abz * wz[b]));
+        float d4 = -((acx * wx[b]) + (acy * wy[b]) + (acz * wz[b]));
+        if(d3 >= 0.0f && d4 <= d3)
+        {
+            weights[b] = 1.0f;
+            return 1 << b;
+        }
+
+        float vc = (d1 * d4) - (d3 * d2);
+        if(vc <= 0.0f && d1 >= 0.0f && d3 <= 0.0f)
+        {
+            float v = d1 / (d1 - d3);
+            weights[a] = 1.0f - v;
+            weights[b] = v;
+            return (1 << a) | (1 << b);
+        }
+
+        float d5 = -((abx * wx[c]) + (aby * wy[c]) + (abz * wz[c]));
+        float d6 = -((acx * wx[c]) + (acy * wy[c]) + (acz * wz[c]));
+        if(d6 >= 0.0f && d5 <= d6)
+        {
+            weights[c] = 1.0f;
+            return 1 << c;
+        }
+
+        float vb = (d5 * d2) - (d1 * d6);
+        if(vb <= 0.0f && d2 >= 0.0f && d6 <= 0.0f)
+        {
+            float w = d2 / (d2 - d6);
+            weights[a] = 1.0f - w;
+            weights[c] = w;
+            return (1 << a) | (1 << c);
+        }
+
+        float va = (d3 * d6) - (d5 * d4);
+        if(va <= 0.0f && (d4 - d3) >= 0.0f && (d5 - d6) >= 0.0f)
+        {
+            float w = (d4 - d3) / ((d4 - d3) + (d5 - d6));
+            weights[b] = 1.0f - w;
+            weights[c] = w;
+            return (1 << b) | (1 << c);
+        }
+
+        float sum = va + vb + vc;
+        if(sum <= DEGENERATE)
+        {
+            weights[a] = 1.0f;                                                  //a flat triangle, start again from one point of it
+            return 1 << a;
+        }
+        float v = vb / sum;
+        float w = vc / sum;
+        weights[a] = 1.0f - v - w;
+        weights[b] = v;
+        weights[c] = w;
+        return (1 << a) | (1 << b) | (1 << c);
+    }
+
+    /**
+     * Find the point of the tetrahedron closest to the origin from the closest of the faces the origin is outside of
+     *
+     * @return All four points if the origin is inside
+     */
+    private int solveTetrahedron()
+    {
+        int bestMask = 15;
+        float bestDistance = Float.MAX_VALUE;
+        for(int f = 0; f < 4; f++)
+        {
+            int a = TETRAHEDRON_FACES[f][0], b = TETRAHEDRON_FACES[f][1], c = TETRAHEDRON_FACES[f][2], d = TETRAHEDRON_FACES[f][3];
+            if(!isOutside(a, b, c, d))
+            {
+                continue;
+            }
+
+            weights[0] = weights[1] = weights[2] = weights[3] = 0.0f;
+            int mask = solveTriangle(a, b, c);
+            float x = 0.0f, y = 0.0f, z = 0.0f;
+            for(int i = 0; i < 4; i++)
+            {
+                x += weights[i] * wx[i];
+                y += weights[i] * wy[i];
+                z += weights[i] * wz[i];
+            }
+            float squared = (x * x) + (y * y) + (z * z);
+            if(squared < bestDistance)
+            {
+                bestDistance = squared;
+                bestMask = mask;
+                System.arraycopy(weights, 0, lambda, 0, 4);
+            }
+        }
+        return bestMask;
+    }
+
+    /**
+     * Check if the origin is on the other side of a face of the tetrahedron from its opposite point
+     * Faces of a flat tetrahedron count as outside so the origin is never found inside one
+     *
+     * @param a
+     * @param b
+     * @param c
+     * @param opposite
+     * @return
+     */
+    private boolean isOutside(int a, int b, int c, int opposite)
+    {
+        float abx = wx[b] - wx[a], aby = wy[b] - wy[a], abz = wz[b] - wz[a];
+        float acx = wx[c] - wx[a], acy = wy[c] - wy[a], acz = wz[c] - wz[a];
+        float nx = (aby * acz) - (abz * acy);
+        float ny = (abz * acx) - (abx * acz);
+        float nz = (abx * acy) - (aby * acx);
+
+        float origin = -((wx[a] * nx) + (wy[a] * ny) + (wz[a] * nz));
+        float other = ((wx[opposite] - wx[a]) * nx) + ((wy[opposite] - wy[a]) * ny) + ((wz[opposite] - wz[a]) * nz);
+        return origin * other <= 0.0f;
+    }
+
+    /**
+     * Drop the points of the simplex not in the mask, moving the rest down to the start of the arrays
+     *
+     * @param mask
+     */
+    private void reduce(int mask)
+    {
+        int kept = 0;
+        for(int i = 0; i < count; i++)
+        {
+            if((mask & (1 << i)) == 0)
+            {
+                continue;
+            }
+            wx[kept] = wx[i];
+            wy[kept] = wy[i];
+            wz[kept] = wz[i];
+            ax[kept] = ax[i];
+            ay[kept] = ay[i];
+            az[kept] = az[i];
+            bx[kept] = bx[i];
+            by[kept] = by[i];
+            bz[kept] = bz[i];
+            oneIndex[kept] = oneIndex[i];
+            twoIndex[kept] = twoIndex[i];
+            lambda[kept] = lambda[i];
+            kept++;
+        }
+        count = kept;
+    }
+
+    /**
+     * Grow the simplex GJK ended on into a tetrahedron, which it is not when the primitives only just touch
+     * Points are added along directions away from the simplex until one leaves the line or plane of the points already there
+     *
+     * @param one
+     * @param two
+     * @return False if no direction gives a new point, the primitives are flat
+     */
+    private boolean expandSimplex(CollisionPrimitive one, CollisionPrimitive two)
+    {
+        while(count < 4)
+        {
+            boolean added = false;
+            for(int candidate = 0; candidate < 6 && !added; candidate++)
+            {
+                float x = 0.0f, y = 0.0f, z = 0.0f;
+                float sign = candidate % 2 == 0 ? 1.0f : -1.0f;
+                int axis = candidate / 2;
+                if(count == 1)
+                {
+                    x = axis == 0 ? sign : 0.0f;
+                    y = axis == 1 ? sign : 0.0f;
+                    z = axis == 2 ? sign : 0.0f;
+                }
+                else if(count == 2)
+                {
+                    //perpendicular to the segment, crossed with each world axis in turn
+                    float ex = wx[1] - wx[0], ey = wy[1] - wy[0], ez = wz[1] - wz[0];
+                    x = sign * (axis == 0 ? 0.0f : axis == 1 ? -ez : ey);
+                    y = sign * (axis == 0 ? ez : axis == 1 ? 0.0f : -ex);
+                    z = sign * (axis == 0 ? -ey : axis == 1 ? ex : 0.0f);
+                }
+                else if(candidate < 2)
+                {
+                    float abx = wx[1] - wx[0], aby = wy[1] - wy[0], abz = wz[1] - wz[0];
+                    float acx = wx[2] - wx[0], acy = wy[2] - wy[0], acz = wz[2] - wz[0];
+                    x = sign * ((aby * acz) - (abz * acy));
+                    y = sign * ((abz * acx) - (abx * acz));
+                    z = sign * ((abx * acy) - (aby * acx));
+                }
+                if((x * x) + (y * y) + (z * z) <= DEGENERATE)
+                {
+                    continue;
+                }
+
+                support(one, two, x, y, z, count);
+                if(leavesSimplex(count))
+                {
+                    count++;
+                    added = true;
+                }
+            }
+            if(!added)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check if the point in a slot is off the point, line or plane of the points before it
+     *
+     * @param slot
+     * @return
+     */
+    private boolean leavesSimplex(int slot)
+    {
+        float dx = wx[slot] - wx[0], dy = wy[slot] - wy[0], dz = wz[slot] - wz[0];
+        if(slot == 1)
+        {
+            return (dx * dx) + (dy * dy) + (dz * dz) > DEGENERATE;
+        }
+
+        float ex = wx[1] - wx[0], ey = wy[1] - wy[0], ez = wz[1] - wz[0];
+        float nx = (ey * dz) - (ez * dy);
+        float ny = (ez * dx) - (ex * dz);
+        float nz = (ex * dy) - (ey * dx);
+        if(slot == 2)
+        {
+            return (nx * nx) + (ny * ny) + (nz * nz) > DEGENERATE;
+        }
+
+        float fx = wx[2] - wx[0], fy = wy[2] - wy[0], fz = wz[2] - wz[0];
+        nx = (ey * fz) - (ez * fy);
+        ny = (ez * fx) - (ex * fz);
+        nz = (ex * fy) - (ey * fx);
+        float volume = (nx * dx) + (ny * dy) + (nz * dz);
+        return volume * volume > DEGENERATE;
+    }
+
+    /**
+     * Add a face of the polytope, wound so its normal points away from the opposite point, or kept as wound if there is none
+     *
+     * @param a
+     * @param b
+     * @param c
+     * @param opposite
+     * @return False if the face has no area or there is no room for it
+     */
+    private boolean addFace(int a, int b, int c, int opposite)
+    {
+        if(faceTotal == MAX_FACES)
+        {
+            return false;
+        }
+
+        float abx = px[b] - px[a], aby = py[b] - py[a], abz = pz[b] - pz[a];
+        float acx = px[c] - px[a], acy = py[c] - py[a], acz = pz[c] - pz[a];
+        float nx = (aby * acz) - (abz * acy);
+        float ny = (abz * acx) - (abx * acz);
+        float nz = (abx * acy) - (aby * acx);
+        float length = (nx * nx) + (ny * ny) + (nz * nz);
+        if(length <= DEGENERATE * DEGENERATE)
+        {
+            return false;
+        }
+
+        if(opposite != -1 && (nx * (px[opposite] - px[a])) + (ny * (py[opposite] - py[a])) + (nz * (pz[opposite] - pz[a])) > 0.0f)
+        {
+            int temp = b;
+            b = c;
+            c = temp;
+            nx = -nx;
+            ny = -ny;
+            nz = -nz;
+        }
+
+        length = 1.0f / (float)Math.sqrt(length);
+        int f = faceTotal++;
+        face[f * 3] = a;
+        face[f * 3 + 1] = b;
+        face[f * 3 + 2] = c;
+        faceX[f] = nx * length;
+        faceY[f] = ny * length;
+        faceZ[f] = nz * length;
+        faceDistance[f] = (faceX[f] * px[a]) + (faceY[f] * py[a]) + (faceZ[f] * pz[a]);
+        faceLive[f] = true;
+        return true;
+    }
+
+    /**
+     * Add an edge of a removed face to the horizon, or drop it if the face on its other side was removed too
+     *
+     * @param a
+     * @param b
+     */
+    private void addEdge(int a, int b)
+    {
+        for(int e = 0; e < edgeCount; e++)
+        {
+            if(edge[e * 2] == b && edge[e * 2 + 1] == a)
+            {
+                edgeCount--;
+                edge[e * 2] = edge[edgeCount * 2];
+                edge[e * 2 + 1] = edge[edgeCount * 2 + 1];
+                return;
+            }
+        }
+        edge[edgeCount * 2] = a;
+        edge[edgeCount * 2 + 1] = b;
+        edgeCount++;
+    }
+
+    /**
+     * Move the live faces down over the removed ones
+     */
+    private void compactFaces()
+    {
+        int kept = 0;
+        for(int f = 0; f < faceTotal; f++)
+        {
+            if(!faceLive[f])
+            {
+                continue;
+            }
+            face[kept * 3] = face[f * 3];
+            face[kept * 3 + 1] = face[f * 3 + 1];
+            face[kept * 3 + 2] = face[f * 3 + 2];
+            faceX[kept] = faceX[f];
+            faceY[kept] = faceY[f];
+            faceZ[kept] = faceZ[f];
+            faceDistance[kept] = faceDistance[f];
+            faceLive[kept] = true;
+            kept++;
+        }
+        faceTotal = kept;
+    }
+
+    /**
+     * Find the face of the polytope closest to the origin
+     *
+     * @return Index of the face, -1 if there are none
+     */
+    private int closestFace()
+    {
+        int best = -1;
+        for(int f = 0; f < faceTotal; f++)
+        {
+            if(best == -1 || faceDistance[f] < faceDistance[best])
+            {
+                best = f;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Work out the points of each primitive at the penetration from where the origin projects onto the closest face
+     *
+     * @param best
+     */
+    private void witness(int best)
+    {
+        int a = face[best * 3], b = face[best * 3 + 1], c = face[best * 3 + 2];
+        float qx = normalX * depth - px[a], qy = normalY * depth - py[a], qz = normalZ * depth - pz[a];
+        float abx = px[b] - px[a], aby = py[b] - py[a], abz = pz[b] - pz[a];
+        float acx = px[c] - px[a], acy = py[c] - py[a], acz = pz[c] - pz[a];
+
+        float d00 = (abx * abx) + (aby * aby) + (abz * abz);
+        float d01 = (abx * acx) + (aby * acy) + (abz * acz);
+        float d11 = (acx * acx) + (acy * acy) + (acz * acz);
+        float d20 = (qx * abx) + (qy * aby) + (qz * abz);
+        float d21 = (qx * acx) + (qy * acy) + (qz * acz);
+        float denominator = (d00 * d11) - (d01 * d01);
+
+        float v = 0.0f, w = 0.0f;
+        if(denominator > DEGENERATE)
+        {
+            v = ((d11 * d20) - (d01 * d21)) / denominator;
+            w = ((d00 * d21) - (d01 * d20)) / denominator;
+        }
+        float u = 1.0f - v - w;
+
+        oneX = u * pax[a] + v * pax[b] + w * pax[c];
+        oneY = u * pay[a] + v * pay[b] + w * pay[c];
+        oneZ = u * paz[a] + v * paz[b] + w * paz[c];
+        twoX = u * pbx[a] + v * pbx[b] + w * pbx[c];
+        twoY = u * pby[a] + v * pby[b] + w * pby[c];
+        twoZ = u * pbz[a] + v * pbz[b] + w * pbz[c];
+    }
+}
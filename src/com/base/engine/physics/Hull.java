@@ -0,0 +1,61 @@
+package com.base.engine.physics;
+
+import com.base.engine.math.Matrix3;
+import com.base.engine.math.Quaternion;
+import com.base.engine.math.Vec;
+
+/**
+ * Basic 3D convex hull object, drawn as the box around its vertices
+ *
+ * @author JordanG
+ */
+public class Hull extends CollisionHull
+{
+    /**
+     * Initialise a hull whose body is kept in the specified store
+     *
+     * @param store
+     * @param vertices Vertices of the hull in body space packed as x, y, z triples
+     */
+    public Hull(BodyStore store, float[] vertices)
+    {
+        super(store, vertices);
+    }
+
+    /**
+     * Initialise the hull with the basic physics data needed for a body
+     * Mass and inertia are those of the box around the vertices, exact for box hulls and close enough for rounder ones
+     *
+     * @param position
+     * @param orientation
+     * @param acceleration
+     * @param density
+     */
+    public void setState(Vec position, Quaternion orientation, Vec acceleration, float density)
+    {
+        body.setPosition(position);
+        body.setOrientation(orientation);
+        body.setRotation(new Vec());
+        body.setAcceleration(acceleration);
+
+        Vec halfSize = getLocalHalfSize();
+        float mass = halfSize.x * halfSize.y * halfSize.z * density;
+        body.setMass(mass);
+
+        Matrix3 tensor = new Matrix3();
+        tensor.setBlockInertiaTensor(halfSize, mass);
+        body.setInertiaTensor(tensor);
+
+        body.setLinearDamping(0.95f);
+        body.setAngularDamping(0.8f);
+        body.clearAccumulators();
+
+        body.setCanSleep(true);
+        body.setAwake(true);
+
+        body.calculateDerivedData();
+        calculateInternals();
+
+        init(position.x, position.y, 1f, 0.25f, 0.1f, halfSize.x * 2, halfSize.y * 2, halfSize.z * 2);
+    }
+}
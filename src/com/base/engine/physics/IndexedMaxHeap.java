@@ -0,0 +1,171 @@
+package com.base.engine.physics;
+
+import java.util.Arrays;
+
+/**
+ * Binary max-heap of the items 0 to size - 1, ordered by a float key per item
+ * Each item knows its own place in the heap so its key can be changed and the heap repaired in logarithmic time
+ *
+ * @author JordanG
+ */
+public class IndexedMaxHeap
+{
+    private int[] heap;
+    private int[] position;
+    private float[] keys;
+    private int size;
+
+    /**
+     * Initialise an empty heap
+     */
+    public IndexedMaxHeap()
+    {
+        heap = new int[32];
+        position = new int[32];
+        keys = new float[32];
+    }
+
+    /**
+     * Empty the heap and fill it with the items 0 to count - 1, all with a key of 0
+     * Set the real keys with setKey and then call heapify before using the heap
+     *
+     * @param count
+     */
+    public void reset(int count)
+    {
+        if(count > heap.length)
+        {
+            int capacity = Math.max(count, heap.length * 2);
+            heap = new int[capacity];
+            position = new int[capacity];
+            keys = new float[capacity];
+        }
+
+        for(int i = 0; i < count; i++)
+        {
+            heap[i] = i;
+            position[i] = i;
+        }
+        Arrays.fill(keys, 0, count, 0.0f);
+        size = count;
+    }
+
+    /**
+     * Set the key of an item without repairing the heap, used to fill it before heapify
+     *
+     * @param item
+     * @param key
+     */
+    public void setKey(int item, float key)
+    {
+        keys[item] = key;
+    }
+
+    /**
+     * Put every item into heap order
+     */
+    public void heapify()
+    {
+        for(int i = size / 2 - 1; i >= 0; i--)
+        {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Change the key of an item and move it to its new place in the heap
+     *
+     * @param item
+     * @param key
+     */
+    public void update(int item, float key)
+    {
+        float old = keys[item];
+        keys[item] = key;
+        if(key > old)
+        {
+            siftUp(position[item]);
+        }
+        else if(key < old)
+        {
+            siftDown(position[item]);
+        }
+    }
+
+    /**
+     * Get the item with the largest key
+     *
+     * @return
+     */
+    public int peek()
+    {
+        return heap[0];
+    }
+
+    /**
+     * Get the key of an item
+     *
+     * @param item
+     * @return
+     */
+    public float getKey(int item)
+    {
+        return keys[item];
+    }
+
+    /**
+     * Get the number of items in the heap
+     *
+     * @return
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    private void siftUp(int index)
+    {
+        int item = heap[index];
+        float key = keys[item];
+        while(index > 0)
+        {
+            int parent = (index - 1) / 2;
+            if(keys[heap[parent]] >= key)
+            {
+                break;
+            }
+            heap[index] = heap[parent];
+            position[heap[index]] = index;
+            index = parent;
+        }
+        heap[index] = item;
+        position[item] = index;
+    }
+
+    private void siftDown(int index)
+    {
+        int item = heap[index];
+        float key = keys[item];
+        while(true)
+        {
+            int child = index * 2 + 1;
+            if(child >= size)
+            {
+                break;
+            }
+            if(child + 1 < size && keys[heap[child + 1]] > keys[heap[child]])
+            {
+                child++;
+            }
+            if(keys[heap[child]] <= key)
+            {
+                break;
+            }
+            heap[index] = heap[child];
+            position[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = item;
+        position[item] = index;
+    }
+}
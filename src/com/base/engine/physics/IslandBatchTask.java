@@ -0,0 +1,67 @@
+package com.base.engine.physics;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork-join task resolving a range of island batches, split in half until each task holds a single batch
+ * A task keeps the two halves it splits into, so the same tree of tasks is aimed at the batches of each step instead of being built again
+ *
+ * @author JordanG
+ */
+class IslandBatchTask extends RecursiveAction
+{
+    private static final long serialVersionUID = 1L;
+
+    private final IslandManager islands;
+    private int first;
+    private int last;
+    private float duration;
+
+    private IslandBatchTask lower;
+    private IslandBatchTask upper;
+
+    /**
+     * Initialise a task for the batches of the islands, aimed at a range with setRange before each invoke
+     *
+     * @param islands
+     */
+    IslandBatchTask(IslandManager islands)
+    {
+        this.islands = islands;
+    }
+
+    /**
+     * Aim the task at the batches from first up to but not including last, ready to be invoked again
+     *
+     * @param first
+     * @param last
+     * @param duration
+     */
+    void setRange(int first, int last, float duration)
+    {
+        this.first = first;
+        this.last = last;
+        this.duration = duration;
+        reinitialize();
+    }
+
+    @Override
+    protected void compute()
+    {
+        if(last - first == 1)
+        {
+            islands.solveBatch(first, duration);
+            return;
+        }
+
+        if(lower == null)
+        {
+            lower = new IslandBatchTask(islands);
+            upper = new IslandBatchTask(islands);
+        }
+        int middle = (first + last) / 2;
+        lower.setRange(first, middle, duration);
+        upper.setRange(middle, last, duration);
+        invokeAll(lower, upper);
+    }
+}
@@ -0,0 +1,408 @@
+package com.base.engine.physics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Splits the bodies into islands of bodies that touch each other, directly or through other bodies, using union-find over this step's contacts
+ * Bodies that cannot move never join islands together, so everything resting on the same floor does not become one island
+ * Each island is solved on its own and sleeps or wakes as a whole, and sleeping islands are left out of resolution entirely
+ * Islands only grow through contacts found this step, so waking spreads through a sleeping pile one layer per step
+ * Given a fork-join pool, islands are resolved in parallel, in batches that depend only on the islands and never on the number of threads, so the results are the same with any pool
+ *
+ * @author JordanG
+ */
+public class IslandManager
+{
+    private Body[] bodies;
+    private int bodyCount;
+    private int[] parent;
+    private int[] size;
+
+    private int[] rootIsland;
+    private boolean[] islandAwake;
+    private boolean[] islandReady;
+    private ArrayList<ArrayList<Contact>> islandContacts;
+    private int islandCount;
+
+    private ForkJoinPool pool;
+    private int batchContacts;
+    //islands of each batch, batch b holds islands batchStart[b] up to batchStart[b + 1]
+    private int[] batchStart;
+    private int batchCount;
+    private ArrayList<ContactSolver> workers;
+    private ContactSolver workerSource;
+    private IslandBatchTask batchTask;
+
+    public int awakeIslands;
+    public int sleepingIslands;
+    public int contactsSkipped;
+    public int largestIsland;                                                   //contacts in the largest awake island, to see whether it is big enough to be coloured
+
+    /**
+     * Initialise an empty set of islands
+     */
+    public IslandManager()
+    {
+        bodies = new Body[32];
+        parent = new int[32];
+        size = new int[32];
+        rootIsland = new int[32];
+        islandAwake = new boolean[32];
+        islandReady = new boolean[32];
+        islandContacts = new ArrayList<ArrayList<Contact>>();
+
+        batchContacts = 64;
+        batchStart = new int[33];
+        workers = new ArrayList<ContactSolver>();
+        batchTask = new IslandBatchTask(this);
+    }
+
+    /**
+     * Set the pool islands are resolved on in parallel, or null to resolve them one after another on the calling thread
+     *
+     * @param pool
+     */
+    public void setPool(ForkJoinPool pool)
+    {
+        this.pool = pool;
+    }
+
+    /**
+     * Get the pool islands are resolved on in parallel
+     *
+     * @return
+     */
+    public ForkJoinPool getPool()
+    {
+        return pool;
+    }
+
+    /**
+     * Set the number of contacts small islands are merged up to before they are handed out as one task
+     *
+     * @param batchContacts
+     */
+    public void setBatchContacts(int batchContacts)
+    {
+        this.batchContacts = batchContacts;
+    }
+
+    /**
+     * Drop the solvers used for parallel batches, so new ones are made from the solver with its current settings
+     */
+    public void clearWorkers()
+    {
+        workers.clear();
+        workerSource = null;
+    }
+
+    /**
+     * Check if a body can take part in collision detection and resolution this step
+     * Pairs where neither body is active are resting against each other and can be skipped
+     *
+     * @param body
+     * @return
+     */
+    public static boolean isActive(Body body)
+    {
+        return body != null && body.getAwake() && body.getInverseMass() > 0.0f;
+    }
+
+    /**
+     * Group the bodies of the primitives into islands through the contacts found this step
+     * Islands with an awake body are woken entirely, awake islands where every body has settled are put to sleep, and each contact is handed to its island
+     *
+     * @param primitives
+     * @param contacts
+     */
+    public void build(ArrayList<CollisionPrimitive> primitives, ArrayList<Contact> contacts)
+    {
+        if(primitives.size() > bodies.length)
+        {
+            allocateBodies(Math.max(primitives.size(), bodies.length * 2));
+        }
+
+        bodyCount = 0;
+        for(int i = 0; i < primitives.size(); i++)
+        {
+            Body body = primitives.get(i).body;
+            if(body.getInverseMass() <= 0.0f)
+            {
+                body.islandIndex = -1;
+                continue;
+            }
+            body.islandIndex = bodyCount;
+            bodies[bodyCount] = body;
+            parent[bodyCount] = bodyCount;
+            size[bodyCount] = 1;
+            bodyCount++;
+        }
+
+        for(int i = 0; i < contacts.size(); i++)
+        {
+            Contact contact = contacts.get(i);
+            if(contact.body[0] != null && contact.body[1] != null && contact.body[0].islandIndex != -1 && contact.body[1].islandIndex != -1)
+            {
+                union(contact.body[0].islandIndex, contact.body[1].islandIndex);
+            }
+        }
+
+        //number the islands and find out which have an awake body in them
+        islandCount = 0;
+        Arrays.fill(rootIsland, 0, bodyCount, -1);
+        for(int i = 0; i < bodyCount; i++)
+        {
+            int root = find(i);
+            if(rootIsland[root] == -1)
+            {
+                rootIsland[root] = islandCount;
+                islandAwake[islandCount] = false;
+                islandReady[islandCount] = true;
+                if(islandCount == islandContacts.size())
+                {
+                    islandContacts.add(new ArrayList<Contact>());
+                }
+                islandContacts.get(islandCount).clear();
+                islandCount++;
+            }
+            int island = rootIsland[root];
+            islandAwake[island] |= bodies[i].getAwake();
+        }
+        for(int i = 0; i < bodyCount; i++)
+        {
+            bodies[i].islandIndex = rootIsland[find(i)];
+        }
+
+        //wake every body of an awake island, then check whether the whole island has settled
+        for(int i = 0; i < bodyCount; i++)
+        {
+            Body body = bodies[i];
+            if(!islandAwake[body.islandIndex])
+            {
+                continue;
+            }
+            if(!body.getAwake())
+            {
+                body.setAwake(true);
+            }
+            islandReady[body.islandIndex] &= body.isCanSleep() && body.getMotion() < body.getSleepEpsilon();
+        }
+
+        awakeIslands = 0;
+        sleepingIslands = 0;
+        for(int island = 0; island < islandCount; island++)
+        {
+            if(islandAwake[island] && islandReady[island])
+            {
+                islandAwake[island] = false;
+            }
+            if(islandAwake[island])
+            {
+                awakeIslands++;
+            }
+            else
+            {
+                sleepingIslands++;
+            }
+        }
+        for(int i = 0; i < bodyCount; i++)
+        {
+            if(!islandAwake[bodies[i].islandIndex] && bodies[i].getAwake())
+            {
+                bodies[i].setAwake(false);
+            }
+        }
+
+        contactsSkipped = 0;
+        for(int i = 0; i < contacts.size(); i++)
+        {
+            Contact contact = contacts.get(i);
+            Body body = contact.body[0] != null && contact.body[0].islandIndex != -1 ? contact.body[0] : contact.body[1];
+            if(body == null || body.islandIndex == -1 || !islandAwake[body.islandIndex])
+            {
+                contactsSkipped++;
+                continue;
+            }
+            islandContacts.get(body.islandIndex).add(contact);
+        }
+
+        largestIsland = 0;
+        for(int island = 0; island < islandCount; island++)
+        {
+            largestIsland = Math.max(largestIsland, islandContacts.get(island).size());
+        }
+
+        for(int i = 0; i < bodyCount; i++)
+        {
+            bodies[i] = null;
+        }
+    }
+
+    /**
+     * Resolve the contacts of every awake island, one island at a time
+     *
+     * @param solver
+     * @param duration
+     */
+    public void solve(ContactSolver solver, float duration)
+    {
+        if(pool == null)
+        {
+            for(int island = 0; island < islandCount; island++)
+            {
+                if(islandAwake[island] && !islandContacts.get(island).isEmpty())
+                {
+                    solver.resolveContacts(islandContacts.get(island), duration);
+                }
+            }
+            return;
+        }
+
+        buildBatches();
+        if(batchCount == 0)
+        {
+            return;
+        }
+
+        //each batch has its own solver, as solvers keep working data between the contacts they resolve
+        if(workerSource != solver)
+        {
+            clearWorkers();
+            workerSource = solver;
+        }
+        while(workers.size() < batchCount)
+        {
+            workers.add(solver.createWorker());
+        }
+
+        batchTask.setRange(0, batchCount, duration);
+        pool.invoke(batchTask);
+    }
+
+    /**
+     * Resolve the islands of one batch, called from the fork-join tasks
+     *
+     * @param batch
+     * @param duration
+     */
+    void solveBatch(int batch, float duration)
+    {
+        ContactSolver worker = workers.get(batch);
+        for(int island = batchStart[batch]; island < batchStart[batch + 1]; island++)
+        {
+            if(islandAwake[island] && !islandContacts.get(island).isEmpty())
+            {
+                worker.resolveContacts(islandContacts.get(island), duration);
+            }
+        }
+    }
+
+    /**
+     * Split the islands into batches of consecutive islands, closing a batch once it holds enough contacts
+     */
+    private void buildBatches()
+    {
+        batchCount = 0;
+        int contacts = 0;
+        batchStart[0] = 0;
+        for(int island = 0; island < islandCount; island++)
+        {
+            if(islandAwake[island])
+            {
+                contacts += islandContacts.get(island).size();
+            }
+            if(contacts >= batchContacts || (island == islandCount - 1 && contacts > 0))
+            {
+                if(batchCount + 2 > batchStart.length)
+                {
+                    batchStart = Arrays.copyOf(batchStart, batchStart.length * 2);
+                }
+                batchCount++;
+                batchStart[batchCount] = island + 1;
+                contacts = 0;
+            }
+        }
+    }
+
+    /**
+     * Get the number of batches the islands were split into for the last parallel solve
+     *
+     * @return
+     */
+    public int getBatchCount()
+    {
+        return batchCount;
+    }
+
+    /**
+     * Get the number of islands found in the last build
+     *
+     * @return
+     */
+    public int getIslandCount()
+    {
+        return islandCount;
+    }
+
+    /**
+     * Check if an island was left awake by the last build
+     *
+     * @param island
+     * @return
+     */
+    public boolean isAwake(int island)
+    {
+        return islandAwake[island];
+    }
+
+    /**
+     * Get the contacts of an island, empty for sleeping islands
+     *
+     * @param island
+     * @return
+     */
+    public ArrayList<Contact> getContacts(int island)
+    {
+        return islandContacts.get(island);
+    }
+
+    private int find(int index)
+    {
+        while(parent[index] != index)
+        {
+            parent[index] = parent[parent[index]];
+            index = parent[index];
+        }
+        return index;
+    }
+
+    private void union(int one, int two)
+    {
+        int rootOne = find(one);
+        int rootTwo = find(two);
+        if(rootOne == rootTwo)
+        {
+            return;
+        }
+        if(size[rootOne] < size[rootTwo])
+        {
+            int temp = rootOne;
+            rootOne = rootTwo;
+            rootTwo = temp;
+        }
+        parent[rootTwo] = rootOne;
+        size[rootOne] += size[rootTwo];
+    }
+
+    private void allocateBodies(int capacity)
+    {
+        bodies = Arrays.copyOf(bodies, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        size = Arrays.copyOf(size, capacity);
+        rootIsland = Arrays.copyOf(rootIsland, capacity);
+        islandAwake = Arrays.copyOf(islandAwake, capacity);
+        islandReady = Arrays.copyOf(islandReady, capacity);
+    }
+}
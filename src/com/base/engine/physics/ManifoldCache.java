@@ -0,0 +1,306 @@
+package com.base.engine.physics;
+
+import com.base.engine.math.Vec;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Keeps the contact manifold of each touching pair of bodies from one frame to the next
+ * New contacts are matched to last frame's by their position on the body, and matched contacts start resolution from the impulse they ended on last frame
+ * Resting contacts need roughly the same impulse every frame, so starting from it leaves the resolver little left to do
+ *
+ * @author JordanG
+ */
+public class ManifoldCache
+{
+    private static final int MAX_POINTS = 4;
+
+    //contacts stored last frame, only read from during this frame
+    private PairTable lastPairs;
+    private int[] lastPointCount;
+    private float[] lastLocalPoints;
+    private float[] lastImpulses;
+
+    //contacts stored this frame, only written to during this frame
+    private PairTable pairs;
+    private int[] pointCount;
+    //per point data, MAX_POINTS points per pair stored as x, y, z triples
+    private float[] localPoints;
+    private float[] impulses;
+
+    private float warmStartFactor;
+    private float matchDistance;
+
+    public int contactsMatched;
+    public int contactsTotal;
+
+    /**
+     * Initialise an empty cache
+     */
+    public ManifoldCache()
+    {
+        lastPairs = new PairTable();
+        lastPointCount = new int[32];
+        lastLocalPoints = new float[32 * MAX_POINTS * 3];
+        lastImpulses = new float[32 * MAX_POINTS * 3];
+
+        pairs = new PairTable();
+        pointCount = new int[32];
+        localPoints = new float[32 * MAX_POINTS * 3];
+        impulses = new float[32 * MAX_POINTS * 3];
+
+        warmStartFactor = 0.85f;
+        matchDistance = 0.05f;
+    }
+
+    /**
+     * Set how much of last frame's impulse a matched contact starts with
+     * Slightly less than all of it keeps the resolver from overshooting when contacts are separating
+     *
+     * @param warmStartFactor
+     */
+    public void setWarmStartFactor(float warmStartFactor)
+    {
+        this.warmStartFactor = warmStartFactor;
+    }
+
+    /**
+     * Set how far a contact can move over the surface of its body between frames and still be treated as the same contact
+     *
+     * @param matchDistance
+     */
+    public void setMatchDistance(float matchDistance)
+    {
+        this.matchDistance = matchDistance;
+    }
+
+    /**
+     * Match contacts to last frame's and set the accumulated impulse of each matched contact to the impulse carried over, without applying it
+     * The solver applies the impulses itself once it has worked out each contact's velocities from before the warm start
+     * Only last frame's contacts are read, so separate islands can be matched at the same time
+     * The whole impulse is carried over, friction included, so this is only for solvers that clamp each contact's total impulse
+     *
+     * @param contacts
+     */
+    public void loadImpulses(ArrayList<Contact> contacts)
+    {
+        int matched = 0;
+
+        for(int i = 0; i < contacts.size(); i++)
+        {
+            Contact contact = contacts.get(i);
+            int best = match(contact);
+            if(best == -1)
+            {
+                continue;
+            }
+
+            float scale = contact.body[0].id > contact.body[1].id ? -warmStartFactor : warmStartFactor;
+            Vec impulse = contact.accumulatedImpulse.set(lastImpulses[best] * scale, lastImpulses[best + 1] * scale, lastImpulses[best + 2] * scale);
+
+            //an impulse that would now pull the bodies together is stale, drop it
+            if(impulse.dotProd(contact.contactNormal) <= 0.0f)
+            {
+                impulse.clear();
+                continue;
+            }
+            matched++;
+        }
+
+        count(contacts.size(), matched);
+    }
+
+    /**
+     * Match contacts to last frame's and start each matched contact with the part of its carried impulse along the contact normal,
+     * no more than the contact needs to stop closing this frame
+     * For solvers that never clamp a contact's total impulse, where an impulse that pushes too hard cannot be taken back
+     * and a carried friction impulse is not held inside the friction cone
+     * Each contact's velocity is worked out again just before it is capped, so contacts sharing a body do not each push for all of it
+     *
+     * @param contacts
+     * @param duration
+     */
+    public void warmStartNormal(ArrayList<Contact> contacts, float duration)
+    {
+        int matched = 0;
+
+        for(int i = 0; i < contacts.size(); i++)
+        {
+            Contact contact = contacts.get(i);
+            int best = match(contact);
+            if(best == -1)
+            {
+                continue;
+            }
+
+            Vec normal = contact.contactNormal;
+            float scale = contact.body[0].id > contact.body[1].id ? -warmStartFactor : warmStartFactor;
+            float carried = (lastImpulses[best] * normal.x + lastImpulses[best + 1] * normal.y + lastImpulses[best + 2] * normal.z) * scale;
+            if(carried <= 0.0f)
+            {
+                continue;
+            }
+
+            contact.calculateInternals(duration);
+            float impulse = Math.min(carried, contact.calculateNormalImpulse());
+            if(impulse <= 0.0f)
+            {
+                continue;
+            }
+            contact.applyWarmStart(contact.accumulatedImpulse.set(normal).scaleLocal(impulse));
+            matched++;
+        }
+
+        count(contacts.size(), matched);
+    }
+
+    /**
+     * Find the point stored last frame that a contact matches, clearing the contact's accumulated impulse and working out its point on the body to store
+     *
+     * @param contact
+     * @return Index of the matched point in the last frame's arrays, -1 if there is none
+     */
+    private int match(Contact contact)
+    {
+        contact.accumulatedImpulse.clear();
+        if(contact.body[1] == null)
+        {
+            return -1;
+        }
+
+        //points and impulses are kept relative to the body with the lower id so either contact order matches
+        boolean flipped = contact.body[0].id > contact.body[1].id;
+        Body base = flipped ? contact.body[1] : contact.body[0];
+        base.getPointInLocalSpace(contact.contactPoint, contact.localPoint);
+
+        int slot = lastPairs.find(contact.body[0].id, contact.body[1].id);
+        if(slot == -1 || isSleeping(contact.body[0]) || isSleeping(contact.body[1]))
+        {
+            return -1;
+        }
+
+        int best = -1;
+        float bestDistance = matchDistance * matchDistance;
+        for(int point = 0; point < lastPointCount[slot]; point++)
+        {
+            int index = (slot * MAX_POINTS + point) * 3;
+            float dx = lastLocalPoints[index] - contact.localPoint.x;
+            float dy = lastLocalPoints[index + 1] - contact.localPoint.y;
+            float dz = lastLocalPoints[index + 2] - contact.localPoint.z;
+            float distance = dx * dx + dy * dy + dz * dz;
+            if(distance < bestDistance)
+            {
+                bestDistance = distance;
+                best = index;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Move on to the next frame, so the contacts stored during the last one are the ones matched against
+     * Pairs that were not stored during the last frame are dropped
+     */
+    public void newFrame()
+    {
+        PairTable swapPairs = lastPairs;
+        lastPairs = pairs;
+        pairs = swapPairs;
+        pairs.clear();
+
+        int[] swapCount = lastPointCount;
+        lastPointCount = pointCount;
+        pointCount = swapCount;
+
+        float[] swapPoints = lastLocalPoints;
+        lastLocalPoints = localPoints;
+        localPoints = swapPoints;
+
+        float[] swapImpulses = lastImpulses;
+        lastImpulses = impulses;
+        impulses = swapImpulses;
+
+        contactsTotal = 0;
+        contactsMatched = 0;
+    }
+
+    /**
+     * Store contacts along with the impulses they were resolved with, to be matched against next frame
+     * Can be called several times a frame, such as once per island, and from several threads at once
+     *
+     * @param contacts
+     */
+    public synchronized void store(ArrayList<Contact> contacts)
+    {
+        for(int i = 0; i < contacts.size(); i++)
+        {
+            Contact contact = contacts.get(i);
+            if(contact.body[1] == null)
+            {
+                continue;
+            }
+
+            int count = pairs.size();
+            int slot = pairs.add(contact.body[0].id, contact.body[1].id);
+            if(slot == pointCount.length)
+            {
+                grow(slot * 2);
+            }
+            if(slot == count)
+            {
+                pointCount[slot] = 0;
+            }
+            if(pointCount[slot] == MAX_POINTS)
+            {
+                continue;
+            }
+
+            float sign = contact.body[0].id > contact.body[1].id ? -1.0f : 1.0f;
+            int index = (slot * MAX_POINTS + pointCount[slot]) * 3;
+            localPoints[index] = contact.localPoint.x;
+            localPoints[index + 1] = contact.localPoint.y;
+            localPoints[index + 2] = contact.localPoint.z;
+            impulses[index] = contact.accumulatedImpulse.x * sign;
+            impulses[index + 1] = contact.accumulatedImpulse.y * sign;
+            impulses[index + 2] = contact.accumulatedImpulse.z * sign;
+            pointCount[slot]++;
+        }
+    }
+
+    /**
+     * Forget every stored manifold
+     */
+    public void clear()
+    {
+        lastPairs.clear();
+        pairs.clear();
+    }
+
+    /**
+     * Get the number of pairs with a manifold to match against this frame
+     *
+     * @return
+     */
+    public int size()
+    {
+        return lastPairs.size();
+    }
+
+    private synchronized void count(int total, int matched)
+    {
+        contactsTotal += total;
+        contactsMatched += matched;
+    }
+
+    private static boolean isSleeping(Body body)
+    {
+        return body.getInverseMass() > 0.0f && !body.getAwake();
+    }
+
+    private void grow(int capacity)
+    {
+        pointCount = Arrays.copyOf(pointCount, capacity);
+        localPoints = Arrays.copyOf(localPoints, capacity * MAX_POINTS * 3);
+        impulses = Arrays.copyOf(impulses, capacity * MAX_POINTS * 3);
+    }
+}
@@ -0,0 +1,254 @@
+package com.base.engine.physics;
+
+import java.util.Arrays;
+
+/**
+ * Set of unordered pairs of integer ids, stored densely so they can be walked in order and looked up by hash
+ * Each pair owns a slot between 0 and size() - 1 that callers can use to index their own per-pair data
+ * Removing a pair moves the pair in the last slot into the freed one, so per-pair data must be moved the same way
+ *
+ * @author JordanG
+ */
+public class PairTable
+{
+    private static final long EMPTY = -1L;
+
+    private long[] keys;
+    private int[] slots;
+
+    private int[] first;
+    private int[] second;
+    private int size;
+
+    /**
+     * Initialise an empty table
+     */
+    public PairTable()
+    {
+        keys = new long[64];
+        slots = new int[64];
+        Arrays.fill(keys, EMPTY);
+
+        first = new int[32];
+        second = new int[32];
+    }
+
+    /**
+     * Get the number of pairs in the table
+     *
+     * @return
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Get the lower id of the pair in the specified slot
+     *
+     * @param slot
+     * @return
+     */
+    public int getFirst(int slot)
+    {
+        return first[slot];
+    }
+
+    /**
+     * Get the higher id of the pair in the specified slot
+     *
+     * @param slot
+     * @return
+     */
+    public int getSecond(int slot)
+    {
+        return second[slot];
+    }
+
+    /**
+     * Find the slot of a pair
+     *
+     * @param one
+     * @param two
+     * @return Slot of the pair or -1 if it is not in the table
+     */
+    public int find(int one, int two)
+    {
+        long key = key(one, two);
+        int mask = keys.length - 1;
+        for(int i = hash(key) & mask; keys[i] != EMPTY; i = (i + 1) & mask)
+        {
+            if(keys[i] == key)
+            {
+                return slots[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Add a pair to the table if it is not already in it
+     *
+     * @param one
+     * @param two
+     * @return Slot of the pair, check it against size() beforehand to tell if it was newly added
+     */
+    public int add(int one, int two)
+    {
+        if((size + 1) * 2 > keys.length)
+        {
+            rehash(keys.length * 2);
+        }
+
+        long key = key(one, two);
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        for(; keys[i] != EMPTY; i = (i + 1) & mask)
+        {
+            if(keys[i] == key)
+            {
+                return slots[i];
+            }
+        }
+
+        if(size == first.length)
+        {
+            first = Arrays.copyOf(first, size * 2);
+            second = Arrays.copyOf(second, size * 2);
+        }
+
+        keys[i] = key;
+        slots[i] = size;
+        first[size] = Math.min(one, two);
+        second[size] = Math.max(one, two);
+        return size++;
+    }
+
+    /**
+     * Remove a pair from the table
+     * The pair that was in the last slot is moved into the slot of the removed one
+     *
+     * @param one
+     * @param two
+     * @return Slot the pair was removed from or -1 if it was not in the table
+     */
+    public int remove(int one, int two)
+    {
+        long key = key(one, two);
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        for(; keys[i] != key; i = (i + 1) & mask)
+        {
+            if(keys[i] == EMPTY)
+            {
+                return -1;
+            }
+        }
+
+        int slot = slots[i];
+        deleteAt(i);
+
+        int last = --size;
+        if(slot != last)
+        {
+            first[slot] = first[last];
+            second[slot] = second[last];
+            slots[indexOf(key(first[slot], second[slot]))] = slot;
+        }
+        return slot;
+    }
+
+    /**
+     * Remove every pair from the table
+     */
+    public void clear()
+    {
+        if(size > 0)
+        {
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        }
+    }
+
+    /**
+     * Empty a hash table position and shift back any following entries of the same probe run
+     *
+     * @param index
+     */
+    private void deleteAt(int index)
+    {
+        int mask = keys.length - 1;
+        int hole = index;
+        keys[hole] = EMPTY;
+
+        for(int i = (hole + 1) & mask; keys[i] != EMPTY; i = (i + 1) & mask)
+        {
+            int home = hash(keys[i]) & mask;
+            //move the entry back if its home position is not between the hole and its current position
+            if(((i - home) & mask) >= ((i - hole) & mask))
+            {
+                keys[hole] = keys[i];
+                slots[hole] = slots[i];
+                keys[i] = EMPTY;
+                hole = i;
+            }
+        }
+    }
+
+    /**
+     * Get the hash table position of a key known to be in the table
+     *
+     * @param key
+     * @return
+     */
+    private int indexOf(long key)
+    {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while(keys[i] != key)
+        {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * Grow the hash table and reinsert every pair
+     *
+     * @param capacity
+     */
+    private void rehash(int capacity)
+    {
+        keys = new long[capacity];
+        slots = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+
+        int mask = capacity - 1;
+        for(int slot = 0; slot < size; slot++)
+        {
+            long key = key(first[slot], second[slot]);
+            int i = hash(key) & mask;
+            while(keys[i] != EMPTY)
+            {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            slots[i] = slot;
+        }
+    }
+
+    private static long key(int one, int two)
+    {
+        if(one > two)
+        {
+            return ((long)two << 32) | (one & 0xffffffffL);
+        }
+        return ((long)one << 32) | (two & 0xffffffffL);
+    }
+
+    private static int hash(long key)
+    {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int)(h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,12 @@
+package com.base.engine.physics;
+
+/**
+ * Enum storing the ways the sequential impulse solver can push penetrating bodies apart
+ * BAUMGARTE feeds penetration back into the contact velocity, SPLIT_IMPULSE moves the bodies with separate velocities that are thrown away after the step
+ *
+ * @author JordanG
+ */
+public enum PositionCorrection
+{
+    BAUMGARTE, SPLIT_IMPULSE;
+}
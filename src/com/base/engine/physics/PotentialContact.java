@@ -0,0 +1,47 @@
+package com.base.engine.physics;
+
+import java.util.ArrayList;
+
+/**
+ * A pair of primitives whose bounds overlap and which should be passed on to the narrowphase
+ *
+ * @author JordanG
+ */
+public class PotentialContact
+{
+    public CollisionPrimitive[] primitive;
+
+    public PotentialContact()
+    {
+        primitive = new CollisionPrimitive[2];
+    }
+
+    /**
+     * Set the two primitives of the pair
+     *
+     * @param one
+     * @param two
+     */
+    public void set(CollisionPrimitive one, CollisionPrimitive two)
+    {
+        primitive[0] = one;
+        primitive[1] = two;
+    }
+
+    /**
+     * Get the entry at the specified index of a reusable list of pairs, growing the list if it is not long enough yet
+     * Lets the broadphase write its pairs every frame without creating new objects once the list is warmed up
+     *
+     * @param contacts
+     * @param index
+     * @return
+     */
+    public static PotentialContact obtain(ArrayList<PotentialContact> contacts, int index)
+    {
+        while(contacts.size() <= index)
+        {
+            contacts.add(new PotentialContact());
+        }
+        return contacts.get(index);
+    }
+}
@@ -0,0 +1,151 @@
+package com.base.engine.physics;
+
+import java.util.Arrays;
+
+/**
+ * Remembers the axis that last separated each pair of bodies
+ * Pairs that were apart last frame are usually still apart along the same axis, so testing that axis first lets the SAT test exit after one axis
+ * Entries that are not used for a frame are dropped so pairs that leave the broadphase do not pile up
+ *
+ * @author JordanG
+ */
+public class SeparatingAxisCache
+{
+    private PairTable pairs;
+    private int[] firstBody;
+    private int[] axis;
+    private int[] lastFrame;
+    private int frame;
+
+    public long lookups;
+    public long hits;
+
+    /**
+     * Initialise an empty cache
+     */
+    public SeparatingAxisCache()
+    {
+        pairs = new PairTable();
+        firstBody = new int[32];
+        axis = new int[32];
+        lastFrame = new int[32];
+    }
+
+    /**
+     * Move on to the next frame, dropping every pair that was not looked up during the last one
+     */
+    public void newFrame()
+    {
+        for(int slot = pairs.size() - 1; slot >= 0; slot--)
+        {
+            if(lastFrame[slot] < frame)
+            {
+                remove(slot);
+            }
+        }
+        frame++;
+    }
+
+    /**
+     * Get the axis that separated two bodies the last time they were tested in this order
+     *
+     * @param one
+     * @param two
+     * @return SAT case index of the axis or -1 if there is none
+     */
+    public int getAxis(Body one, Body two)
+    {
+        lookups++;
+
+        int slot = pairs.find(one.id, two.id);
+        if(slot == -1)
+        {
+            return -1;
+        }
+        lastFrame[slot] = frame;
+        return firstBody[slot] == one.id ? axis[slot] : -1;
+    }
+
+    /**
+     * Store the axis that separated two bodies
+     *
+     * @param one
+     * @param two
+     * @param index SAT case index of the axis
+     */
+    public void store(Body one, Body two, int index)
+    {
+        int slot = pairs.add(one.id, two.id);
+        if(slot == firstBody.length)
+        {
+            firstBody = Arrays.copyOf(firstBody, slot * 2);
+            axis = Arrays.copyOf(axis, slot * 2);
+            lastFrame = Arrays.copyOf(lastFrame, slot * 2);
+        }
+        firstBody[slot] = one.id;
+        axis[slot] = index;
+        lastFrame[slot] = frame;
+    }
+
+    /**
+     * Forget the axis stored for two bodies, once they are found to be touching
+     *
+     * @param one
+     * @param two
+     */
+    public void clear(Body one, Body two)
+    {
+        int slot = pairs.find(one.id, two.id);
+        if(slot != -1)
+        {
+            remove(slot);
+        }
+    }
+
+    /**
+     * Record that the cached axis of the last lookup still separated its pair
+     */
+    void recordHit()
+    {
+        hits++;
+    }
+
+    /**
+     * Get the share of lookups that were answered by the cached axis alone
+     *
+     * @return
+     */
+    public float getHitRate()
+    {
+        return lookups == 0 ? 0.0f : (float)hits / lookups;
+    }
+
+    /**
+     * Reset the hit rate counters
+     */
+    public void resetCounters()
+    {
+        lookups = 0;
+        hits = 0;
+    }
+
+    /**
+     * Get the number of pairs with a cached axis
+     *
+     * @return
+     */
+    public int size()
+    {
+        return pairs.size();
+    }
+
+    private void remove(int slot)
+    {
+        pairs.remove(pairs.getFirst(slot), pairs.getSecond(slot));
+
+        int last = pairs.size();
+        firstBody[slot] = firstBody[last];
+        axis[slot] = axis[last];
+        lastFrame[slot] = lastFrame[last];
+    }
+}
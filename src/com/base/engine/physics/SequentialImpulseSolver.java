@@ -0,0 +1,818 @@
+package com.base.engine.physics;
+
+import com.base.engine.math.Quaternion;
+import com.base.engine.math.Vec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Sequential impulse contact solver, also known as projected Gauss-Seidel
+ * Every iteration sweeps all contacts once, applying just enough impulse to stop each one closing and clamping the total impulse of the contact so it only ever pushes
+ * Friction is limited to a Coulomb cone around the total normal impulse
+ * Unlike ContactResolver the cost of an iteration is linear in the number of contacts, so a handful of sweeps handles thousands of contacts
+ * Large islands can be graph coloured so no two contacts of a colour share a body that moves, and each colour is then swept in parallel
+ *
+ * @author JordanG
+ */
+public class SequentialImpulseSolver implements ContactSolver
+{
+    static final int VELOCITY_PASS = 0;
+    static final int SPLIT_PASS = 1;
+    //colour given to contacts whose bodies already use every other colour, swept on one thread
+    private static final int SHARED_COLOUR = 64;
+    private static final int COLOUR_TASK_CONTACTS = 128;
+
+    private int velocityIterations;
+    private int positionIterations;
+    private PositionCorrection positionCorrection;
+    private float baumgarte;
+    private float penetrationSlop;
+
+    private ManifoldCache manifoldCache;
+
+    //per-body working data, slot 0 stands in for missing and immovable bodies and never moves
+    //immovable bodies get no slot of their own as they may be shared with islands solved at the same time
+    private Body[] bodies;
+    private int bodyCount;
+    private float[] inverseMass;
+    private float[] inverseInertia;
+    private float[] velocity;
+    private float[] rotation;
+    private float[] pseudoVelocity;
+    private float[] pseudoRotation;
+
+    //per-contact working data, vectors are stored as x, y, z triples
+    private boolean[] active;
+    private int[] bodyA;
+    private int[] bodyB;
+    private float[] relativeA;
+    private float[] relativeB;
+    private float[] normal;
+    private float[] tangentOne;
+    private float[] tangentTwo;
+    private float[] normalMass;
+    private float[] tangentOneMass;
+    private float[] tangentTwoMass;
+    private float[] velocityBias;
+    private float[] positionBias;
+    private float[] friction;
+    private float[] normalImpulse;
+    private float[] tangentOneImpulse;
+    private float[] tangentTwoImpulse;
+    private float[] splitImpulse;
+
+    private boolean graphColouring;
+    private int colouringThreshold;
+    private ForkJoinPool pool;
+    //colours used by the contacts of each body so far
+    private long[] bodyColours;
+    //contacts in colour order, colour k holds colourOrder[colourStart[k]] up to colourStart[k + 1]
+    private int[] colourStart;
+    private int[] colourOrder;
+    private int[] colourCursor;
+    private int[] contactColour;
+    private ContactColourTask colourTask;
+
+    //working values for moving bodies by their pseudo velocities without allocating
+    private Vec workingMove;
+    private Vec workingTurn;
+    private Vec workingPosition;
+    private Quaternion workingOrientation;
+
+    /**
+     * Initialise the solver
+     *
+     * @param velocityIterations Sweeps over all contacts to solve velocities
+     * @param positionIterations Sweeps over all contacts to solve split impulse position correction, unused by Baumgarte correction
+     * @param positionCorrection
+     */
+    public SequentialImpulseSolver(int velocityIterations, int positionIterations, PositionCorrection positionCorrection)
+    {
+        setIterations(velocityIterations, positionIterations);
+        this.positionCorrection = positionCorrection;
+        baumgarte = 0.2f;
+        penetrationSlop = 0.01f;
+
+        bodies = new Body[16];
+        inverseMass = new float[16];
+        inverseInertia = new float[16 * 9];
+        velocity = new float[16 * 3];
+        rotation = new float[16 * 3];
+        pseudoVelocity = new float[16 * 3];
+        pseudoRotation = new float[16 * 3];
+
+        allocateContacts(32);
+
+        graphColouring = true;
+        colouringThreshold = 256;
+        bodyColours = new long[16];
+        colourStart = new int[SHARED_COLOUR + 2];
+        colourCursor = new int[SHARED_COLOUR + 1];
+        colourTask = new ContactColourTask(this, COLOUR_TASK_CONTACTS);
+
+        workingMove = new Vec();
+        workingTurn = new Vec();
+        workingPosition = new Vec();
+        workingOrientation = new Quaternion();
+    }
+
+    @Override
+    public final void setIterations(int velocityIterations, int positionIterations)
+    {
+        this.velocityIterations = velocityIterations;
+        this.positionIterations = positionIterations;
+    }
+
+    /**
+     * Set how penetrating bodies are pushed apart
+     *
+     * @param positionCorrection
+     */
+    public void setPositionCorrection(PositionCorrection positionCorrection)
+    {
+        this.positionCorrection = positionCorrection;
+    }
+
+    /**
+     * Get how penetrating bodies are pushed apart
+     *
+     * @return
+     */
+    public PositionCorrection getPositionCorrection()
+    {
+        return positionCorrection;
+    }
+
+    /**
+     * Set the share of the penetration removed each step and the penetration left alone so resting contacts stay touching
+     *
+     * @param baumgarte
+     * @param penetrationSlop
+     */
+    public void setCorrection(float baumgarte, float penetrationSlop)
+    {
+        this.baumgarte = baumgarte;
+        this.penetrationSlop = penetrationSlop;
+    }
+
+    /**
+     * Set whether islands with at least the specified number of contacts are swept in colour order
+     * Colouring changes the order contacts are solved in, so the results only depend on this setting and never on the pool
+     *
+     * @param graphColouring
+     * @param colouringThreshold
+     */
+    public void setGraphColouring(boolean graphColouring, int colouringThreshold)
+    {
+        this.graphColouring = graphColouring;
+        this.colouringThreshold = colouringThreshold;
+    }
+
+    /**
+     * Set the pool each colour of a coloured island is swept on, or null to sweep them on the calling thread
+     *
+     * @param pool
+     */
+    public void setPool(ForkJoinPool pool)
+    {
+        this.pool = pool;
+    }
+
+    @Override
+    public void setManifoldCache(ManifoldCache manifoldCache)
+    {
+        this.manifoldCache = manifoldCache;
+    }
+
+    @Override
+    public ManifoldCache getManifoldCache()
+    {
+        return manifoldCache;
+    }
+
+    /**
+     * Create another solver with the same settings and manifold cache, to resolve separate islands at the same time as this one
+     *
+     * @return
+     */
+    @Override
+    public ContactSolver createWorker()
+    {
+        SequentialImpulseSolver worker = new SequentialImpulseSolver(velocityIterations, positionIterations, positionCorrection);
+        worker.setCorrection(baumgarte, penetrationSlop);
+        worker.setGraphColouring(graphColouring, colouringThreshold);
+        worker.setPool(pool);
+        worker.setManifoldCache(manifoldCache);
+        return worker;
+    }
+
+    /**
+     * Resolve all contacts found this frame
+     *
+     * @param contacts
+     * @param duration
+     */
+    @Override
+    public void resolveContacts(ArrayList<Contact> contacts, float duration)
+    {
+        if(contacts.isEmpty())
+        {
+            return;
+        }
+        if(velocityIterations <= 0 || duration <= 0.0f)
+        {
+            return;
+        }
+
+        for(int i = 0; i < contacts.size(); i++)
+        {
+            contacts.get(i).matchAwakeState();
+            contacts.get(i).calculateInternals(duration);
+        }
+        if(manifoldCache != null)
+        {
+            manifoldCache.loadImpulses(contacts);
+        }
+
+        prepareBodies(contacts);
+        prepareContacts(contacts, duration);
+        if(manifoldCache != null)
+        {
+            warmStart(contacts.size());                                         //after the restitution bias has been worked out from the velocities the bodies came in with
+        }
+
+        boolean coloured = graphColouring && contacts.size() >= colouringThreshold;
+        if(coloured)
+        {
+            colourContacts(contacts.size());
+        }
+
+        for(int iteration = 0; iteration < velocityIterations; iteration++)
+        {
+            if(coloured)
+            {
+                sweepColours(VELOCITY_PASS);
+            }
+            else
+            {
+                for(int c = 0; c < contacts.size(); c++)
+                {
+                    if(active[c])
+                    {
+                        solveFriction(c);
+                        solveNormal(c);
+                    }
+                }
+            }
+        }
+
+        if(positionCorrection == PositionCorrection.SPLIT_IMPULSE)
+        {
+            for(int iteration = 0; iteration < positionIterations; iteration++)
+            {
+                if(coloured)
+                {
+                    sweepColours(SPLIT_PASS);
+                }
+                else
+                {
+                    for(int c = 0; c < contacts.size(); c++)
+                    {
+                        if(active[c])
+                        {
+                            solveSplit(c);
+                        }
+                    }
+                }
+            }
+        }
+
+        storeContacts(contacts);
+        storeBodies(duration);
+
+        if(manifoldCache != null)
+        {
+            manifoldCache.store(contacts);
+        }
+    }
+
+    /**
+     * Give each body touched by a contact a slot and copy its velocities and inverse mass into it
+     *
+     * @param contacts
+     */
+    private void prepareBodies(ArrayList<Contact> contacts)
+    {
+        for(int i = 0; i < contacts.size(); i++)
+        {
+            for(int j = 0; j < 2; j++)
+            {
+                if(isMovable(contacts.get(i).body[j]))
+                {
+                    contacts.get(i).body[j].solverIndex = -1;
+                }
+            }
+        }
+
+        bodyCount = 1;
+        clearBody(0);
+        for(int i = 0; i < contacts.size(); i++)
+        {
+            for(int j = 0; j < 2; j++)
+            {
+                Body body = contacts.get(i).body[j];
+                if(!isMovable(body) || body.solverIndex != -1)
+                {
+                    continue;
+                }
+                if(bodyCount == bodies.length)
+                {
+                    allocateBodies(bodyCount * 2);
+                }
+
+                int b = bodyCount++;
+                body.solverIndex = b;
+                bodies[b] = body;
+                BodyStore store = body.store;
+                inverseMass[b] = store.inverseMass[body.index];
+                System.arraycopy(store.inverseInertiaTensorWorld, body.index * 9, inverseInertia, b * 9, 9);
+                System.arraycopy(store.velocity, body.index * 3, velocity, b * 3, 3);
+                System.arraycopy(store.rotation, body.index * 3, rotation, b * 3, 3);
+                Arrays.fill(pseudoVelocity, b * 3, b * 3 + 3, 0.0f);
+                Arrays.fill(pseudoRotation, b * 3, b * 3 + 3, 0.0f);
+            }
+        }
+    }
+
+    /**
+     * Work out the constraint directions, effective masses and biases of every contact and pick up any warm started impulse
+     *
+     * @param contacts
+     * @param duration
+     */
+    private void prepareContacts(ArrayList<Contact> contacts, float duration)
+    {
+        if(contacts.size() > active.length)
+        {
+            allocateContacts(Math.max(contacts.size(), active.length * 2));
+        }
+
+        for(int c = 0; c < contacts.size(); c++)
+        {
+            Contact contact = contacts.get(c);
+            int a = isMovable(contact.body[0]) ? contact.body[0].solverIndex : 0;
+            int b = isMovable(contact.body[1]) ? contact.body[1].solverIndex : 0;
+            bodyA[c] = a;
+            bodyB[c] = b;
+
+            //bodies that are both asleep are left where they are
+            active[c] = contact.body[0].getAwake() || (contact.body[1] != null && contact.body[1].getAwake());
+
+            float[] basis = contact.contactToWorld.data;
+            setTriple(normal, c, basis[0], basis[3], basis[6]);
+            setTriple(tangentOne, c, basis[1], basis[4], basis[7]);
+            setTriple(tangentTwo, c, basis[2], basis[5], basis[8]);
+            setTriple(relativeA, c, contact.relativeContactPosition[0]);
+            if(contact.body[1] != null)
+            {
+                setTriple(relativeB, c, contact.relativeContactPosition[1]);
+            }
+            else
+            {
+                setTriple(relativeB, c, 0.0f, 0.0f, 0.0f);
+            }
+
+            normalMass[c] = inverse(effectiveMass(c, normal));
+            tangentOneMass[c] = inverse(effectiveMass(c, tangentOne));
+            tangentTwoMass[c] = inverse(effectiveMass(c, tangentTwo));
+            friction[c] = contact.friction;
+
+            float closing = relativeVelocity(c, normal, velocity, rotation);
+            velocityBias[c] = 0.0f;
+            if(closing < -Contact.velocityLimit)
+            {
+                velocityBias[c] = -contact.restitution * closing;
+            }
+
+            float correction = Math.max(contact.penetration - penetrationSlop, 0.0f) * baumgarte / duration;
+            if(positionCorrection == PositionCorrection.BAUMGARTE)
+            {
+                velocityBias[c] = Math.max(velocityBias[c], correction);
+            }
+            positionBias[c] = correction;
+            splitImpulse[c] = 0.0f;
+
+            //split the impulse carried over by the cache along this frame's directions, it is applied once every contact is prepared
+            Vec warm = contact.accumulatedImpulse;
+            if(manifoldCache != null && active[c])
+            {
+                normalImpulse[c] = dot(normal, c, warm.x, warm.y, warm.z);
+                tangentOneImpulse[c] = dot(tangentOne, c, warm.x, warm.y, warm.z);
+                tangentTwoImpulse[c] = dot(tangentTwo, c, warm.x, warm.y, warm.z);
+            }
+            else
+            {
+                normalImpulse[c] = 0.0f;
+                tangentOneImpulse[c] = 0.0f;
+                tangentTwoImpulse[c] = 0.0f;
+            }
+        }
+    }
+
+    /**
+     * Apply the impulse each active contact picked up from the manifold cache to the velocities being solved
+     *
+     * @param count
+     */
+    private void warmStart(int count)
+    {
+        for(int c = 0; c < count; c++)
+        {
+            if(active[c])
+            {
+                applyImpulse(c, normal, normalImpulse[c], velocity, rotation);
+                applyImpulse(c, tangentOne, tangentOneImpulse[c], velocity, rotation);
+                applyImpulse(c, tangentTwo, tangentTwoImpulse[c], velocity, rotation);
+            }
+        }
+    }
+
+    /**
+     * Greedily give each active contact the lowest colour not yet used by either of its moving bodies, then sort the contacts by colour
+     * Immovable bodies are never written to while solving, so they do not count towards the colours
+     *
+     * @param count
+     */
+    private void colourContacts(int count)
+    {
+        if(bodyColours.length < bodyCount)
+        {
+            bodyColours = new long[Math.max(bodyCount, bodyColours.length * 2)];
+        }
+        Arrays.fill(bodyColours, 0, bodyCount, 0L);
+        Arrays.fill(colourStart, 0);
+
+        for(int c = 0; c < count; c++)
+        {
+            if(!active[c])
+            {
+                contactColour[c] = -1;
+                continue;
+            }
+
+            long used = bodyColours[bodyA[c]] | bodyColours[bodyB[c]];
+            int colour = used == -1L ? SHARED_COLOUR : Long.numberOfTrailingZeros(~used);
+            if(colour != SHARED_COLOUR)
+            {
+                if(bodyA[c] != 0)
+                {
+                    bodyColours[bodyA[c]] |= 1L << colour;
+                }
+                if(bodyB[c] != 0)
+                {
+                    bodyColours[bodyB[c]] |= 1L << colour;
+                }
+            }
+            contactColour[c] = colour;
+            colourStart[colour + 1]++;
+        }
+
+        for(int colour = 0; colour <= SHARED_COLOUR; colour++)
+        {
+            colourStart[colour + 1] += colourStart[colour];
+        }
+
+        //colourOrder is filled by counting each colour up from its start in a copy of the starts kept between frames
+        System.arraycopy(colourStart, 0, colourCursor, 0, SHARED_COLOUR + 1);
+        for(int c = 0; c < count; c++)
+        {
+            if(contactColour[c] != -1)
+            {
+                colourOrder[colourCursor[contactColour[c]]++] = c;
+            }
+        }
+    }
+
+    /**
+     * Sweep every colour once, handing large colours to the pool as their contacts do not share a moving body
+     *
+     * @param pass
+     */
+    private void sweepColours(int pass)
+    {
+        for(int colour = 0; colour <= SHARED_COLOUR; colour++)
+        {
+            int first = colourStart[colour];
+            int last = colourStart[colour + 1];
+            if(pool != null && colour != SHARED_COLOUR && last - first > COLOUR_TASK_CONTACTS)
+            {
+                colourTask.setRange(first, last, pass);
+                pool.invoke(colourTask);
+            }
+            else
+            {
+                solveRange(first, last, pass);
+            }
+        }
+    }
+
+    /**
+     * Solve the contacts between two positions of the colour order, called from the colour tasks
+     *
+     * @param first
+     * @param last
+     * @param pass
+     */
+    void solveRange(int first, int last, int pass)
+    {
+        for(int k = first; k < last; k++)
+        {
+            int c = colourOrder[k];
+            if(pass == VELOCITY_PASS)
+            {
+                solveFriction(c);
+                solveNormal(c);
+            }
+            else
+            {
+                solveSplit(c);
+            }
+        }
+    }
+
+    private void solveNormal(int c)
+    {
+        float closing = relativeVelocity(c, normal, velocity, rotation);
+        float impulse = normalMass[c] * (velocityBias[c] - closing);
+
+        float total = Math.max(normalImpulse[c] + impulse, 0.0f);
+        impulse = total - normalImpulse[c];
+        normalImpulse[c] = total;
+
+        applyImpulse(c, normal, impulse, velocity, rotation);
+    }
+
+    private void solveFriction(int c)
+    {
+        float limit = friction[c] * normalImpulse[c];
+        if(limit <= 0.0f)
+        {
+            return;
+        }
+
+        float one = tangentOneImpulse[c] - tangentOneMass[c] * relativeVelocity(c, tangentOne, velocity, rotation);
+        float two = tangentTwoImpulse[c] - tangentTwoMass[c] * relativeVelocity(c, tangentTwo, velocity, rotation);
+
+        //keep the friction impulse inside the cone set by the normal impulse
+        float magnitude = (float)Math.sqrt(one * one + two * two);
+        if(magnitude > limit)
+        {
+            one *= limit / magnitude;
+            two *= limit / magnitude;
+        }
+
+        applyImpulse(c, tangentOne, one - tangentOneImpulse[c], velocity, rotation);
+        applyImpulse(c, tangentTwo, two - tangentTwoImpulse[c], velocity, rotation);
+        tangentOneImpulse[c] = one;
+        tangentTwoImpulse[c] = two;
+    }
+
+    private void solveSplit(int c)
+    {
+        float closing = relativeVelocity(c, normal, pseudoVelocity, pseudoRotation);
+        float impulse = normalMass[c] * (positionBias[c] - closing);
+
+        float total = Math.max(splitImpulse[c] + impulse, 0.0f);
+        impulse = total - splitImpulse[c];
+        splitImpulse[c] = total;
+
+        applyImpulse(c, normal, impulse, pseudoVelocity, pseudoRotation);
+    }
+
+    /**
+     * Get the velocity of the first body relative to the second at a contact, along a direction
+     *
+     * @param c
+     * @param direction
+     * @param linear
+     * @param angular
+     * @return
+     */
+    private float relativeVelocity(int c, float[] direction, float[] linear, float[] angular)
+    {
+        int a = bodyA[c] * 3;
+        int b = bodyB[c] * 3;
+        int r = c * 3;
+
+        float x = linear[a] + angular[a + 1] * relativeA[r + 2] - angular[a + 2] * relativeA[r + 1]
+                - linear[b] - (angular[b + 1] * relativeB[r + 2] - angular[b + 2] * relativeB[r + 1]);
+        float y = linear[a + 1] + angular[a + 2] * relativeA[r] - angular[a] * relativeA[r + 2]
+                - linear[b + 1] - (angular[b + 2] * relativeB[r] - angular[b] * relativeB[r + 2]);
+        float z = linear[a + 2] + angular[a] * relativeA[r + 1] - angular[a + 1] * relativeA[r]
+                - linear[b + 2] - (angular[b] * relativeB[r + 1] - angular[b + 1] * relativeB[r]);
+
+        return dot(direction, c, x, y, z);
+    }
+
+    /**
+     * Apply an impulse along a direction to the first body of a contact and the opposite impulse to the second
+     *
+     * @param c
+     * @param direction
+     * @param impulse
+     * @param linear
+     * @param angular
+     */
+    private void applyImpulse(int c, float[] direction, float impulse, float[] linear, float[] angular)
+    {
+        int r = c * 3;
+        float px = direction[r] * impulse;
+        float py = direction[r + 1] * impulse;
+        float pz = direction[r + 2] * impulse;
+
+        applyBodyImpulse(bodyA[c], relativeA, r, px, py, pz, linear, angular);
+        applyBodyImpulse(bodyB[c], relativeB, r, -px, -py, -pz, linear, angular);
+    }
+
+    private void applyBodyImpulse(int body, float[] relative, int r, float px, float py, float pz, float[] linear, float[] angular)
+    {
+        if(body == 0)
+        {
+            return;
+        }
+
+        int v = body * 3;
+        float mass = inverseMass[body];
+        linear[v] += px * mass;
+        linear[v + 1] += py * mass;
+        linear[v + 2] += pz * mass;
+
+        float tx = relative[r + 1] * pz - relative[r + 2] * py;
+        float ty = relative[r + 2] * px - relative[r] * pz;
+        float tz = relative[r] * py - relative[r + 1] * px;
+        int m = body * 9;
+        angular[v] += inverseInertia[m] * tx + inverseInertia[m + 1] * ty + inverseInertia[m + 2] * tz;
+        angular[v + 1] += inverseInertia[m + 3] * tx + inverseInertia[m + 4] * ty + inverseInertia[m + 5] * tz;
+        angular[v + 2] += inverseInertia[m + 6] * tx + inverseInertia[m + 7] * ty + inverseInertia[m + 8] * tz;
+    }
+
+    /**
+     * Get the change in relative velocity along a direction caused by a unit impulse along it
+     *
+     * @param c
+     * @param direction
+     * @return
+     */
+    private float effectiveMass(int c, float[] direction)
+    {
+        int r = c * 3;
+        float total = inverseMass[bodyA[c]] + inverseMass[bodyB[c]];
+        total += angularMass(bodyA[c], relativeA, r, direction);
+        total += angularMass(bodyB[c], relativeB, r, direction);
+        return total;
+    }
+
+    private float angularMass(int body, float[] relative, int r, float[] direction)
+    {
+        float cx = relative[r + 1] * direction[r + 2] - relative[r + 2] * direction[r + 1];
+        float cy = relative[r + 2] * direction[r] - relative[r] * direction[r + 2];
+        float cz = relative[r] * direction[r + 1] - relative[r + 1] * direction[r];
+
+        int m = body * 9;
+        float ix = inverseInertia[m] * cx + inverseInertia[m + 1] * cy + inverseInertia[m + 2] * cz;
+        float iy = inverseInertia[m + 3] * cx + inverseInertia[m + 4] * cy + inverseInertia[m + 5] * cz;
+        float iz = inverseInertia[m + 6] * cx + inverseInertia[m + 7] * cy + inverseInertia[m + 8] * cz;
+
+        //(I * (r x d)) x r . d is the same as (r x d) . I * (r x d)
+        return cx * ix + cy * iy + cz * iz;
+    }
+
+    /**
+     * Write the total impulse of each contact back so the manifold cache can carry it into the next frame
+     *
+     * @param contacts
+     */
+    private void storeContacts(ArrayList<Contact> contacts)
+    {
+        for(int c = 0; c < contacts.size(); c++)
+        {
+            int r = c * 3;
+            float n = normalImpulse[c];
+            float one = tangentOneImpulse[c];
+            float two = tangentTwoImpulse[c];
+            contacts.get(c).accumulatedImpulse.set(normal[r] * n + tangentOne[r] * one + tangentTwo[r] * two,
+                                                         normal[r + 1] * n + tangentOne[r + 1] * one + tangentTwo[r + 1] * two,
+                                                         normal[r + 2] * n + tangentOne[r + 2] * one + tangentTwo[r + 2] * two);
+        }
+    }
+
+    /**
+     * Copy the solved velocities back to the bodies, and with split impulses move them by their pseudo velocities
+     *
+     * @param duration
+     */
+    private void storeBodies(float duration)
+    {
+        for(int b = 1; b < bodyCount; b++)
+        {
+            Body body = bodies[b];
+            if(!body.getAwake())
+            {
+                bodies[b] = null;
+                continue;
+            }
+
+            System.arraycopy(velocity, b * 3, body.store.velocity, body.index * 3, 3);
+            System.arraycopy(rotation, b * 3, body.store.rotation, body.index * 3, 3);
+
+            if(positionCorrection == PositionCorrection.SPLIT_IMPULSE)
+            {
+                Vec move = workingMove.set(pseudoVelocity[b * 3], pseudoVelocity[b * 3 + 1], pseudoVelocity[b * 3 + 2]);
+                Vec turn = workingTurn.set(pseudoRotation[b * 3], pseudoRotation[b * 3 + 1], pseudoRotation[b * 3 + 2]);
+                if(move.squaredMagnitude() > 0.0f || turn.squaredMagnitude() > 0.0f)
+                {
+                    body.getPosition(workingPosition);
+                    body.setPosition(workingPosition.addScaledLocal(move, duration));
+                    body.getOrientation(workingOrientation);
+                    body.setOrientation(workingOrientation.addScaledLocal(turn, duration));
+                    body.calculateDerivedData();
+                }
+            }
+            bodies[b] = null;
+        }
+    }
+
+    private void clearBody(int b)
+    {
+        bodies[b] = null;
+        inverseMass[b] = 0.0f;
+        Arrays.fill(inverseInertia, b * 9, b * 9 + 9, 0.0f);
+        Arrays.fill(velocity, b * 3, b * 3 + 3, 0.0f);
+        Arrays.fill(rotation, b * 3, b * 3 + 3, 0.0f);
+        Arrays.fill(pseudoVelocity, b * 3, b * 3 + 3, 0.0f);
+        Arrays.fill(pseudoRotation, b * 3, b * 3 + 3, 0.0f);
+    }
+
+    private void allocateBodies(int capacity)
+    {
+        bodies = Arrays.copyOf(bodies, capacity);
+        inverseMass = Arrays.copyOf(inverseMass, capacity);
+        inverseInertia = Arrays.copyOf(inverseInertia, capacity * 9);
+        velocity = Arrays.copyOf(velocity, capacity * 3);
+        rotation = Arrays.copyOf(rotation, capacity * 3);
+        pseudoVelocity = Arrays.copyOf(pseudoVelocity, capacity * 3);
+        pseudoRotation = Arrays.copyOf(pseudoRotation, capacity * 3);
+    }
+
+    private void allocateContacts(int capacity)
+    {
+        active = new boolean[capacity];
+        bodyA = new int[capacity];
+        bodyB = new int[capacity];
+        relativeA = new float[capacity * 3];
+        relativeB = new float[capacity * 3];
+        normal = new float[capacity * 3];
+        tangentOne = new float[capacity * 3];
+        tangentTwo = new float[capacity * 3];
+        normalMass = new float[capacity];
+        tangentOneMass = new float[capacity];
+        tangentTwoMass = new float[capacity];
+        velocityBias = new float[capacity];
+        positionBias = new float[capacity];
+        friction = new float[capacity];
+        normalImpulse = new float[capacity];
+        tangentOneImpulse = new float[capacity];
+        tangentTwoImpulse = new float[capacity];
+        splitImpulse = new float[capacity];
+        colourOrder = new int[capacity];
+        contactColour = new int[capacity];
+    }
+
+    private static boolean isMovable(Body body)
+    {
+        return body != null && body.getInverseMass() > 0.0f;
+    }
+
+    private static float inverse(float value)
+    {
+        return value > 0.0f ? 1.0f / value : 0.0f;
+    }
+
+    private static float dot(float[] vectors, int index, float x, float y, float z)
+    {
+        return vectors[index * 3] * x + vectors[index * 3 + 1] * y + vectors[index * 3 + 2] * z;
+    }
+
+    private static void setTriple(float[] vectors, int index, Vec vector)
+    {
+        setTriple(vectors, index, vector.x, vector.y, vector.z);
+    }
+
+    private static void setTriple(float[] vectors, int index, float x, float y, float z)
+    {
+        vectors[index * 3] = x;
+        vectors[index * 3 + 1] = y;
+        vectors[index * 3 + 2] = z;
+    }
+}
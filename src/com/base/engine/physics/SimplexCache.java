@@ -0,0 +1,151 @@
+package com.base.engine.physics;
+
+import java.util.Arrays;
+
+/**
+ * Remembers the simplex GJK ended on for each pair of bodies, as the indices of the vertices of each primitive that made it up
+ * Bodies barely move between frames, so the same vertices nearly always still bound the answer and a query started from them
+ * converges in one or two iterations instead of growing a new simplex from a single point
+ * Entries that are not used for a frame are dropped so pairs that leave the broadphase do not pile up
+ *
+ * @author JordanG
+ */
+public class SimplexCache
+{
+    private PairTable pairs;
+    private int[] firstBody;
+    private int[] count;
+    private int[] oneVertex;                                                    //four vertex indices per slot
+    private int[] twoVertex;
+    private int[] lastFrame;
+    private int frame;
+
+    public long lookups;
+    public long hits;
+
+    /**
+     * Initialise an empty cache
+     */
+    public SimplexCache()
+    {
+        pairs = new PairTable();
+        firstBody = new int[32];
+        count = new int[32];
+        oneVertex = new int[128];
+        twoVertex = new int[128];
+        lastFrame = new int[32];
+    }
+
+    /**
+     * Move on to the next frame, dropping every pair that was not looked up during the last one
+     */
+    public void newFrame()
+    {
+        for(int slot = pairs.size() - 1; slot >= 0; slot--)
+        {
+            if(lastFrame[slot] < frame)
+            {
+                remove(slot);
+            }
+        }
+        frame++;
+    }
+
+    /**
+     * Copy the vertices of the simplex last stored for two bodies in this order
+     *
+     * @param one
+     * @param two
+     * @param oneIndices Filled with up to four vertex indices of the first primitive
+     * @param twoIndices Filled with the matching vertex indices of the second primitive
+     * @return Number of vertices copied, 0 if there is no simplex stored
+     */
+    public int load(Body one, Body two, int[] oneIndices, int[] twoIndices)
+    {
+        lookups++;
+
+        int slot = pairs.find(one.id, two.id);
+        if(slot == -1)
+        {
+            return 0;
+        }
+        lastFrame[slot] = frame;
+        if(firstBody[slot] != one.id)
+        {
+            return 0;
+        }
+
+        hits++;
+        System.arraycopy(oneVertex, slot * 4, oneIndices, 0, count[slot]);
+        System.arraycopy(twoVertex, slot * 4, twoIndices, 0, count[slot]);
+        return count[slot];
+    }
+
+    /**
+     * Store the simplex GJK ended on for two bodies
+     *
+     * @param one
+     * @param two
+     * @param oneIndices
+     * @param twoIndices
+     * @param vertices Number of vertices in the simplex
+     */
+    public void store(Body one, Body two, int[] oneIndices, int[] twoIndices, int vertices)
+    {
+        int slot = pairs.add(one.id, two.id);
+        if(slot == firstBody.length)
+        {
+            firstBody = Arrays.copyOf(firstBody, slot * 2);
+            count = Arrays.copyOf(count, slot * 2);
+            oneVertex = Arrays.copyOf(oneVertex, slot * 8);
+            twoVertex = Arrays.copyOf(twoVertex, slot * 8);
+            lastFrame = Arrays.copyOf(lastFrame, slot * 2);
+        }
+        firstBody[slot] = one.id;
+        count[slot] = vertices;
+        System.arraycopy(oneIndices, 0, oneVertex, slot * 4, vertices);
+        System.arraycopy(twoIndices, 0, twoVertex, slot * 4, vertices);
+        lastFrame[slot] = frame;
+    }
+
+    /**
+     * Get the share of lookups that found a simplex to start from
+     *
+     * @return
+     */
+    public float getHitRate()
+    {
+        return lookups == 0 ? 0.0f : (float)hits / lookups;
+    }
+
+    /**
+     * Reset the hit rate counters
+     */
+    public void resetCounters()
+    {
+        lookups = 0;
+        hits = 0;
+    }
+
+    /**
+     * Get the number of pairs with a stored simplex
+     *
+     * @return
+     */
+    public int size()
+    {
+        return pairs.size();
+    }
+
+    private void remove(int slot)
+    {
+        pairs.remove(pairs.getFirst(slot), pairs.getSecond(slot));
+
+        int last = pairs.size();
+        firstBody[slot] = firstBody[last];
+        count[slot] = count[last];
+        System.arraycopy(oneVertex, last * 4, oneVertex, slot * 4, 4);
+        System.arraycopy(twoVertex, last * 4, twoVertex, slot * 4, 4);
+        lastFrame[slot] = lastFrame[last];
+    }
+}
@@ -0,0 +1,100 @@
+package com.base.engine.physics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Triple buffer of body snapshots handing the state of each physics step from the physics thread to the render thread without locks
+ * The writer captures into its back snapshot and swaps it with the shared one, the reader swaps in the shared one whenever a newer one is waiting
+ * Neither side ever waits for the other, and the reader always sees a whole step, never a step that is still being captured
+ * The reader also keeps the snapshot it had before the latest, a fourth buffer, so it can interpolate between the two
+ *
+ * @author JordanG
+ */
+public class SnapshotBuffer
+{
+    private static final int FRESH = 4;                                         //set on the shared index while it holds a snapshot the reader has not taken
+    private static final int INDEX = 3;
+
+    private final BodySnapshot[] snapshots;
+    private final AtomicInteger shared;
+    private int back;                                                           //only touched by the writer
+    private int front;                                                          //only touched by the reader
+    private int previous;                                                       //only touched by the reader
+
+    //steps published and snapshots taken, for checking how many steps the renderer skips
+    public volatile long published;
+    public long acquired;
+
+    /**
+     * Initialise the buffer with room for the specified number of bodies in each snapshot, the snapshots grow if more are added
+     *
+     * @param capacity
+     */
+    public SnapshotBuffer(int capacity)
+    {
+        snapshots = new BodySnapshot[] {new BodySnapshot(capacity), new BodySnapshot(capacity), new BodySnapshot(capacity), new BodySnapshot(capacity)};
+        back = 0;
+        shared = new AtomicInteger(1);
+        front = 2;
+        previous = 3;
+    }
+
+    /**
+     * Capture the bodies of the store and make them the latest snapshot, called by the physics thread after each step
+     *
+     * @param store
+     * @param fraction Time left in the step clock after the step, as a fraction of a step
+     * @param timeScale How much slower than real time the step clock is running
+     */
+    public void publish(BodyStore store, float fraction, float timeScale)
+    {
+        snapshots[back].capture(store, fraction, timeScale);
+        back = shared.getAndSet(back | FRESH) & INDEX;
+        published++;
+    }
+
+    /**
+     * Get the latest published snapshot, called by the render thread once per frame
+     * The snapshot returned is not written to until the call after next, and is empty until the first step has been published
+     *
+     * @return
+     */
+    public BodySnapshot acquire()
+    {
+        if((shared.get() & FRESH) != 0)
+        {
+            int latest = shared.getAndSet(previous) & INDEX;
+            previous = front;
+            front = latest;
+            acquired++;
+        }
+        return snapshots[front];
+    }
+
+    /**
+     * Get the snapshot the reader had before the one last acquired, empty until two steps have been acquired
+     *
+     * @return
+     */
+    public BodySnapshot getPrevious()
+    {
+        return snapshots[previous];
+    }
+
+    /**
+     * Get how far between the previous and the latest acquired snapshots the bodies should be drawn at a time, from 0 to 1
+     * This is the time left in the step clock when the latest snapshot was published, as a fraction of a step,
+     * plus the time the clock has gathered since at the rate it was running, so catch-up steps published back to back
+     * and a dilated clock still give how far the clock is towards its next step
+     *
+     * @param now System time in nanoseconds
+     * @param stepTime Nanoseconds between steps of the clock
+     * @return
+     */
+    public float getAlpha(long now, long stepTime)
+    {
+        BodySnapshot latest = snapshots[front];
+        float alpha = latest.getFraction() + (now - latest.getTime()) * latest.getTimeScale() / stepTime;
+        return Math.max(0.0f, Math.min(1.0f, alpha));
+    }
+}
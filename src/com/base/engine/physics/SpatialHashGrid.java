@@ -0,0 +1,267 @@
+package com.base.engine.physics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Uniform spatial hash grid broadphase
+ * Every primitive is bucketed into each cell its world bounding box touches and only primitives sharing a cell are paired up
+ * Works best when the cell size is a little larger than the typical object, as one huge object touches a lot of cells
+ *
+ * @author JordanG
+ */
+public class SpatialHashGrid implements Broadphase
+{
+    private float cellSize;
+    private float inverseCellSize;
+
+    private ArrayList<CollisionPrimitive> primitives;
+    private BoundingBox bounds;
+
+    //world bounds of each primitive, indexed in the same order as the primitive list
+    private float[] minX, minY, minZ, maxX, maxY, maxZ;
+
+    //hash table of cell entries, each bucket is a linked list running through the entry arrays
+    private int[] bucketHead;
+    private int[] entryNext;
+    private int[] entryPrimitive;
+    private int[] entryCellX, entryCellY, entryCellZ;
+    private int entryCount;
+
+    public int pairsTested;
+    public int potentialContactCount;
+
+    /**
+     * Initialise an empty grid
+     *
+     * @param cellSize Width of each cubic cell in world units
+     */
+    public SpatialHashGrid(float cellSize)
+    {
+        primitives = new ArrayList<CollisionPrimitive>();
+        bounds = new BoundingBox();
+
+        setCellSize(cellSize);
+
+        minX = new float[16];
+        minY = new float[16];
+        minZ = new float[16];
+        maxX = new float[16];
+        maxY = new float[16];
+        maxZ = new float[16];
+
+        bucketHead = new int[64];
+        entryNext = new int[64];
+        entryPrimitive = new int[64];
+        entryCellX = new int[64];
+        entryCellY = new int[64];
+        entryCellZ = new int[64];
+    }
+
+    /**
+     * Set the width of the grid cells, takes effect on the next update
+     *
+     * @param cellSize
+     */
+    public final void setCellSize(float cellSize)
+    {
+        if(cellSize <= 0.0f)
+        {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+        inverseCellSize = 1.0f / cellSize;
+    }
+
+    /**
+     * Get the width of the grid cells
+     *
+     * @return
+     */
+    public float getCellSize()
+    {
+        return cellSize;
+    }
+
+    @Override
+    public void insert(CollisionPrimitive primitive)
+    {
+        primitives.add(primitive);
+    }
+
+    @Override
+    public void remove(CollisionPrimitive primitive)
+    {
+        primitives.remove(primitive);
+    }
+
+    /**
+     * Recalculate the bounds of every primitive and rebuild the hash table from scratch
+     */
+    @Override
+    public void update()
+    {
+        int count = primitives.size();
+        if(minX.length < count)
+        {
+            int capacity = Math.max(count, minX.length * 2);
+            minX = Arrays.copyOf(minX, capacity);
+            minY = Arrays.copyOf(minY, capacity);
+            minZ = Arrays.copyOf(minZ, capacity);
+            maxX = Arrays.copyOf(maxX, capacity);
+            maxY = Arrays.copyOf(maxY, capacity);
+            maxZ = Arrays.copyOf(maxZ, capacity);
+        }
+
+        entryCount = 0;
+        for(int i = 0; i < count; i++)
+        {
+            primitives.get(i).calculateBoundingBox(bounds);
+            minX[i] = bounds.min.x;
+            minY[i] = bounds.min.y;
+            minZ[i] = bounds.min.z;
+            maxX[i] = bounds.max.x;
+            maxY[i] = bounds.max.y;
+            maxZ[i] = bounds.max.z;
+
+            entryCount += (cell(maxX[i]) - cell(minX[i]) + 1) * (cell(maxY[i]) - cell(minY[i]) + 1) * (cell(maxZ[i]) - cell(minZ[i]) + 1);
+        }
+
+        //keep the table at least twice the size of the entry count so the buckets stay short
+        int tableSize = bucketHead.length;
+        while(tableSize < entryCount * 2)
+        {
+            tableSize *= 2;
+        }
+        if(tableSize != bucketHead.length)
+        {
+            bucketHead = new int[tableSize];
+        }
+        if(entryNext.length < entryCount)
+        {
+            int capacity = Math.max(entryCount, entryNext.length * 2);      //grown by doubling so a count that creeps up does not reallocate every step
+            entryNext = new int[capacity];
+            entryPrimitive = new int[capacity];
+            entryCellX = new int[capacity];
+            entryCellY = new int[capacity];
+            entryCellZ = new int[capacity];
+        }
+        Arrays.fill(bucketHead, -1);
+
+        int entry = 0;
+        for(int i = 0; i < count; i++)
+        {
+            int startX = cell(minX[i]), endX = cell(maxX[i]);
+            int startY = cell(minY[i]), endY = cell(maxY[i]);
+            int startZ = cell(minZ[i]), endZ = cell(maxZ[i]);
+
+            for(int x = startX; x <= endX; x++)
+            {
+                for(int y = startY; y <= endY; y++)
+                {
+                    for(int z = startZ; z <= endZ; z++)
+                    {
+                        int bucket = hash(x, y, z);
+                        entryPrimitive[entry] = i;
+                        entryCellX[entry] = x;
+                        entryCellY[entry] = y;
+                        entryCellZ[entry] = z;
+                        entryNext[entry] = bucketHead[bucket];
+                        bucketHead[bucket] = entry;
+                        entry++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Pair up every overlapping primitive that shares a cell
+     * A pair spanning several shared cells is only reported from the cell holding the minimum corner of their overlap
+     *
+     * @param contacts
+     * @return
+     */
+    @Override
+    public int findPotentialContacts(ArrayList<PotentialContact> contacts)
+    {
+        pairsTested = 0;
+        potentialContactCount = 0;
+
+        for(int bucket = 0; bucket < bucketHead.length; bucket++)
+        {
+            for(int a = bucketHead[bucket]; a != -1; a = entryNext[a])
+            {
+                for(int b = entryNext[a]; b != -1; b = entryNext[b])
+                {
+                    //different cells can hash into the same bucket
+                    if(entryCellX[a] != entryCellX[b] || entryCellY[a] != entryCellY[b] || entryCellZ[a] != entryCellZ[b])
+                    {
+                        continue;
+                    }
+
+                    int one = entryPrimitive[a];
+                    int two = entryPrimitive[b];
+                    pairsTested++;
+
+                    if(minX[one] > maxX[two] || maxX[one] < minX[two] || minY[one] > maxY[two] || maxY[one] < minY[two] || minZ[one] > maxZ[two] || maxZ[one] < minZ[two])
+                    {
+                        continue;
+                    }
+
+                    if(entryCellX[a] != cell(Math.max(minX[one], minX[two])) || entryCellY[a] != cell(Math.max(minY[one], minY[two])) || entryCellZ[a] != cell(Math.max(minZ[one], minZ[two])))
+                    {
+                        continue;
+                    }
+
+                    //keep the pair in insertion order so results do not depend on the hash layout
+                    if(one > two)
+                    {
+                        int temp = one;
+                        one = two;
+                        two = temp;
+                    }
+                    PotentialContact.obtain(contacts, potentialContactCount).set(primitives.get(one), primitives.get(two));
+                    potentialContactCount++;
+                }
+            }
+        }
+
+        return potentialContactCount;
+    }
+
+    /**
+     * Get the number of pairs a brute-force test of every primitive against every other would check, for comparison with the grid's counts
+     *
+     * @return
+     */
+    public int getBruteForcePairCount()
+    {
+        int count = primitives.size();
+        return count * (count - 1) / 2;
+    }
+
+    /**
+     * Get the cell index of a world co-ordinate along one axis
+     *
+     * @param value
+     * @return
+     */
+    private int cell(float value)
+    {
+        return (int)Math.floor(value * inverseCellSize);
+    }
+
+    /**
+     * Hash a cell co-ordinate into a bucket of the table
+     *
+     * @param x
+     * @param y
+     * @param z
+     * @return
+     */
+    private int hash(int x, int y, int z)
+    {
+        return ((x * 73856093) ^ (y * 19349663) ^ (z * 83492791)) & (bucketHead.length - 1);
+    }
+}
@@ -0,0 +1,349 @@
+package com.base.engine.physics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Incremental sweep-and-prune broadphase
+ * Keeps the bound endpoints of every primitive sorted along the three world axes between frames
+ * As objects only move a little each frame the arrays are already nearly sorted, so an insertion sort restores them in close to linear time
+ * Overlapping pairs are tracked persistently and only change when two endpoints swap places during the sort
+ *
+ * @author JordanG
+ */
+public class SweepAndPrune implements Broadphase
+{
+    private static final int MIN = 0;
+    private static final int MAX = 1;
+
+    private BoundingBox bounds;
+    private BroadphaseListener listener;
+
+    //per-proxy data, each proxy has six bounds and six endpoint positions ordered as axis * 2 + MIN/MAX
+    private CollisionPrimitive[] proxyPrimitive;
+    private float[] proxyBounds;
+    private int[] proxyEndpoint;
+    private int proxyCount;
+    private int[] freeProxies;
+    private int freeCount;
+
+    //sorted endpoints along each axis, each one encoded as proxy * 2 + MIN/MAX
+    private int[][] endpoints;
+    private float[][] values;
+    private int endpointCount;
+
+    private PairTable pairs;
+
+    public int swaps;
+    public int pairsAdded;
+    public int pairsRemoved;
+
+    /**
+     * Initialise an empty broadphase
+     */
+    public SweepAndPrune()
+    {
+        bounds = new BoundingBox();
+
+        proxyPrimitive = new CollisionPrimitive[16];
+        proxyBounds = new float[16 * 6];
+        proxyEndpoint = new int[16 * 6];
+        freeProxies = new int[16];
+
+        endpoints = new int[3][32];
+        values = new float[3][32];
+
+        pairs = new PairTable();
+    }
+
+    /**
+     * Set the listener that is told about every pair as it starts and stops overlapping
+     *
+     * @param listener
+     */
+    public void setListener(BroadphaseListener listener)
+    {
+        this.listener = listener;
+    }
+
+    /**
+     * Add a primitive and sort its endpoints into place, which finds every pair it already overlaps
+     *
+     * @param primitive
+     */
+    @Override
+    public void insert(CollisionPrimitive primitive)
+    {
+        int proxy = allocateProxy();
+        proxyPrimitive[proxy] = primitive;
+        calculateBounds(proxy);
+
+        if(endpointCount + 2 > endpoints[0].length)
+        {
+            for(int axis = 0; axis < 3; axis++)
+            {
+                endpoints[axis] = Arrays.copyOf(endpoints[axis], endpoints[axis].length * 2);
+                values[axis] = Arrays.copyOf(values[axis], values[axis].length * 2);
+            }
+        }
+
+        for(int axis = 0; axis < 3; axis++)
+        {
+            for(int side = MIN; side <= MAX; side++)
+            {
+                int index = endpointCount + side;
+                endpoints[axis][index] = proxy * 2 + side;
+                values[axis][index] = proxyBounds[proxy * 6 + axis * 2 + side];
+                proxyEndpoint[proxy * 6 + axis * 2 + side] = index;
+            }
+        }
+        endpointCount += 2;
+
+        //sort the min first so the max never has to move past its own min
+        for(int axis = 0; axis < 3; axis++)
+        {
+            sortDown(axis, endpointCount - 2);
+            sortDown(axis, endpointCount - 1);
+        }
+    }
+
+    /**
+     * Remove a primitive, dropping every pair it was part of
+     *
+     * @param primitive
+     */
+    @Override
+    public void remove(CollisionPrimitive primitive)
+    {
+        int proxy = findProxy(primitive);
+        if(proxy == -1)
+        {
+            return;
+        }
+
+        for(int slot = pairs.size() - 1; slot >= 0; slot--)
+        {
+            int one = pairs.getFirst(slot);
+            int two = pairs.getSecond(slot);
+            if(one == proxy || two == proxy)
+            {
+                removePair(one, two);
+            }
+        }
+
+        for(int axis = 0; axis < 3; axis++)
+        {
+            int[] axisEndpoints = endpoints[axis];
+            float[] axisValues = values[axis];
+            int write = 0;
+            for(int read = 0; read < endpointCount; read++)
+            {
+                if(axisEndpoints[read] / 2 == proxy)
+                {
+                    continue;
+                }
+                axisEndpoints[write] = axisEndpoints[read];
+                axisValues[write] = axisValues[read];
+                proxyEndpoint[(axisEndpoints[write] / 2) * 6 + axis * 2 + (axisEndpoints[write] & 1)] = write;
+                write++;
+            }
+        }
+        endpointCount -= 2;
+
+        proxyPrimitive[proxy] = null;
+        freeProxies[freeCount++] = proxy;
+    }
+
+    /**
+     * Recalculate the bounds of every primitive and restore the sort order of each axis
+     */
+    @Override
+    public void update()
+    {
+        swaps = 0;
+        pairsAdded = 0;
+        pairsRemoved = 0;
+
+        for(int proxy = 0; proxy < proxyCount; proxy++)
+        {
+            if(proxyPrimitive[proxy] == null)
+            {
+                continue;
+            }
+            calculateBounds(proxy);
+            for(int axis = 0; axis < 3; axis++)
+            {
+                values[axis][proxyEndpoint[proxy * 6 + axis * 2 + MIN]] = proxyBounds[proxy * 6 + axis * 2 + MIN];
+                values[axis][proxyEndpoint[proxy * 6 + axis * 2 + MAX]] = proxyBounds[proxy * 6 + axis * 2 + MAX];
+            }
+        }
+
+        for(int axis = 0; axis < 3; axis++)
+        {
+            for(int i = 1; i < endpointCount; i++)
+            {
+                sortDown(axis, i);
+            }
+        }
+    }
+
+    /**
+     * Write out the pairs currently being tracked
+     *
+     * @param contacts
+     * @return
+     */
+    @Override
+    public int findPotentialContacts(ArrayList<PotentialContact> contacts)
+    {
+        int count = pairs.size();
+        for(int slot = 0; slot < count; slot++)
+        {
+            PotentialContact.obtain(contacts, slot).set(proxyPrimitive[pairs.getFirst(slot)], proxyPrimitive[pairs.getSecond(slot)]);
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of pairs currently being tracked
+     *
+     * @return
+     */
+    public int getPairCount()
+    {
+        return pairs.size();
+    }
+
+    /**
+     * Move the endpoint at the specified index down the axis until it is in order, updating the pairs it passes
+     *
+     * @param axis
+     * @param index
+     */
+    private void sortDown(int axis, int index)
+    {
+        int[] axisEndpoints = endpoints[axis];
+        float[] axisValues = values[axis];
+
+        int endpoint = axisEndpoints[index];
+        float value = axisValues[index];
+        int proxy = endpoint / 2;
+        int side = endpoint & 1;
+
+        int i = index;
+        while(i > 0 && axisValues[i - 1] > value)
+        {
+            int other = axisEndpoints[i - 1];
+            int otherProxy = other / 2;
+
+            if(otherProxy != proxy)
+            {
+                if(side == MIN && (other & 1) == MAX)
+                {
+                    //a min moving below a max means the two might have started overlapping
+                    if(overlaps(proxy, otherProxy))
+                    {
+                        addPair(proxy, otherProxy);
+                    }
+                }
+                else if(side == MAX && (other & 1) == MIN)
+                {
+                    //a max moving below a min means the two are now separated along this axis
+                    removePair(proxy, otherProxy);
+                }
+            }
+
+            axisEndpoints[i] = other;
+            axisValues[i] = axisValues[i - 1];
+            proxyEndpoint[otherProxy * 6 + axis * 2 + (other & 1)] = i;
+            i--;
+            swaps++;
+        }
+
+        axisEndpoints[i] = endpoint;
+        axisValues[i] = value;
+        proxyEndpoint[proxy * 6 + axis * 2 + side] = i;
+    }
+
+    private boolean overlaps(int one, int two)
+    {
+        for(int axis = 0; axis < 3; axis++)
+        {
+            if(proxyBounds[one * 6 + axis * 2 + MIN] > proxyBounds[two * 6 + axis * 2 + MAX] || proxyBounds[one * 6 + axis * 2 + MAX] < proxyBounds[two * 6 + axis * 2 + MIN])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addPair(int one, int two)
+    {
+        int count = pairs.size();
+        if(pairs.add(one, two) == count)
+        {
+            pairsAdded++;
+            if(listener != null)
+            {
+                listener.pairAdded(proxyPrimitive[Math.min(one, two)], proxyPrimitive[Math.max(one, two)]);
+            }
+        }
+    }
+
+    private void removePair(int one, int two)
+    {
+        if(pairs.remove(one, two) != -1)
+        {
+            pairsRemoved++;
+            if(listener != null)
+            {
+                listener.pairRemoved(proxyPrimitive[Math.min(one, two)], proxyPrimitive[Math.max(one, two)]);
+            }
+        }
+    }
+
+    /**
+     * Store the current world bounds of a proxy's primitive
+     *
+     * @param proxy
+     */
+    private void calculateBounds(int proxy)
+    {
+        proxyPrimitive[proxy].calculateBoundingBox(bounds);
+        proxyBounds[proxy * 6] = bounds.min.x;
+        proxyBounds[proxy * 6 + 1] = bounds.max.x;
+        proxyBounds[proxy * 6 + 2] = bounds.min.y;
+        proxyBounds[proxy * 6 + 3] = bounds.max.y;
+        proxyBounds[proxy * 6 + 4] = bounds.min.z;
+        proxyBounds[proxy * 6 + 5] = bounds.max.z;
+    }
+
+    private int allocateProxy()
+    {
+        if(freeCount > 0)
+        {
+            return freeProxies[--freeCount];
+        }
+        if(proxyCount == proxyPrimitive.length)
+        {
+            int capacity = proxyCount * 2;
+            proxyPrimitive = Arrays.copyOf(proxyPrimitive, capacity);
+            proxyBounds = Arrays.copyOf(proxyBounds, capacity * 6);
+            proxyEndpoint = Arrays.copyOf(proxyEndpoint, capacity * 6);
+            freeProxies = Arrays.copyOf(freeProxies, capacity);
+        }
+        return proxyCount++;
+    }
+
+    private int findProxy(CollisionPrimitive primitive)
+    {
+        for(int proxy = 0; proxy < proxyCount; proxy++)
+        {
+            if(proxyPrimitive[proxy] == primitive)
+            {
+                return proxy;
+            }
+        }
+        return -1;
+    }
+}
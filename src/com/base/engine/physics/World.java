@@ -0,0 +1,449 @@
+package com.base.engine.physics;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Holds every body of a simulation along with the broadphase, detector, solver and islands that step them
+ * Nothing here touches the display, keyboard or sound, so a world can be stepped without a window for batch simulation and benchmarks
+ *
+ * @author JordanG
+ */
+public class World
+{
+    private static final int ITERATIONS_PER_CONTACT = 4;                       //resolver iterations allowed for each contact found this step
+
+    //steps taken and the time spent in each stage of them, for profiling
+    public long steps;
+    public long substeps;
+    public long integrateNanos;
+    public long broadphaseNanos;
+    public long narrowphaseNanos;
+    public long solveNanos;
+    public long pairsTested;                                                    //pairs handed to the narrowphase, timed by narrowphaseNanos as a whole
+
+    private ArrayList<CollisionPrimitive> objects;
+    private BodyStore bodies;
+    private ForceRegistry forceRegistry;
+    private CollisionDetector detector;
+    private CollisionData collisionData;
+    private ArrayList<PotentialContact> potentialContacts;
+    private ContinuousCollision continuous;
+    private boolean convexBoxes;                                                //box pairs go through GJK and EPA as well, for comparing the two
+    private Broadphase broadphase;
+    private ContactSolver solver;
+    private IslandManager islands;
+    private ForkJoinPool solverPool;
+
+    //adaptive substepping, off while maxSubsteps is 1
+    private int maxSubsteps = 1;
+    private float maxTravel = 0.25f;                                            //furthest a body should move in one substep
+    private float maxPenetration = 0.1f;                                        //deepest penetration a substep should leave for the solver
+    private float deepestPenetration;
+    private int lastSubsteps = 1;
+
+    /**
+     * Initialise an empty world with a spatial hash grid, the worst-first contact resolver and one solver thread per processor
+     */
+    public World()
+    {
+        objects = new ArrayList<CollisionPrimitive>();
+        bodies = new BodyStore();
+        forceRegistry = new ForceRegistry();
+        islands = new IslandManager();
+        ContactResolver resolver = new ContactResolver(1);
+        resolver.setIterationsPerContact(ITERATIONS_PER_CONTACT);
+        setContactSolver(resolver);
+        detector = new CollisionDetector();
+        detector.setAxisCache(new SeparatingAxisCache());
+        detector.setManifoldMode(true);
+        detector.setSimplexCache(new SimplexCache());
+        collisionData = new CollisionData();
+        collisionData.tolerance = 0.1f;
+        potentialContacts = new ArrayList<PotentialContact>();
+        broadphase = new SpatialHashGrid(2.0f);
+
+        setSolverThreads(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Add a primitive to the world, its body should be kept in the store of the world
+     *
+     * @param primitive
+     */
+    public void add(CollisionPrimitive primitive)
+    {
+        objects.add(primitive);
+        broadphase.insert(primitive);
+    }
+
+    /**
+     * Advance the world by the specified duration, in several smaller substeps if adaptive substepping is on and the world is moving fast
+     *
+     * @param duration
+     */
+    public void step(float duration)
+    {
+        int count = chooseSubsteps(duration);
+        for(int substep = 0; substep < count; substep++)
+        {
+            substep(duration / count);
+        }
+        lastSubsteps = count;
+        steps++;
+    }
+
+    /**
+     * Work out how many substeps to split a step into, enough that the fastest awake body moves no further than the travel limit in each
+     * and more again while the deepest penetration found last substep is over the penetration limit
+     *
+     * @param duration
+     * @return
+     */
+    private int chooseSubsteps(float duration)
+    {
+        if(maxSubsteps <= 1)
+        {
+            return 1;
+        }
+
+        float travel = bodies.getMaxSpeed() * duration;
+        int count = Math.max((int)Math.ceil(travel / maxTravel), (int)Math.ceil(deepestPenetration / maxPenetration));
+        return Math.max(1, Math.min(count, maxSubsteps));
+    }
+
+    /**
+     * Advance the world by the specified duration in a single pass
+     * Forces are applied and bodies integrated, then contacts between the boxes of active pairs are found, grouped into islands and resolved
+     *
+     * @param duration
+     */
+    private void substep(float duration)
+    {
+        long start = System.nanoTime();
+        forceRegistry.UpdateForces(duration);
+
+        if(continuous != null)
+        {
+            continuous.begin(bodies);
+        }
+        bodies.integrate(duration);                                             //every body is integrated in one pass over the store
+        for(int i = 0; i < objects.size(); i++)
+        {
+            objects.get(i).calculateInternals();                                //indexed so no iterator is allocated every substep
+        }
+        if(continuous != null)
+        {
+            continuous.sweep(objects);                                          //fast boxes are bounded over their whole move
+        }
+        long integrated = System.nanoTime();
+
+        CollisionData data = collisionData;
+        data.reset();                                                           //contacts of the last step go back to the pool
+        if(detector.getAxisCache() != null)
+        {
+            detector.getAxisCache().newFrame();
+        }
+        if(detector.getSimplexCache() != null)
+        {
+            detector.getSimplexCache().newFrame();
+        }
+        if(solver.getManifoldCache() != null)
+        {
+            solver.getManifoldCache().newFrame();
+        }
+
+        broadphase.update();
+        int pairs = broadphase.findPotentialContacts(potentialContacts);
+        if(continuous != null)
+        {
+            continuous.clamp(potentialContacts, pairs);                         //fast boxes that would pass through something are put back where they hit it
+        }
+        long found = System.nanoTime();
+
+        for(int i = 0; i < pairs; i++)
+        {
+            PotentialContact pair = potentialContacts.get(i);
+            if(!IslandManager.isActive(pair.primitive[0].body) && !IslandManager.isActive(pair.primitive[1].body))
+            {
+                continue;                                                       //neither body can move, so nothing between them can change
+            }
+            pairsTested++;
+            if(convexBoxes || !(pair.primitive[0] instanceof CollisionBox) || !(pair.primitive[1] instanceof CollisionBox))
+            {
+                detector.convexAndConvex(pair.primitive[0], pair.primitive[1], data);  //hulls, and anything paired with one, only have a support mapping to go on
+            }
+            else
+            {
+                detector.boxAndBox((CollisionBox)pair.primitive[0], (CollisionBox)pair.primitive[1], data);
+            }
+        }
+        long detected = System.nanoTime();
+
+        deepestPenetration = 0.0f;
+        for(int i = 0; i < data.contacts.size(); i++)
+        {
+            deepestPenetration = Math.max(deepestPenetration, data.contacts.get(i).penetration);
+        }
+
+        islands.build(objects, data.contacts);
+        islands.solve(solver, duration);
+        long solved = System.nanoTime();
+
+        substeps++;
+        integrateNanos += integrated - start;
+        broadphaseNanos += found - integrated;
+        narrowphaseNanos += detected - found;
+        solveNanos += solved - detected;
+    }
+
+    /**
+     * Split each step into up to the specified number of substeps, picked every step from how fast the bodies move and how deep they are in each other
+     * 1 turns adaptive substepping off, so every step is a single pass
+     *
+     * @param maxSubsteps
+     */
+    public void setAdaptiveSubstepping(int maxSubsteps)
+    {
+        this.maxSubsteps = Math.max(1, maxSubsteps);
+    }
+
+    /**
+     * Set how far a body may move and how deep contacts may get in one substep before the step is split further
+     *
+     * @param maxTravel
+     * @param maxPenetration
+     */
+    public void setSubstepLimits(float maxTravel, float maxPenetration)
+    {
+        this.maxTravel = maxTravel;
+        this.maxPenetration = maxPenetration;
+    }
+
+    /**
+     * Get the number of substeps the last step was split into
+     *
+     * @return
+     */
+    public int getLastSubsteps()
+    {
+        return lastSubsteps;
+    }
+
+    /**
+     * Get the number of pairs the narrowphase tested per second of narrowphase time since the counters were last reset
+     *
+     * @return
+     */
+    public float getPairsPerSecond()
+    {
+        return narrowphaseNanos == 0 ? 0.0f : pairsTested * 1.0e9f / narrowphaseNanos;
+    }
+
+    /**
+     * Reset the step counter and stage timings, and the counters of continuous collision detection
+     */
+    public void resetCounters()
+    {
+        steps = 0;
+        substeps = 0;
+        integrateNanos = 0;
+        broadphaseNanos = 0;
+        narrowphaseNanos = 0;
+        solveNanos = 0;
+        pairsTested = 0;
+        if(continuous != null)
+        {
+            continuous.resetCounters();
+        }
+    }
+
+    /**
+     * Get all primitives in the world
+     *
+     * @return
+     */
+    public ArrayList<CollisionPrimitive> getObjects()
+    {
+        return objects;
+    }
+
+    /**
+     * Get the store the bodies of the world are kept in
+     *
+     * @return
+     */
+    public BodyStore getBodies()
+    {
+        return bodies;
+    }
+
+    /**
+     * Get the contacts found on the last step
+     *
+     * @return
+     */
+    public ArrayList<Contact> getContacts()
+    {
+        return collisionData.contacts;
+    }
+
+    /**
+     * Get the broadphase used to find pairs for the narrowphase
+     *
+     * @return
+     */
+    public Broadphase getBroadphase()
+    {
+        return broadphase;
+    }
+
+    /**
+     * Swap the broadphase used to find pairs for the narrowphase, moving all objects into the new one
+     *
+     * @param broadphase
+     */
+    public void setBroadphase(Broadphase broadphase)
+    {
+        for(CollisionPrimitive go : objects)
+        {
+            this.broadphase.remove(go);
+            broadphase.insert(go);
+        }
+        this.broadphase = broadphase;
+    }
+
+    /**
+     * Set whether pairs of boxes are tested with GJK and EPA like hulls are, instead of the separating axis test
+     * Boxes get a single contact per pair this way rather than a clipped manifold, so this is for benchmarking the two against each other
+     *
+     * @param convexBoxes
+     */
+    public void setConvexBoxes(boolean convexBoxes)
+    {
+        this.convexBoxes = convexBoxes;
+    }
+
+    /**
+     * Set whether boxes moving further than a fraction of their thinnest half size in a step are checked continuously,
+     * so they stop against what they hit instead of passing through it between two steps
+     *
+     * @param enabled
+     */
+    public void setContinuousCollision(boolean enabled)
+    {
+        continuous = enabled ? new ContinuousCollision() : null;
+        if(!enabled)
+        {
+            for(CollisionPrimitive go : objects)
+            {
+                go.clearSweep();
+            }
+        }
+    }
+
+    /**
+     * Get the continuous collision detection of the world, null while it is off
+     *
+     * @return
+     */
+    public ContinuousCollision getContinuousCollision()
+    {
+        return continuous;
+    }
+
+    /**
+     * Get the solver used to resolve contacts
+     *
+     * @return
+     */
+    public ContactSolver getContactSolver()
+    {
+        return solver;
+    }
+
+    /**
+     * Swap the solver used to resolve contacts, either the worst-first ContactResolver or the SequentialImpulseSolver
+     * The new solver is given a fresh manifold cache so impulses from the old one are not carried over
+     *
+     * @param solver
+     */
+    public final void setContactSolver(ContactSolver solver)
+    {
+        solver.setManifoldCache(new ManifoldCache());
+        this.solver = solver;
+        sharePool();
+    }
+
+    /**
+     * Set the number of threads islands, and the colours of large islands, are resolved on, 1 resolves them on the stepping thread
+     * The results are the same whatever the number of threads
+     *
+     * @param threads
+     */
+    public final void setSolverThreads(int threads)
+    {
+        if(solverPool != null)
+        {
+            solverPool.shutdown();
+            solverPool = null;
+        }
+        if(threads > 1)
+        {
+            solverPool = new ForkJoinPool(threads);
+        }
+        islands.setPool(solverPool);
+        sharePool();
+    }
+
+    /**
+     * Hand the solver pool to a sequential impulse solver too, so the colours of a single large island are swept in parallel
+     * The island workers are dropped so they are made again with the pool
+     */
+    private void sharePool()
+    {
+        if(solver instanceof SequentialImpulseSolver)
+        {
+            ((SequentialImpulseSolver) solver).setPool(solverPool);
+        }
+        islands.clearWorkers();
+    }
+
+    /**
+     * Get the islands the bodies were grouped into on the last step
+     *
+     * @return
+     */
+    public IslandManager getIslands()
+    {
+        return islands;
+    }
+
+    /**
+     * Get the narrowphase collision detector
+     *
+     * @return
+     */
+    public CollisionDetector getCollisionDetector()
+    {
+        return detector;
+    }
+
+    /**
+     * Get all forces in the world
+     *
+     * @return
+     */
+    public ForceRegistry getForceRegistry()
+    {
+        return forceRegistry;
+    }
+
+    /**
+     * Stop the solver threads, the world can still be stepped on the calling thread afterwards
+     */
+    public void destroy()
+    {
+        setSolverThreads(1);
+    }
+}
@@ -1,207 +1,273 @@
-package com.base.engine.states;
-
-import com.base.game.Time;
-import java.util.ArrayList;
-import com.base.engine.physics.CollisionBox;
-import com.base.engine.physics.CollisionData;
-import com.base.engine.physics.CollisionDetector;
-import com.base.engine.physics.CollisionPrimitive;
-import com.base.engine.physics.Contact;
-import com.base.engine.physics.ContactResolver;
-import com.base.engine.physics.ForceRegistry;
-import com.base.engine.math.Quaternion;
-import com.base.engine.math.Vec;
-import org.lwjgl.input.Keyboard;
-import org.lwjgl.opengl.Display;
-import static org.lwjgl.opengl.GL11.GL_DEPTH_TEST;
-import static org.lwjgl.opengl.GL11.GL_LEQUAL;
-import static org.lwjgl.opengl.GL11.GL_MODELVIEW;
-import static org.lwjgl.opengl.GL11.GL_PROJECTION;
-import static org.lwjgl.opengl.GL11.GL_SMOOTH;
-import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
-import static org.lwjgl.opengl.GL11.glClearColor;
-import static org.lwjgl.opengl.GL11.glClearDepth;
-import static org.lwjgl.opengl.GL11.glDepthFunc;
-import static org.lwjgl.opengl.GL11.glEnable;
-import static org.lwjgl.opengl.GL11.glLoadIdentity;
-import static org.lwjgl.opengl.GL11.glMatrixMode;
-import static org.lwjgl.opengl.GL11.glShadeModel;
-import org.lwjgl.util.glu.GLU;
-import com.base.engine.physics.Box;
-
-
-/**
- * Represents the game state in the engine loop, handles the update, input and rendering of all objects during this state
- * 
- * @author JordanG
- */
-public class Game
-{   
-    public static Game game;                                                    //create an instance of this object to call
-    
-    private ArrayList<CollisionPrimitive> objects;       
-    private ArrayList<Contact> objectContacts;
-    ContactResolver objectResolver;
-    private static ForceRegistry forceRegistry;
-    private static CollisionDetector detector;
-    
-    //MOVE THESE SOMEWHERE CLEANER
-    //DEBUGGING VALUES FOR PAUSING UPDATE LOOP
-    private boolean pausePressed, pauseWasPressed, paused = false;
-    private boolean incrementPressed, incrementWasPressed, increment = false;
-    
-    /**
-     * Generates a basic setup level for testing
-     */
-    private void generateTestLevel()
-    {
-        Box box = new Box();
-        box.setState(new Vec(0.0f, 6.5f, 0f), new Quaternion(), new Vec(0.5f, 0.5f, 0.5f), new Vec(0, -15, 0));
-        objects.add(box);
-        Box bottom = new Box();
-        bottom.setState(new Vec(0.0f, -1.5f, 0.0f), new Quaternion(), new Vec(0.5f, 0.5f, 0.5f), new Vec(0, 0, 0));
-        objects.add(bottom);
-        Box side = new Box();
-        side.setState(new Vec(0.0f, -1.5f, 1f), new Quaternion(), new Vec(0.5f, 0.5f, 0.5f), new Vec(0, 0, 0));
-        objects.add(side);
-        Box bottomer = new Box();
-        bottomer.setState(new Vec(0.0f, -2.5f, 0f), new Quaternion(), new Vec(0.5f, 0.5f, 0.5f), new Vec(0, 0, 0));
-        objects.add(bottomer);
-        Box sideBottom = new Box();
-        sideBottom.setState(new Vec(0.0f, -2.5f, 1f), new Quaternion(), new Vec(0.5f, 0.5f, 0.5f), new Vec(0, 0, 0));
-        objects.add(sideBottom);
-        Box rightBottom = new Box();
-        rightBottom.setState(new Vec(0.0f, -1.5f, -1f), new Quaternion(), new Vec(0.5f, 0.5f, 0.5f), new Vec(0, 0, 0));
-        objects.add(rightBottom);
-        Box rightBottomer = new Box();
-        rightBottomer.setState(new Vec(0.0f, -2.5f, -1f), new Quaternion(), new Vec(0.5f, 0.5f, 0.5f), new Vec(0, 0, 0));
-        objects.add(rightBottomer);
-    }
-    
-    /**
-     * Initialise the game state
-     */
-    public Game()
-    {                
-        objects = new ArrayList<CollisionPrimitive>();    
-        forceRegistry = new ForceRegistry();
-        objectResolver = new ContactResolver(1);
-        detector = new CollisionDetector();
-        
-        generateTestLevel();                                                    
-    }
-    
-    /**
-     * Get input of all controllable objects in the game state
-     */
-    public void getInput()                                                  
-    {
-        pausePressed = Keyboard.isKeyDown(Keyboard.KEY_P);
-        if(pausePressed && !pauseWasPressed)
-        {
-            if(!paused)
-            {
-                paused = true;
-            }
-            else
-            {
-                paused = false;
-            }
-        }
-        pauseWasPressed = pausePressed;
-        
-        incrementPressed = Keyboard.isKeyDown(Keyboard.KEY_O);
-        if(incrementPressed && !incrementWasPressed && paused)
-        {
-            increment = true;
-        }
-        incrementWasPressed = incrementPressed;
-    }
-    
-    /**
-     * Update the logic of all objects
-     */
-    public void update()                                                        
-    {
-        if(!paused || increment)                                                //check if game is paused
-        {
-            forceRegistry.UpdateForces(Time.getPhysicsDelta());
-            
-            for(CollisionPrimitive go : objects)                                            
-            {
-                
-                    go.update(Time.getPhysicsDelta());                                                   
-                  
-            }
-            
-            CollisionData data = new CollisionData();
-            data.tolerance = 0.1f;
-            detector = new CollisionDetector();
-            for(int i = 0; i < objects.size(); i++)
-            {
-                for(int j = 1; j < objects.size(); j++)
-                {
-                    if(i == j)
-                    {
-                        continue;
-                    }
-                    detector.boxAndBox((CollisionBox)objects.get(i), (CollisionBox)objects.get(j), data);
-                }
-            }
-            objectResolver.resolveContacts(data.contacts, Time.getPhysicsDelta());
-        }
-        else
-        {
-            
-        }
-        increment = false;
-    }
-    
-    /**
-     * Render all objects in 3D space
-     */
-    public void render()                                                        
-    {   
-        glEnable(GL_TEXTURE_2D);
-        glShadeModel(GL_SMOOTH);
-        glEnable(GL_DEPTH_TEST);
-        glDepthFunc(GL_LEQUAL);
-        
-        glClearColor(0, 0, 0, 0);
-        glClearDepth(1.0f);
-        
-        glMatrixMode(GL_PROJECTION);
-        glLoadIdentity();
-        
-        GLU.gluPerspective(90, Display.getWidth() / Display.getHeight(), 0.1f, 500);
-        
-        glMatrixMode(GL_MODELVIEW);
-        		
-        GLU.gluLookAt(5.0f, 0.0f,  0.0f, 0.0f, 0.0f,  0.0f, 0.0f, 1.0f, 0.0f);
-        
-        for(CollisionPrimitive go : objects)                                            
-        {
-            go.render();                                                      
-        }
-    }
-    
-    /**
-     * Get all objects in the game
-     * 
-     * @return 
-     */
-    public ArrayList<CollisionPrimitive> getObjects()                                 
-    {
-        return objects;
-    }
-    
-    /**
-     * Get all forces in the game
-     * 
-     * @return 
-     */
-    public static ForceRegistry getForceRegistry()
-    {
-        return forceRegistry;
-    }
+package com.base.engine.states;
+
+import com.base.game.Time;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import com.base.engine.physics.BodySnapshot;
+import com.base.engine.physics.Broadphase;
+import com.base.engine.physics.CollisionDetector;
+import com.base.engine.physics.CollisionPrimitive;
+import com.base.engine.physics.Contact;
+import com.base.engine.physics.ContactSolver;
+import com.base.engine.physics.ForceRegistry;
+import com.base.engine.physics.IslandManager;
+import com.base.engine.physics.SnapshotBuffer;
+import com.base.engine.physics.World;
+import com.base.engine.math.Quaternion;
+import com.base.engine.math.Vec;
+import org.lwjgl.input.Keyboard;
+import org.lwjgl.opengl.Display;
+import static org.lwjgl.opengl.GL11.GL_DEPTH_TEST;
+import static org.lwjgl.opengl.GL11.GL_LEQUAL;
+import static org.lwjgl.opengl.GL11.GL_MODELVIEW;
+import static org.lwjgl.opengl.GL11.GL_PROJECTION;
+import static org.lwjgl.opengl.GL11.GL_SMOOTH;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
+import static org.lwjgl.opengl.GL11.glClearColor;
+import static org.lwjgl.opengl.GL11.glClearDepth;
+import static org.lwjgl.opengl.GL11.glDepthFunc;
+import static org.lwjgl.opengl.GL11.glEnable;
+import static org.lwjgl.opengl.GL11.glLoadIdentity;
+import static org.lwjgl.opengl.GL11.glMatrixMode;
+import static org.lwjgl.opengl.GL11.glShadeModel;
+import org.lwjgl.util.glu.GLU;
+import com.base.engine.physics.Box;
+
+
+/**
+ * Represents the game state in the engine loop, handles the update, input and rendering of all objects during this state
+ * 
+ * @author JordanG
+ */
+public class Game
+{   
+    public static Game game;                                                    //create an instance of this object to call
+    
+    private World world;                                                        //every body of the game and the physics that steps them
+    private SnapshotBuffer snapshots;                                           //bodies as of the last step, handed from the update thread to the render thread
+    private ArrayList<Contact> objectContacts;
+    
+    //MOVE THESE SOMEWHERE CLEANER
+    //DEBUGGING VALUES FOR PAUSING UPDATE LOOP
+    private boolean pausePressed, pauseWasPressed;
+    private boolean incrementPressed, incrementWasPressed;
+    private volatile boolean paused = false;                                   //set by input, read by the update thread
+    private final AtomicBoolean increment = new AtomicBoolean();               //set by input, cleared by the update thread when it steps
+    
+    /**
+     * Generates a basic setup level for testing
+     */
+    private void generateTestLevel()
+    {
+        Box box = new Box(world.getBodies());
+        box.setState(new Vec(0.0f, 6.5f, 0f), new Quaternion(), new Vec(0.5f, 0.5f, 0.5f), new Vec(0, -15, 0));
+        world.add(box);
+        Box bottom = new Box(world.getBodies());
+        bottom.setState(new Vec(0.0f, -1.5f, 0.0f), new Quaternion(), new Vec(0.5f, 0.5f, 0.5f), new Vec(0, 0, 0));
+        world.add(bottom);
+        Box side = new Box(world.getBodies());
+        side.setState(new Vec(0.0f, -1.5f, 1f), new Quaternion(), new Vec(0.5f, 0.5f, 0.5f), new Vec(0, 0, 0));
+        world.add(side);
+        Box bottomer = new Box(world.getBodies());
+        bottomer.setState(new Vec(0.0f, -2.5f, 0f), new Quaternion(), new Vec(0.5f, 0.5f, 0.5f), new Vec(0, 0, 0));
+        world.add(bottomer);
+        Box sideBottom = new Box(world.getBodies());
+        sideBottom.setState(new Vec(0.0f, -2.5f, 1f), new Quaternion(), new Vec(0.5f, 0.5f, 0.5f), new Vec(0, 0, 0));
+        world.add(sideBottom);
+        Box rightBottom = new Box(world.getBodies());
+        rightBottom.setState(new Vec(0.0f, -1.5f, -1f), new Quaternion(), new Vec(0.5f, 0.5f, 0.5f), new Vec(0, 0, 0));
+        world.add(rightBottom);
+        Box rightBottomer = new Box(world.getBodies());
+        rightBottomer.setState(new Vec(0.0f, -2.5f, -1f), new Quaternion(), new Vec(0.5f, 0.5f, 0.5f), new Vec(0, 0, 0));
+        world.add(rightBottomer);
+    }
+    
+    /**
+     * Initialise the game state
+     */
+    public Game()
+    {                
+        world = new World();
+        world.setContinuousCollision(true);                                     //keeps the falling box from passing through the small ones at 60 steps a second
+        snapshots = new SnapshotBuffer(64);
+        
+        generateTestLevel();                                                    
+        for(CollisionPrimitive go : world.getObjects())
+        {
+            go.body.setSleepsWithIsland(true);
+        }
+    }
+    
+    /**
+     * Get input of all controllable objects in the game state
+     */
+    public void getInput()                                                  
+    {
+        pausePressed = Keyboard.isKeyDown(Keyboard.KEY_P);
+        if(pausePressed && !pauseWasPressed)
+        {
+            if(!paused)
+            {
+                paused = true;
+            }
+            else
+            {
+                paused = false;
+            }
+        }
+        pauseWasPressed = pausePressed;
+        
+        incrementPressed = Keyboard.isKeyDown(Keyboard.KEY_O);
+        if(incrementPressed && !incrementWasPressed && paused)
+        {
+            increment.set(true);
+        }
+        incrementWasPressed = incrementPressed;
+    }
+    
+    /**
+     * Update the logic of all objects
+     */
+    public void update()                                                        
+    {
+        if(!paused || increment.compareAndSet(true, false))                     //check if game is paused
+        {
+            world.step(Time.getPhysicsDelta());
+            snapshots.publish(world.getBodies(), Time.getStepFraction(), Time.getTimeScale());
+        }
+    }
+    
+    /**
+     * Render all objects in 3D space
+     * Objects are drawn between the last two published steps a step behind real time, so this can run at any rate while the next step is being simulated
+     */
+    public void render()                                                        
+    {   
+        glEnable(GL_TEXTURE_2D);
+        glShadeModel(GL_SMOOTH);
+        glEnable(GL_DEPTH_TEST);
+        glDepthFunc(GL_LEQUAL);
+        
+        glClearColor(0, 0, 0, 0);
+        glClearDepth(1.0f);
+        
+        glMatrixMode(GL_PROJECTION);
+        glLoadIdentity();
+        
+        GLU.gluPerspective(90, Display.getWidth() / Display.getHeight(), 0.1f, 500);
+        
+        glMatrixMode(GL_MODELVIEW);
+        		
+        GLU.gluLookAt(5.0f, 0.0f,  0.0f, 0.0f, 0.0f,  0.0f, 0.0f, 1.0f, 0.0f);
+        
+        BodySnapshot current = snapshots.acquire();
+        BodySnapshot previous = snapshots.getPrevious();
+        float alpha = snapshots.getAlpha(System.nanoTime(), Time.getPhysicsStepNanos());
+        for(CollisionPrimitive go : world.getObjects())                                            
+        {
+            go.render(previous, current, alpha);                                                      
+        }
+    }
+    
+    /**
+     * Get all objects in the game
+     * 
+     * @return 
+     */
+    public ArrayList<CollisionPrimitive> getObjects()                                 
+    {
+        return world.getObjects();
+    }
+    
+    /**
+     * Get the world holding the bodies of the game
+     * 
+     * @return 
+     */
+    public World getWorld()
+    {
+        return world;
+    }
+    
+    /**
+     * Get the broadphase used to find pairs for the narrowphase
+     * 
+     * @return 
+     */
+    public Broadphase getBroadphase()
+    {
+        return world.getBroadphase();
+    }
+    
+    /**
+     * Swap the broadphase used to find pairs for the narrowphase, moving all objects into the new one
+     * 
+     * @param broadphase 
+     */
+    public final void setBroadphase(Broadphase broadphase)
+    {
+        world.setBroadphase(broadphase);
+    }
+    
+    /**
+     * Get the solver used to resolve contacts
+     * 
+     * @return 
+     */
+    public ContactSolver getContactSolver()
+    {
+        return world.getContactSolver();
+    }
+    
+    /**
+     * Swap the solver used to resolve contacts, either the worst-first ContactResolver or the SequentialImpulseSolver
+     * The new solver is given a fresh manifold cache so impulses from the old one are not carried over
+     * 
+     * @param solver 
+     */
+    public final void setContactSolver(ContactSolver solver)
+    {
+        world.setContactSolver(solver);
+    }
+    
+    /**
+     * Set the number of threads islands, and the colours of large islands, are resolved on, 1 resolves them on the update thread
+     * The results are the same whatever the number of threads
+     * 
+     * @param threads 
+     */
+    public final void setSolverThreads(int threads)
+    {
+        world.setSolverThreads(threads);
+    }
+    
+    /**
+     * Get the islands the bodies were grouped into on the last step
+     * 
+     * @return 
+     */
+    public IslandManager getIslands()
+    {
+        return world.getIslands();
+    }
+    
+    /**
+     * Get the narrowphase collision detector
+     * 
+     * @return 
+     */
+    public static CollisionDetector getCollisionDetector()
+    {
+        return game.world.getCollisionDetector();
+    }
+    
+    /**
+     * Get all forces in the game
+     * 
+     * @return 
+     */
+    public static ForceRegistry getForceRegistry()
+    {
+        return game.world.getForceRegistry();
+    }
 }
\ No newline at end of file
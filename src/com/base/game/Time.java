@@ -1,66 +1,122 @@
-package com.base.game;
-
-/**
- * Handles time-based operations based on system time
- * 
- * @author JordanG
- */
-public class Time
-{
-    public static final float DAMPING = 0.00000004f;                           
-    
-    private static long currentTime;                                           
-    private static long lastTime;                                              
-    
-    public static long getTime()                                               
-    {
-        return System.nanoTime();                                             
-    }
-    
-    /**
-     * Get the fixed delta of the timer
-     * 
-     * @return 
-     */
-    public static float getDelta()                                              
-    {
-        return 0.66f;                         
-    }
-    
-    /**
-     * Get the fixed delta of the time in the decoupled-physics loop
-     * @return 
-     */
-    public static float getPhysicsDelta()
-    {
-        return 0.01666666666f;
-    }
-    
-    /**
-     * Update the system time and last frame's time
-     */
-    public static void update()                                              
-    {
-        lastTime = currentTime;                                             
-        currentTime = getTime();                                            
-    }
-    
-    /**
-     * Initialise the system time
-     */
-    public static void init()                                        
-    {
-        currentTime = getTime();                                       
-        lastTime = getTime();                                               
-    }
-    
-    /**
-     * Get the duration of the last frame
-     * 
-     * @return 
-     */
-    public static float getFrameDuration()
-    {
-        return currentTime - lastTime;
-    }
-}
+package com.base.game;
+
+/**
+ * Handles time-based operations based on system time
+ * 
+ * @author JordanG
+ */
+public class Time
+{
+    public static final float DAMPING = 0.00000004f;                           
+    
+    private static long currentTime;                                           
+    private static float physicsDelta = 0.01666666666f;
+    private static long lastTime;                                              
+    private static float stepFraction;
+    private static float timeScale = 1.0f;
+    
+    public static long getTime()                                               
+    {
+        return System.nanoTime();                                             
+    }
+    
+    /**
+     * Get the fixed delta of the timer
+     * 
+     * @return 
+     */
+    public static float getDelta()                                              
+    {
+        return 0.66f;                         
+    }
+    
+    /**
+     * Get the fixed delta of the time in the decoupled-physics loop
+     * @return 
+     */
+    public static float getPhysicsDelta()
+    {
+        return physicsDelta;
+    }
+    
+    /**
+     * Set how many physics steps are run each second, 60 by default
+     * A lower rate is cheaper to simulate and rendering interpolates between the steps
+     * 
+     * @param stepsPerSecond 
+     */
+    public static void setPhysicsRate(int stepsPerSecond)
+    {
+        physicsDelta = 1.0f / stepsPerSecond;
+    }
+    
+    /**
+     * Get the real time between physics steps in nanoseconds
+     * 
+     * @return 
+     */
+    public static long getPhysicsStepNanos()
+    {
+        return (long)(physicsDelta * 1000000000.0);
+    }
+    
+    /**
+     * Set the state of the step clock after it has handed out the steps for a frame, for the steps to publish with their snapshots
+     * 
+     * @param fraction Time left over in the clock as a fraction of a step
+     * @param scale How much slower than real time the clock is running
+     */
+    public static void setStepClock(float fraction, float scale)
+    {
+        stepFraction = fraction;
+        timeScale = scale;
+    }
+    
+    /**
+     * Get the time left over in the step clock as a fraction of a step, 0 when steps are not handed out by a clock
+     * 
+     * @return 
+     */
+    public static float getStepFraction()
+    {
+        return stepFraction;
+    }
+    
+    /**
+     * Get how much slower than real time the step clock is running, 1 when it is not dilated
+     * 
+     * @return 
+     */
+    public static float getTimeScale()
+    {
+        return timeScale;
+    }
+    
+    /**
+     * Update the system time and last frame's time
+     */
+    public static void update()                                              
+    {
+        lastTime = currentTime;                                             
+        currentTime = getTime();                                            
+    }
+    
+    /**
+     * Initialise the system time
+     */
+    public static void init()                                        
+    {
+        currentTime = getTime();                                       
+        lastTime = getTime();                                               
+    }
+    
+    /**
+     * Get the duration of the last frame
+     * 
+     * @return 
+     */
+    public static float getFrameDuration()
+    {
+        return currentTime - lastTime;
+    }
+}